@@ -0,0 +1,40 @@
+package com.objetivos.api_gateway.filter;
+
+import java.time.Duration;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Almacén de los token buckets del gateway.
+ * <p>
+ * Las implementaciones guardan por clave un único instante (el "theoretical arrival time"
+ * de GCRA), que equivale a un token bucket con ráfaga = capacidad y se actualiza de forma
+ * atómica sin leer y escribir dos valores.
+ */
+public interface AlmacenTokens {
+
+    Mono<Consumo> consumir(String clave, RateLimitProperties.Limite limite);
+
+    /**
+     * Devuelve al bucket un token consumido por una petición que al final no entró.
+     */
+    Mono<Void> devolver(String clave, RateLimitProperties.Limite limite);
+
+    /**
+     * Resultado de intentar consumir un token.
+     *
+     * @param permitido   si la petición entra
+     * @param restantes   tokens que quedan tras esta petición
+     * @param reintentarEn cuánto falta para que haya un token disponible (cero si se permitió)
+     */
+    record Consumo(boolean permitido, long restantes, Duration reintentarEn) {
+
+        static Consumo permitido(long restantes) {
+            return new Consumo(true, restantes, Duration.ZERO);
+        }
+
+        static Consumo rechazado(Duration reintentarEn) {
+            return new Consumo(false, 0, reintentarEn);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.objetivos.api_gateway.filter;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Buckets en memoria para un solo nodo. Cada clave es un AtomicLong que se actualiza con
+ * compareAndSet, sin locks; las claves sin uso durante un rato se descartan.
+ */
+@Component
+@ConditionalOnProperty(prefix = "gateway.rate-limit", name = "almacen", havingValue = "memoria", matchIfMissing = true)
+public class AlmacenTokensMemoria implements AlmacenTokens {
+
+    private final Cache<String, AtomicLong> buckets;
+    private final LongSupplier reloj;
+
+    public AlmacenTokensMemoria() {
+        this(System::nanoTime);
+    }
+
+    AlmacenTokensMemoria(LongSupplier reloj) {
+        this.reloj = reloj;
+        this.buckets = Caffeine.newBuilder()
+                .expireAfterAccess(10, TimeUnit.MINUTES)
+                .maximumSize(100_000)
+                .build();
+    }
+
+    @Override
+    public Mono<Consumo> consumir(String clave, RateLimitProperties.Limite limite) {
+        return Mono.just(consumirAhora(clave, limite));
+    }
+
+    @Override
+    public Mono<Void> devolver(String clave, RateLimitProperties.Limite limite) {
+        devolverAhora(clave, limite);
+        return Mono.empty();
+    }
+
+    // Retrasar la llegada teórica un intervalo equivale a sumar un token; si el bucket ya
+    // se recargó del todo, consumirAhora parte del instante actual y la resta no tiene efecto
+    void devolverAhora(String clave, RateLimitProperties.Limite limite) {
+        AtomicLong llegadaTeorica = buckets.getIfPresent(clave);
+        if (llegadaTeorica != null) {
+            llegadaTeorica.addAndGet(-limite.intervaloNanos());
+        }
+    }
+
+    Consumo consumirAhora(String clave, RateLimitProperties.Limite limite) {
+        long intervalo = limite.intervaloNanos();
+        long tolerancia = limite.toleranciaNanos();
+        long ahora = reloj.getAsLong();
+        AtomicLong llegadaTeorica = buckets.get(clave, k -> new AtomicLong(ahora));
+
+        while (true) {
+            long actual = llegadaTeorica.get();
+            long nueva = Math.max(actual, ahora) + intervalo;
+            long exceso = nueva - ahora - tolerancia;
+            if (exceso > 0) {
+                return Consumo.rechazado(Duration.ofNanos(exceso));
+            }
+            if (llegadaTeorica.compareAndSet(actual, nueva)) {
+                return Consumo.permitido((tolerancia - (nueva - ahora)) / intervalo);
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.objetivos.api_gateway.filter;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Buckets compartidos entre instancias del gateway en Redis (o cualquier servidor compatible
+ * que ejecute scripts Lua). La actualización la hace un script para que sea atómica.
+ * <p>
+ * Si Redis no responde se deja pasar la petición: es preferible perder el límite un rato
+ * a rechazar todo el tráfico.
+ */
+@Component
+@ConditionalOnProperty(prefix = "gateway.rate-limit", name = "almacen", havingValue = "redis")
+public class AlmacenTokensRedis implements AlmacenTokens {
+
+    private static final Logger log = LoggerFactory.getLogger(AlmacenTokensRedis.class);
+
+    private static final String PREFIJO = "gateway:rate-limit:";
+
+    @SuppressWarnings("rawtypes")
+    private final RedisScript<List> script = RedisScript.of(new ClassPathResource("scripts/token_bucket.lua"),
+            List.class);
+
+    private final RedisScript<Long> scriptDevolver = RedisScript.of(
+            new ClassPathResource("scripts/token_bucket_devolver.lua"), Long.class);
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+
+    public AlmacenTokensRedis(ReactiveStringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public Mono<Consumo> consumir(String clave, RateLimitProperties.Limite limite) {
+        long intervaloMicros = Math.max(1, limite.intervaloNanos() / 1_000);
+        long toleranciaMicros = limite.getCapacidad() * intervaloMicros;
+
+        return redisTemplate.execute(script, List.of(PREFIJO + clave),
+                List.of(Long.toString(intervaloMicros), Long.toString(toleranciaMicros)))
+                .next()
+                .map(this::toConsumo)
+                .onErrorResume(e -> {
+                    log.warn("No se pudo consultar el bucket {} en Redis, se permite la petición: {}",
+                            clave, e.getMessage());
+                    return Mono.just(Consumo.permitido(-1));
+                });
+    }
+
+    @Override
+    public Mono<Void> devolver(String clave, RateLimitProperties.Limite limite) {
+        long intervaloMicros = Math.max(1, limite.intervaloNanos() / 1_000);
+
+        return redisTemplate.execute(scriptDevolver, List.of(PREFIJO + clave),
+                List.of(Long.toString(intervaloMicros)))
+                .then()
+                .onErrorResume(e -> {
+                    log.warn("No se pudo devolver el token del bucket {} en Redis: {}", clave, e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private Consumo toConsumo(List<?> resultado) {
+        boolean permitido = ((Number) resultado.get(0)).longValue() == 1;
+        if (!permitido) {
+            return Consumo.rechazado(Duration.ofNanos(((Number) resultado.get(2)).longValue() * 1_000));
+        }
+        return Consumo.permitido(((Number) resultado.get(1)).longValue());
+    }
+}
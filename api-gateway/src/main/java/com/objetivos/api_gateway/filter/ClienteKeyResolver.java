@@ -0,0 +1,39 @@
+package com.objetivos.api_gateway.filter;
+
+import java.net.InetSocketAddress;
+
+import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ServerWebExchange;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Identifica al cliente para el límite de peticiones: la API key si viene en la cabecera
+ * configurada y es una de gateway.rate-limit.claves y, si no, la IP remota. Una key
+ * desconocida no cuenta: si cada valor inventado tuviera su propio bucket, cambiar la
+ * cabecera en cada petición esquivaría el límite. Por lo mismo no se usa X-Forwarded-For.
+ */
+@Component
+public class ClienteKeyResolver implements KeyResolver {
+
+    private final RateLimitProperties properties;
+
+    public ClienteKeyResolver(RateLimitProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public Mono<String> resolve(ServerWebExchange exchange) {
+        String apiKey = exchange.getRequest().getHeaders().getFirst(properties.getCabeceraCliente());
+        if (StringUtils.hasText(apiKey) && properties.getClaves().contains(apiKey)) {
+            return Mono.just("key:" + apiKey);
+        }
+        InetSocketAddress remoto = exchange.getRequest().getRemoteAddress();
+        String ip = remoto != null && remoto.getAddress() != null
+                ? remoto.getAddress().getHostAddress()
+                : "desconocida";
+        return Mono.just("ip:" + ip);
+    }
+}
@@ -0,0 +1,129 @@
+package com.objetivos.api_gateway.filter;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuración del límite de peticiones del gateway (gateway.rate-limit.*).
+ */
+@ConfigurationProperties(prefix = "gateway.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    // Dónde viven los buckets: "memoria" (un solo nodo) o "redis" (compartido entre instancias)
+    private String almacen = "memoria";
+
+    // Cabecera con la API key del cliente; si no viene se usa la IP remota
+    private String cabeceraCliente = "X-API-Key";
+
+    // API keys aceptadas; una key que no está aquí no identifica al cliente y se usa la IP remota
+    private Set<String> claves = new HashSet<>();
+
+    // Límites por ID de ruta; las rutas que no aparecen aquí no se limitan
+    private Map<String, Ruta> rutas = new HashMap<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getAlmacen() {
+        return almacen;
+    }
+
+    public void setAlmacen(String almacen) {
+        this.almacen = almacen;
+    }
+
+    public String getCabeceraCliente() {
+        return cabeceraCliente;
+    }
+
+    public void setCabeceraCliente(String cabeceraCliente) {
+        this.cabeceraCliente = cabeceraCliente;
+    }
+
+    public Set<String> getClaves() {
+        return claves;
+    }
+
+    public void setClaves(Set<String> claves) {
+        this.claves = claves;
+    }
+
+    public Map<String, Ruta> getRutas() {
+        return rutas;
+    }
+
+    public void setRutas(Map<String, Ruta> rutas) {
+        this.rutas = rutas;
+    }
+
+    /**
+     * Límites de una ruta: uno por cliente y otro para la ruta completa (todos los clientes juntos).
+     * Cualquiera de los dos puede omitirse.
+     */
+    public static class Ruta {
+
+        private Limite cliente;
+        private Limite ruta;
+
+        public Limite getCliente() {
+            return cliente;
+        }
+
+        public void setCliente(Limite cliente) {
+            this.cliente = cliente;
+        }
+
+        public Limite getRuta() {
+            return ruta;
+        }
+
+        public void setRuta(Limite ruta) {
+            this.ruta = ruta;
+        }
+    }
+
+    /**
+     * Token bucket: se recargan recargaPorSegundo tokens por segundo hasta un máximo de
+     * capacidad, que es la ráfaga que se admite de golpe.
+     */
+    public static class Limite {
+
+        private long capacidad;
+        private double recargaPorSegundo;
+
+        public long getCapacidad() {
+            return capacidad;
+        }
+
+        public void setCapacidad(long capacidad) {
+            this.capacidad = capacidad;
+        }
+
+        public double getRecargaPorSegundo() {
+            return recargaPorSegundo;
+        }
+
+        public void setRecargaPorSegundo(double recargaPorSegundo) {
+            this.recargaPorSegundo = recargaPorSegundo;
+        }
+
+        long intervaloNanos() {
+            return (long) Math.ceil(1_000_000_000d / recargaPorSegundo);
+        }
+
+        long toleranciaNanos() {
+            return capacidad * intervaloNanos();
+        }
+    }
+}
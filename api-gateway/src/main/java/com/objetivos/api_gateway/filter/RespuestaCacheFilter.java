@@ -0,0 +1,258 @@
+package com.objetivos.api_gateway.filter;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.server.ServerWebExchange;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Cache de respuestas GET por ruta para las rutas configuradas en gateway.cache.rutas.
+ * <ul>
+ * <li>Las respuestas 200 se guardan con el TTL de su ruta, en una cache acotada por bytes.</li>
+ * <li>Las peticiones GET idénticas que llegan mientras otra igual está en curso esperan
+ * esa misma respuesta en lugar de generar otra llamada al backend.</li>
+ * <li>Cada respuesta lleva ETag (el del backend si lo trae); si coincide con If-None-Match
+ * se responde 304. Al backend no se le reenvían las cabeceras condicionales: la respuesta
+ * se comparte entre clientes y tiene que traer el cuerpo completo.</li>
+ * <li>Cualquier escritura (POST, PUT, PATCH, DELETE) sobre la ruta invalida completas la ruta
+ * y las demás de su grupo (gateway.cache.grupos): las rutas que leen los mismos datos desde
+ * otro backend se invalidan con las escrituras de la ruta principal.</li>
+ * </ul>
+ */
+@Component
+public class RespuestaCacheFilter implements GlobalFilter, Ordered {
+
+    private static final String CABECERA_CACHE = "X-Cache";
+
+    private final RespuestaCacheProperties properties;
+    private final Cache<Clave, RespuestaCacheada> cache;
+    private final Map<Clave, Mono<RespuestaCacheada>> enCurso = new ConcurrentHashMap<>();
+
+    // Generación por grupo de rutas: una respuesta pedida antes de una escritura no se guarda
+    private final Map<String, AtomicLong> generaciones = new ConcurrentHashMap<>();
+
+    private final Counter aciertos;
+    private final Counter fallos;
+    private final Counter coalescidas;
+
+    public RespuestaCacheFilter(RespuestaCacheProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaxBytes().toBytes())
+                .weigher((Clave clave, RespuestaCacheada respuesta) -> respuesta.cuerpo().length
+                        + clave.uri().length())
+                .expireAfterWrite(properties.getRutas().values().stream()
+                        .max(Duration::compareTo)
+                        .orElse(Duration.ofMinutes(1)))
+                .build();
+        this.aciertos = Counter.builder("gateway.cache.solicitudes").tag("resultado", "hit").register(meterRegistry);
+        this.fallos = Counter.builder("gateway.cache.solicitudes").tag("resultado", "miss").register(meterRegistry);
+        this.coalescidas = Counter.builder("gateway.cache.solicitudes").tag("resultado", "coalescida")
+                .register(meterRegistry);
+        Gauge.builder("gateway.cache.hit.ratio", this, RespuestaCacheFilter::ratioAciertos)
+                .description("Proporción de GET cacheables servidos sin llamar al backend")
+                .register(meterRegistry);
+        Gauge.builder("gateway.cache.entradas", cache, c -> c.estimatedSize()).register(meterRegistry);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (!properties.isEnabled() || route == null || !properties.getRutas().containsKey(route.getId())) {
+            return chain.filter(exchange);
+        }
+        String rutaId = route.getId();
+        String grupo = properties.grupo(rutaId);
+        HttpMethod method = exchange.getRequest().getMethod();
+
+        if (HttpMethod.GET.equals(method)) {
+            // Ni las respuestas en streaming ni las peticiones con credenciales se cachean o comparten
+            HttpHeaders headers = exchange.getRequest().getHeaders();
+            if (headers.getAccept().contains(MediaType.APPLICATION_NDJSON)
+                    || headers.containsKey(HttpHeaders.AUTHORIZATION)
+                    || headers.containsKey(HttpHeaders.COOKIE)) {
+                return chain.filter(exchange);
+            }
+            return responderGet(exchange, chain, grupo, rutaId, properties.getRutas().get(rutaId));
+        }
+        if (HttpMethod.HEAD.equals(method) || HttpMethod.OPTIONS.equals(method)) {
+            return chain.filter(exchange);
+        }
+
+        // Escritura: se invalida antes (para descartar lo que esté en curso) y después de llamar al backend
+        invalidarGrupo(grupo);
+        return chain.filter(exchange).doFinally(signal -> invalidarGrupo(grupo));
+    }
+
+    @Override
+    public int getOrder() {
+        // Antes de NettyWriteResponseFilter para poder capturar el cuerpo de la respuesta
+        return NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1;
+    }
+
+    private Mono<Void> responderGet(ServerWebExchange exchange, GatewayFilterChain chain, String grupo,
+            String rutaId, Duration ttl) {
+        ServerHttpRequest request = exchange.getRequest();
+        Clave clave = new Clave(grupo, rutaId, request.getURI().getRawPath()
+                + (request.getURI().getRawQuery() != null ? "?" + request.getURI().getRawQuery() : ""),
+                request.getHeaders().getFirst(HttpHeaders.ACCEPT));
+
+        RespuestaCacheada cacheada = cache.getIfPresent(clave);
+        if (cacheada != null && cacheada.expiraEn() > System.nanoTime()) {
+            aciertos.increment();
+            return escribir(exchange, cacheada, "HIT");
+        }
+
+        long generacion = generacion(grupo).get();
+        AtomicBoolean lider = new AtomicBoolean(false);
+        Mono<RespuestaCacheada> compartida = enCurso.computeIfAbsent(clave, k -> {
+            lider.set(true);
+            return pedirAlBackend(exchange, chain, ttl)
+                    .doOnNext(respuesta -> {
+                        if (respuesta.cacheable() && generacion(grupo).get() == generacion) {
+                            cache.put(k, respuesta);
+                        }
+                    })
+                    .doFinally(signal -> enCurso.remove(k))
+                    .cache();
+        });
+        if (lider.get()) {
+            fallos.increment();
+        } else {
+            coalescidas.increment();
+        }
+        return compartida.flatMap(respuesta -> escribir(exchange, respuesta, lider.get() ? "MISS" : "COALESCED"));
+    }
+
+    /**
+     * Llama al backend con la respuesta decorada para quedarse con el cuerpo completo
+     * en lugar de escribirlo; lo escribe después {@link #escribir}, igual que para las
+     * peticiones que esperaban esta misma respuesta.
+     */
+    private Mono<RespuestaCacheada> pedirAlBackend(ServerWebExchange exchange, GatewayFilterChain chain,
+            Duration ttl) {
+        ServerHttpResponse original = exchange.getResponse();
+        AtomicReference<byte[]> cuerpo = new AtomicReference<>(new byte[0]);
+        ServerHttpResponseDecorator capturada = new ServerHttpResponseDecorator(original) {
+            @Override
+            public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+                return DataBufferUtils.join(Flux.from(body))
+                        .doOnNext(buffer -> {
+                            byte[] bytes = new byte[buffer.readableByteCount()];
+                            buffer.read(bytes);
+                            DataBufferUtils.release(buffer);
+                            cuerpo.set(bytes);
+                        })
+                        .then();
+            }
+
+            @Override
+            public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+                return writeWith(Flux.from(body).flatMapSequential(p -> p));
+            }
+        };
+
+        ServerWebExchange incondicional = exchange.mutate()
+                .request(r -> r.headers(h -> {
+                    h.remove(HttpHeaders.IF_NONE_MATCH);
+                    h.remove(HttpHeaders.IF_MODIFIED_SINCE);
+                }))
+                .response(capturada)
+                .build();
+        return chain.filter(incondicional)
+                .then(Mono.fromSupplier(() -> {
+                    HttpHeaders headers = new HttpHeaders();
+                    headers.putAll(original.getHeaders());
+                    headers.remove(HttpHeaders.TRANSFER_ENCODING);
+                    headers.remove(HttpHeaders.CONTENT_LENGTH);
+                    HttpStatusCode status = original.getStatusCode() != null ? original.getStatusCode() : HttpStatus.OK;
+                    byte[] bytes = cuerpo.get();
+                    if (status.value() == HttpStatus.OK.value() && headers.getETag() == null) {
+                        headers.setETag("\"0" + DigestUtils.md5DigestAsHex(bytes) + "\"");
+                    }
+                    return new RespuestaCacheada(status, headers, bytes, System.nanoTime() + ttl.toNanos());
+                }));
+    }
+
+    private Mono<Void> escribir(ServerWebExchange exchange, RespuestaCacheada respuesta, String resultado) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.getHeaders().putAll(respuesta.headers());
+        response.getHeaders().remove(HttpHeaders.TRANSFER_ENCODING);
+        response.getHeaders().set(CABECERA_CACHE, resultado);
+
+        String etag = respuesta.headers().getETag();
+        List<String> ifNoneMatch = exchange.getRequest().getHeaders().getIfNoneMatch();
+        if (etag != null && (ifNoneMatch.contains(etag) || ifNoneMatch.contains("*"))) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            response.getHeaders().remove(HttpHeaders.CONTENT_LENGTH);
+            return response.setComplete();
+        }
+
+        response.setStatusCode(respuesta.status());
+        response.getHeaders().setContentLength(respuesta.cuerpo().length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(respuesta.cuerpo())));
+    }
+
+    private void invalidarGrupo(String grupo) {
+        generacion(grupo).incrementAndGet();
+        cache.asMap().keySet().removeIf(clave -> clave.grupo().equals(grupo));
+    }
+
+    private AtomicLong generacion(String grupo) {
+        return generaciones.computeIfAbsent(grupo, id -> new AtomicLong());
+    }
+
+    private double ratioAciertos() {
+        double total = aciertos.count() + coalescidas.count() + fallos.count();
+        return total == 0 ? 0 : (aciertos.count() + coalescidas.count()) / total;
+    }
+
+    private record Clave(String grupo, String rutaId, String uri, String accept) {
+    }
+
+    private record RespuestaCacheada(HttpStatusCode status, HttpHeaders headers, byte[] cuerpo, long expiraEn) {
+
+        boolean cacheable() {
+            if (status.value() != HttpStatus.OK.value() || headers.containsKey(HttpHeaders.SET_COOKIE)) {
+                return false;
+            }
+            String cacheControl = headers.getCacheControl();
+            return cacheControl == null || !(cacheControl.contains(CacheControl.noStore().getHeaderValue())
+                    || cacheControl.contains("private"));
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.objetivos.api_gateway.filter;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Configuración de la cache de respuestas GET del gateway (gateway.cache.*).
+ */
+@ConfigurationProperties(prefix = "gateway.cache")
+public class RespuestaCacheProperties {
+
+    private boolean enabled = true;
+
+    // Memoria máxima que pueden ocupar los cuerpos cacheados
+    private DataSize maxBytes = DataSize.ofMegabytes(64);
+
+    // TTL por ID de ruta; solo se cachean las rutas que aparecen aquí
+    private Map<String, Duration> rutas = new HashMap<>();
+
+    // Grupo de invalidación por ID de ruta: una escritura en una ruta invalida todas las de su
+    // grupo. Sin entrada, la ruta forma su propio grupo
+    private Map<String, String> grupos = new HashMap<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public DataSize getMaxBytes() {
+        return maxBytes;
+    }
+
+    public void setMaxBytes(DataSize maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    public Map<String, Duration> getRutas() {
+        return rutas;
+    }
+
+    public void setRutas(Map<String, Duration> rutas) {
+        this.rutas = rutas;
+    }
+
+    public Map<String, String> getGrupos() {
+        return grupos;
+    }
+
+    public void setGrupos(Map<String, String> grupos) {
+        this.grupos = grupos;
+    }
+
+    public String grupo(String rutaId) {
+        return grupos.getOrDefault(rutaId, rutaId);
+    }
+}
@@ -0,0 +1,127 @@
+package com.objetivos.api_gateway.filter;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.cloud.gateway.filter.ratelimit.RateLimiter;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+
+/**
+ * RateLimiter que usa el filtro RequestRateLimiter del gateway. Cada petición consume un
+ * token del bucket del cliente en esa ruta y otro del bucket de la ruta completa; si
+ * cualquiera de los dos está vacío se responde 429 con Retry-After.
+ * <p>
+ * El bucket del cliente se consulta primero para que un cliente que ya superó su límite
+ * no gaste tokens de la ruta; si después la ruta rechaza, el token del cliente se devuelve.
+ * <p>
+ * Es @Primary para ganar al RedisRateLimiter que Spring Cloud Gateway registra por su
+ * cuenta al encontrar Redis en el classpath.
+ */
+@Primary
+@Component
+public class TokenBucketRateLimiter implements RateLimiter<RateLimitProperties.Ruta> {
+
+    public static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+    public static final String LIMITE_HEADER = "X-RateLimit-Limit";
+
+    private final RateLimitProperties properties;
+    private final AlmacenTokens almacen;
+    private final MeterRegistry meterRegistry;
+
+    public TokenBucketRateLimiter(RateLimitProperties properties, AlmacenTokens almacen,
+            MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.almacen = almacen;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Mono<Response> isAllowed(String routeId, String id) {
+        RateLimitProperties.Ruta ruta = properties.getRutas().get(routeId);
+        if (!properties.isEnabled() || ruta == null) {
+            return Mono.just(new Response(true, Map.of()));
+        }
+
+        String claveCliente = routeId + ":" + id;
+        return consumir(ruta.getCliente(), claveCliente)
+                .flatMap(cliente -> {
+                    if (!cliente.permitido()) {
+                        return Mono.just(rechazar(routeId, "cliente", ruta.getCliente(), cliente));
+                    }
+                    return consumir(ruta.getRuta(), routeId)
+                            .flatMap(global -> global.permitido()
+                                    ? Mono.just(permitir(routeId, ruta.getCliente(), cliente))
+                                    : devolver(ruta.getCliente(), claveCliente)
+                                            .thenReturn(rechazar(routeId, "ruta", ruta.getRuta(), global)));
+                });
+    }
+
+    @Override
+    public Map<String, RateLimitProperties.Ruta> getConfig() {
+        return properties.getRutas();
+    }
+
+    @Override
+    public Class<RateLimitProperties.Ruta> getConfigClass() {
+        return RateLimitProperties.Ruta.class;
+    }
+
+    @Override
+    public RateLimitProperties.Ruta newConfig() {
+        return new RateLimitProperties.Ruta();
+    }
+
+    private Mono<AlmacenTokens.Consumo> consumir(RateLimitProperties.Limite limite, String clave) {
+        if (limite == null) {
+            return Mono.just(AlmacenTokens.Consumo.permitido(-1));
+        }
+        return almacen.consumir(clave, limite);
+    }
+
+    private Mono<Void> devolver(RateLimitProperties.Limite limite, String clave) {
+        return limite == null ? Mono.empty() : almacen.devolver(clave, limite);
+    }
+
+    private Response permitir(String routeId, RateLimitProperties.Limite limite, AlmacenTokens.Consumo consumo) {
+        contador("permitida", routeId, "ninguno").increment();
+        Map<String, String> headers = new HashMap<>();
+        if (limite != null) {
+            headers.put(LIMITE_HEADER, Long.toString(limite.getCapacidad()));
+            if (consumo.restantes() >= 0) {
+                headers.put(REMAINING_HEADER, Long.toString(consumo.restantes()));
+            }
+        }
+        return new Response(true, headers);
+    }
+
+    private Response rechazar(String routeId, String motivo, RateLimitProperties.Limite limite,
+            AlmacenTokens.Consumo consumo) {
+        contador("rechazada", routeId, motivo).increment();
+        Map<String, String> headers = new HashMap<>();
+        headers.put(HttpHeaders.RETRY_AFTER, Long.toString(segundosHasta(consumo.reintentarEn())));
+        headers.put(LIMITE_HEADER, Long.toString(limite.getCapacidad()));
+        headers.put(REMAINING_HEADER, "0");
+        return new Response(false, headers);
+    }
+
+    private Counter contador(String resultado, String routeId, String limite) {
+        return Counter.builder("gateway.rate-limit.solicitudes")
+                .tag("resultado", resultado)
+                .tag("ruta", routeId)
+                .tag("limite", limite)
+                .register(meterRegistry);
+    }
+
+    // Retry-After va en segundos enteros; se redondea hacia arriba para no invitar a reintentar antes de tiempo
+    private static long segundosHasta(Duration espera) {
+        long segundos = espera.toSeconds();
+        return espera.minusSeconds(segundos).isZero() ? Math.max(1, segundos) : segundos + 1;
+    }
+}
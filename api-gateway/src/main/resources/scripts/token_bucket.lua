@@ -0,0 +1,25 @@
+-- Token bucket (GCRA) atómico. Misma lógica que AlmacenTokensMemoria, con el reloj de Redis.
+-- KEYS[1]: clave del bucket
+-- ARGV[1]: intervalo entre tokens en microsegundos
+-- ARGV[2]: tolerancia (capacidad * intervalo) en microsegundos
+-- Devuelve {permitido (1/0), restantes, reintentar en microsegundos}
+local clave = KEYS[1]
+local intervalo = tonumber(ARGV[1])
+local tolerancia = tonumber(ARGV[2])
+
+local tiempo = redis.call('TIME')
+local ahora = tonumber(tiempo[1]) * 1000000 + tonumber(tiempo[2])
+
+local llegada = tonumber(redis.call('GET', clave)) or ahora
+if llegada < ahora then
+    llegada = ahora
+end
+
+local nueva = llegada + intervalo
+local exceso = nueva - ahora - tolerancia
+if exceso > 0 then
+    return {0, 0, math.ceil(exceso)}
+end
+
+redis.call('SET', clave, nueva, 'PX', math.ceil(tolerancia / 1000) + 1000)
+return {1, math.floor((tolerancia - (nueva - ahora)) / intervalo), 0}
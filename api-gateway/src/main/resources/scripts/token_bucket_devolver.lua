@@ -0,0 +1,8 @@
+-- Devuelve un token al bucket retrasando la llegada teórica un intervalo.
+-- KEYS[1]: clave del bucket
+-- ARGV[1]: intervalo entre tokens en microsegundos
+-- Si la clave ya expiró el bucket está lleno y no hay nada que devolver; DECRBY conserva el TTL.
+if redis.call('EXISTS', KEYS[1]) == 1 then
+    redis.call('DECRBY', KEYS[1], ARGV[1])
+end
+return 1
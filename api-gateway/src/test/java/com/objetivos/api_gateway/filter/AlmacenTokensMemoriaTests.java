@@ -0,0 +1,53 @@
+package com.objetivos.api_gateway.filter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+class AlmacenTokensMemoriaTests {
+
+	private final AtomicLong reloj = new AtomicLong(1_000_000_000L);
+	private final AlmacenTokensMemoria almacen = new AlmacenTokensMemoria(reloj::get);
+
+	@Test
+	void admiteLaRafagaYRechazaConRetryAfter() {
+		RateLimitProperties.Limite limite = limite(3, 10);
+
+		assertEquals(2, almacen.consumirAhora("a", limite).restantes());
+		assertEquals(1, almacen.consumirAhora("a", limite).restantes());
+		assertEquals(0, almacen.consumirAhora("a", limite).restantes());
+
+		AlmacenTokens.Consumo rechazado = almacen.consumirAhora("a", limite);
+		assertFalse(rechazado.permitido());
+		assertEquals(Duration.ofMillis(100), rechazado.reintentarEn());
+
+		// Pasado un intervalo se ha recargado un token, y los buckets son independientes por clave
+		reloj.addAndGet(Duration.ofMillis(100).toNanos());
+		assertTrue(almacen.consumirAhora("a", limite).permitido());
+		assertFalse(almacen.consumirAhora("a", limite).permitido());
+		assertTrue(almacen.consumirAhora("b", limite).permitido());
+	}
+
+	@Test
+	void noAcumulaMasDeLaCapacidad() {
+		RateLimitProperties.Limite limite = limite(2, 1);
+		assertTrue(almacen.consumirAhora("a", limite).permitido());
+		reloj.addAndGet(Duration.ofMinutes(5).toNanos());
+
+		assertTrue(almacen.consumirAhora("a", limite).permitido());
+		assertTrue(almacen.consumirAhora("a", limite).permitido());
+		assertFalse(almacen.consumirAhora("a", limite).permitido());
+	}
+
+	private static RateLimitProperties.Limite limite(long capacidad, double recargaPorSegundo) {
+		RateLimitProperties.Limite limite = new RateLimitProperties.Limite();
+		limite.setCapacidad(capacidad);
+		limite.setRecargaPorSegundo(recargaPorSegundo);
+		return limite;
+	}
+}
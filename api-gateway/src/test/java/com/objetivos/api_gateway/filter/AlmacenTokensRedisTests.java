@@ -0,0 +1,112 @@
+package com.objetivos.api_gateway.filter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+/**
+ * Mismos casos que AlmacenTokensMemoriaTests contra el script Lua en un Redis real. El script
+ * usa el reloj de Redis, así que la recarga se prueba esperando el tiempo que indica el
+ * rechazo. Sin Docker se omite.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class AlmacenTokensRedisTests {
+
+	@Container
+	private static final GenericContainer<?> redis = new GenericContainer<>(DockerImageName.parse("redis:7-alpine"))
+			.withExposedPorts(6379);
+
+	private static LettuceConnectionFactory conexiones;
+	private static ReactiveStringRedisTemplate redisTemplate;
+
+	private AlmacenTokensRedis almacen;
+
+	@BeforeAll
+	static void conectar() {
+		conexiones = new LettuceConnectionFactory(redis.getHost(), redis.getMappedPort(6379));
+		conexiones.afterPropertiesSet();
+		conexiones.start();
+		redisTemplate = new ReactiveStringRedisTemplate(conexiones);
+	}
+
+	@AfterAll
+	static void desconectar() {
+		conexiones.destroy();
+	}
+
+	@BeforeEach
+	void limpiar() {
+		redisTemplate.execute(conexion -> conexion.serverCommands().flushAll()).blockLast();
+		almacen = new AlmacenTokensRedis(redisTemplate);
+	}
+
+	@Test
+	void admiteLaRafagaYRechazaConRetryAfter() throws InterruptedException {
+		// Un token cada 200 ms: margen de sobra para las llamadas seguidas del test
+		RateLimitProperties.Limite limite = limite(3, 5);
+
+		assertEquals(2, consumir("a", limite).restantes());
+		assertEquals(1, consumir("a", limite).restantes());
+		assertEquals(0, consumir("a", limite).restantes());
+
+		AlmacenTokens.Consumo rechazado = consumir("a", limite);
+		assertFalse(rechazado.permitido());
+		assertTrue(rechazado.reintentarEn().compareTo(Duration.ZERO) > 0);
+		assertTrue(rechazado.reintentarEn().compareTo(Duration.ofMillis(200)) <= 0);
+
+		// Pasado el retry-after se ha recargado un token, y los buckets son independientes por clave
+		Thread.sleep(rechazado.reintentarEn().plusMillis(20).toMillis());
+		assertTrue(consumir("a", limite).permitido());
+		assertFalse(consumir("a", limite).permitido());
+		assertTrue(consumir("b", limite).permitido());
+	}
+
+	@Test
+	void noAcumulaMasDeLaCapacidad() throws InterruptedException {
+		RateLimitProperties.Limite limite = limite(2, 20);
+		assertTrue(consumir("a", limite).permitido());
+		// Diez intervalos de recarga: el bucket se llena pero no pasa de la capacidad
+		Thread.sleep(500);
+
+		assertTrue(consumir("a", limite).permitido());
+		assertTrue(consumir("a", limite).permitido());
+		assertFalse(consumir("a", limite).permitido());
+	}
+
+	@Test
+	void devolverRecuperaElTokenConsumido() {
+		// Un token por segundo: la recarga no interfiere durante el test
+		RateLimitProperties.Limite limite = limite(2, 1);
+		assertEquals(1, consumir("a", limite).restantes());
+		assertEquals(0, consumir("a", limite).restantes());
+
+		almacen.devolver("a", limite).block(Duration.ofSeconds(5));
+
+		assertEquals(0, consumir("a", limite).restantes());
+		assertFalse(consumir("a", limite).permitido());
+	}
+
+	private AlmacenTokens.Consumo consumir(String clave, RateLimitProperties.Limite limite) {
+		return almacen.consumir(clave, limite).block(Duration.ofSeconds(5));
+	}
+
+	private static RateLimitProperties.Limite limite(long capacidad, double recargaPorSegundo) {
+		RateLimitProperties.Limite limite = new RateLimitProperties.Limite();
+		limite.setCapacidad(capacidad);
+		limite.setRecargaPorSegundo(recargaPorSegundo);
+		return limite;
+	}
+}
@@ -0,0 +1,43 @@
+package com.objetivos.api_gateway.filter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+class ClienteKeyResolverTests {
+
+	private ClienteKeyResolver resolver;
+
+	@BeforeEach
+	void setUp() {
+		RateLimitProperties properties = new RateLimitProperties();
+		properties.setClaves(Set.of("clave-valida"));
+		resolver = new ClienteKeyResolver(properties);
+	}
+
+	@Test
+	void unaKeyConfiguradaIdentificaAlCliente() {
+		assertEquals("key:clave-valida", resolver("clave-valida"));
+	}
+
+	@Test
+	void unaKeyDesconocidaSeLimitaPorIp() {
+		assertEquals("ip:10.0.0.1", resolver("inventada-1"));
+		assertEquals("ip:10.0.0.1", resolver("inventada-2"));
+	}
+
+	private String resolver(String apiKey) {
+		MockServerHttpRequest request = MockServerHttpRequest.get("/api/objetivos")
+				.header("X-API-Key", apiKey)
+				.remoteAddress(new InetSocketAddress("10.0.0.1", 40000))
+				.build();
+		return resolver.resolve(MockServerWebExchange.from(request)).block(Duration.ofSeconds(5));
+	}
+}
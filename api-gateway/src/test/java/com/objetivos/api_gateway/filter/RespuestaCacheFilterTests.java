@@ -0,0 +1,90 @@
+package com.objetivos.api_gateway.filter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+
+class RespuestaCacheFilterTests {
+
+	private static final String DETALLE = "/api/objetivos/detalle/1";
+
+	private final AtomicInteger llamadas = new AtomicInteger();
+	private RespuestaCacheFilter filtro;
+
+	// Backend simulado: cuenta las llamadas y responde 200 a todo
+	private final GatewayFilterChain backend = exchange -> {
+		llamadas.incrementAndGet();
+		ServerHttpResponse response = exchange.getResponse();
+		response.setStatusCode(HttpStatus.OK);
+		return response.writeWith(Mono.just(response.bufferFactory().wrap("{}".getBytes(StandardCharsets.UTF_8))));
+	};
+
+	@BeforeEach
+	void setUp() {
+		RespuestaCacheProperties properties = new RespuestaCacheProperties();
+		properties.setRutas(Map.of(
+				"objetivo-service", Duration.ofMinutes(1),
+				"objetivo-service-reactivo", Duration.ofMinutes(1),
+				"usuario-service", Duration.ofMinutes(1)));
+		properties.setGrupos(Map.of("objetivo-service-reactivo", "objetivo-service"));
+		filtro = new RespuestaCacheFilter(properties, new SimpleMeterRegistry());
+	}
+
+	@Test
+	void escrituraEnLaRutaPrincipalInvalidaLaRutaReactivaDelGrupo() {
+		assertEquals("MISS", get("objetivo-service-reactivo"));
+		assertEquals("HIT", get("objetivo-service-reactivo"));
+
+		escribir("objetivo-service", "/api/objetivos/1");
+
+		assertEquals("MISS", get("objetivo-service-reactivo"));
+		assertEquals(3, llamadas.get());
+	}
+
+	@Test
+	void escrituraEnOtroGrupoNoInvalida() {
+		assertEquals("MISS", get("objetivo-service-reactivo"));
+
+		escribir("usuario-service", "/api/usuarios/1");
+
+		assertEquals("HIT", get("objetivo-service-reactivo"));
+		assertEquals(2, llamadas.get());
+	}
+
+	private String get(String rutaId) {
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get(DETALLE));
+		ejecutar(exchange, rutaId);
+		return exchange.getResponse().getHeaders().getFirst("X-Cache");
+	}
+
+	private void escribir(String rutaId, String path) {
+		ejecutar(MockServerWebExchange.from(MockServerHttpRequest.put(path)), rutaId);
+	}
+
+	private void ejecutar(MockServerWebExchange exchange, String rutaId) {
+		Route route = Route.async()
+				.id(rutaId)
+				.uri(URI.create("http://backend"))
+				.predicate(e -> true)
+				.build();
+		exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, route);
+		filtro.filter(exchange, backend).block(Duration.ofSeconds(5));
+	}
+}
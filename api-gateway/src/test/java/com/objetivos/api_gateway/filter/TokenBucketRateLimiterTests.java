@@ -0,0 +1,78 @@
+package com.objetivos.api_gateway.filter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.ratelimit.RateLimiter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class TokenBucketRateLimiterTests {
+
+	private static final String RUTA = "objetivo-service";
+
+	private final AtomicLong reloj = new AtomicLong(1_000_000_000L);
+	private final AlmacenTokensMemoria almacen = new AlmacenTokensMemoria(reloj::get);
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private TokenBucketRateLimiter limiter;
+
+	@BeforeEach
+	void setUp() {
+		RateLimitProperties.Ruta ruta = new RateLimitProperties.Ruta();
+		ruta.setCliente(limite(2, 1));
+		ruta.setRuta(limite(1, 1));
+		RateLimitProperties properties = new RateLimitProperties();
+		properties.setRutas(Map.of(RUTA, ruta));
+		limiter = new TokenBucketRateLimiter(properties, almacen, meterRegistry);
+	}
+
+	@Test
+	void elRechazoDeLaRutaDevuelveElTokenDelCliente() {
+		assertTrue(permitir("ip:10.0.0.1").isAllowed());
+
+		RateLimiter.Response rechazo = permitir("ip:10.0.0.1");
+		assertFalse(rechazo.isAllowed());
+		assertEquals(1.0, rechazados("ruta"));
+
+		// El cliente gastó un solo token de dos: le queda el que la ruta no dejó usar
+		AlmacenTokens.Consumo cliente = almacen.consumirAhora(RUTA + ":ip:10.0.0.1", limite(2, 1));
+		assertTrue(cliente.permitido());
+		assertEquals(0, cliente.restantes());
+	}
+
+	@Test
+	void unClienteSinTokensNoGastaLosDeLaRuta() {
+		RateLimitProperties.Limite cliente = limite(2, 1);
+		almacen.consumirAhora(RUTA + ":ip:10.0.0.1", cliente);
+		almacen.consumirAhora(RUTA + ":ip:10.0.0.1", cliente);
+
+		assertFalse(permitir("ip:10.0.0.1").isAllowed());
+		assertEquals(1.0, rechazados("cliente"));
+
+		// La ruta conserva su único token para otro cliente
+		assertTrue(permitir("ip:10.0.0.2").isAllowed());
+	}
+
+	private RateLimiter.Response permitir(String cliente) {
+		return limiter.isAllowed(RUTA, cliente).block(Duration.ofSeconds(5));
+	}
+
+	private double rechazados(String motivo) {
+		return meterRegistry.counter("gateway.rate-limit.solicitudes",
+				"resultado", "rechazada", "ruta", RUTA, "limite", motivo).count();
+	}
+
+	private static RateLimitProperties.Limite limite(long capacidad, double recargaPorSegundo) {
+		RateLimitProperties.Limite limite = new RateLimitProperties.Limite();
+		limite.setCapacidad(capacidad);
+		limite.setRecargaPorSegundo(recargaPorSegundo);
+		return limite;
+	}
+}
@@ -0,0 +1,37 @@
+// Prueba de carga de GET /api/objetivos a través del api-gateway (k6).
+//
+//   k6 run -e BASE_URL=http://localhost:8080 -e VUS=500 load-tests/objetivos-get.js
+//
+// Para comparar hilos virtuales contra hilos de plataforma, levantar objetivo-service
+// y usuario-service con VIRTUAL_THREADS=true y luego con VIRTUAL_THREADS=false, correr
+// el mismo escenario y comparar http_req_duration p(99) y la cantidad máxima de VUs
+// atendidos sin errores (http_req_failed).
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const VUS = parseInt(__ENV.VUS || '200');
+const PATH = __ENV.PATH_OBJETIVOS || '/api/objetivos?limit=50';
+
+export const options = {
+    scenarios: {
+        rampa: {
+            executor: 'ramping-vus',
+            startVUs: 0,
+            stages: [
+                { duration: '30s', target: VUS },
+                { duration: '1m', target: VUS },
+                { duration: '15s', target: 0 },
+            ],
+        },
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+    thresholds: {
+        http_req_failed: ['rate<0.01'],
+    },
+};
+
+export default function () {
+    const res = http.get(`${BASE_URL}${PATH}`);
+    check(res, { 'status 200': (r) => r.status === 200 });
+}
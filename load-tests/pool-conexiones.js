@@ -0,0 +1,112 @@
+// Prueba de carga a tasa constante para comprobar que el pool de Hikari no es el cuello de botella (k6).
+//
+//   k6 run -e BASE_URL=http://localhost:8080 -e RPS=300 \
+//          -e OBJETIVO_URL=http://localhost:<puerto> -e USUARIO_URL=http://localhost:<puerto> \
+//          load-tests/pool-conexiones.js
+//
+// objetivo-service y usuario-service se levantan con SPRING_PROFILES_ACTIVE=prod, y el gateway
+// con GATEWAY_CACHE=false y GATEWAY_RATE_LIMIT=false para que todas las peticiones lleguen a
+// MySQL. OBJETIVO_URL y USUARIO_URL apuntan directo a cada servicio (su puerto sale en Eureka)
+// y sirven para leer las métricas del pool desde actuator; si no se pasan solo se mide el tráfico.
+//
+// El pool no es el cuello de botella si, sosteniendo RPS, no hay peticiones esperando conexión
+// (hikari_pending) y el tiempo de obtención de una conexión (hikari_acquire_ms) se mantiene bajo
+// mientras la latencia total (http_req_duration) cumple su umbral.
+import http from 'k6/http';
+import { check, sleep } from 'k6';
+import { Trend } from 'k6/metrics';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const RPS = parseInt(__ENV.RPS || '300');
+const DURACION = __ENV.DURACION || '2m';
+const USUARIOS = parseInt(__ENV.USUARIOS || '100');
+const SERVICIOS = {
+    objetivo: __ENV.OBJETIVO_URL,
+    usuario: __ENV.USUARIO_URL,
+};
+
+const hikariPending = new Trend('hikari_pending');
+const hikariActive = new Trend('hikari_active');
+const hikariAcquireMs = new Trend('hikari_acquire_ms', true);
+
+const scenarios = {
+    trafico: {
+        executor: 'constant-arrival-rate',
+        rate: RPS,
+        timeUnit: '1s',
+        duration: DURACION,
+        preAllocatedVUs: Math.max(50, RPS),
+        maxVUs: RPS * 4,
+        exec: 'trafico',
+    },
+};
+if (SERVICIOS.objetivo || SERVICIOS.usuario) {
+    scenarios.pool = {
+        executor: 'constant-vus',
+        vus: 1,
+        duration: DURACION,
+        exec: 'pool',
+    };
+}
+
+export const options = {
+    scenarios,
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+    thresholds: {
+        http_req_failed: ['rate<0.01'],
+        'http_req_duration{scenario:trafico}': ['p(95)<300', 'p(99)<800'],
+        // Ninguna petición debería quedar esperando conexión de forma sostenida
+        hikari_pending: ['p(95)<1'],
+        hikari_acquire_ms: ['p(99)<20'],
+        // Si el generador no alcanza la tasa objetivo, el resultado no es concluyente
+        dropped_iterations: ['count<10'],
+    },
+};
+
+// Mezcla de lecturas y escrituras parecida al uso real: mayoría de listados por usuario
+export function trafico() {
+    const usuarioId = 1 + Math.floor(Math.random() * USUARIOS);
+    const r = Math.random();
+    let res;
+    if (r < 0.5) {
+        res = http.get(`${BASE_URL}/api/objetivos/usuario/${usuarioId}?size=20`, { tags: { name: 'objetivos-usuario' } });
+    } else if (r < 0.8) {
+        res = http.get(`${BASE_URL}/api/objetivos?limit=50`, { tags: { name: 'objetivos-listado' } });
+    } else if (r < 0.9) {
+        res = http.get(`${BASE_URL}/api/usuarios/${usuarioId}`, { tags: { name: 'usuario-id' } });
+    } else {
+        res = http.post(`${BASE_URL}/api/objetivos`, JSON.stringify({
+            titulo: `Objetivo carga ${__VU}-${__ITER}`,
+            descripcion: 'Creado por la prueba de pool de conexiones',
+            fechaLimite: '2030-12-31',
+            usuarioId,
+        }), { headers: { 'Content-Type': 'application/json' }, tags: { name: 'objetivo-crear' } });
+    }
+    check(res, { 'sin error de servidor': (r) => r.status < 500 });
+}
+
+// Lee las métricas de Hikari de cada servicio una vez por segundo
+export function pool() {
+    for (const [servicio, url] of Object.entries(SERVICIOS)) {
+        if (!url) {
+            continue;
+        }
+        const tags = { servicio };
+        const pending = valor(url, 'hikaricp.connections.pending', 'VALUE');
+        const active = valor(url, 'hikaricp.connections.active', 'VALUE');
+        const acquireMax = valor(url, 'hikaricp.connections.acquire', 'MAX');
+        if (pending !== null) hikariPending.add(pending, tags);
+        if (active !== null) hikariActive.add(active, tags);
+        if (acquireMax !== null) hikariAcquireMs.add(acquireMax * 1000, tags);
+    }
+    sleep(1);
+}
+
+function valor(url, metrica, estadistica) {
+    const res = http.get(`${url}/actuator/metrics/${metrica}`, { tags: { name: 'actuator' } });
+    if (res.status !== 200) {
+        return null;
+    }
+    const medida = res.json('measurements').find((m) => m.statistic === estadistica);
+    return medida ? medida.value : null;
+}
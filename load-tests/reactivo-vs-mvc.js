@@ -0,0 +1,59 @@
+// Compara la ruta de lectura MVC (JPA + Feign) con la reactiva (WebFlux + R2DBC + WebClient)
+// de objetivo-service a 1k, 5k y 10k conexiones concurrentes (k6).
+//
+//   k6 run -e BASE_URL=http://localhost:<puerto-mvc> -e MODO=mvc load-tests/reactivo-vs-mvc.js
+//   k6 run -e BASE_URL=http://localhost:<puerto-reactivo> -e MODO=reactivo load-tests/reactivo-vs-mvc.js
+//
+// Va directo a cada instancia, sin el gateway, para que el gateway no sea el límite. Cada
+// escalón mantiene NIVELES[i] VUs (una conexión keep-alive por VU) durante DURACION y los
+// resultados salen por escalón con el tag nivel. Con 10k VUs hace falta subir el límite de
+// descriptores del proceso de k6 y del servicio (ulimit -n).
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const MODO = __ENV.MODO || 'mvc';
+const NIVELES = (__ENV.NIVELES || '1000,5000,10000').split(',').map((n) => parseInt(n));
+const DURACION = __ENV.DURACION || '1m';
+const DETALLE_ID = __ENV.DETALLE_ID || '1';
+
+function escenarios() {
+    const resultado = {};
+    let inicio = 0;
+    const segundos = parseInt(DURACION) * (DURACION.endsWith('m') ? 60 : 1);
+    for (const vus of NIVELES) {
+        resultado[`c${vus}`] = {
+            executor: 'constant-vus',
+            vus: vus,
+            duration: DURACION,
+            startTime: `${inicio}s`,
+            gracefulStop: '10s',
+            tags: { nivel: `${vus}`, modo: MODO },
+        };
+        // Pausa entre escalones para que se cierren las conexiones del anterior
+        inicio += segundos + 20;
+    }
+    return resultado;
+}
+
+const umbrales = { http_req_failed: ['rate<0.01'] };
+for (const vus of NIVELES) {
+    umbrales[`http_req_duration{nivel:${vus}}`] = ['p(99)>=0'];
+    umbrales[`http_req_failed{nivel:${vus}}`] = ['rate<0.01'];
+}
+
+export const options = {
+    scenarios: escenarios(),
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+    // Los umbrales por nivel hacen que el resumen muestre p99 y errores de cada escalón
+    thresholds: umbrales,
+};
+
+export default function () {
+    // Misma mezcla en los dos modos: página del listado y detalle
+    const pagina = http.get(`${BASE_URL}/api/objetivos?limit=50`, { tags: { endpoint: 'listado' } });
+    check(pagina, { 'listado 200': (r) => r.status === 200 });
+
+    const detalle = http.get(`${BASE_URL}/api/objetivos/detalle/${DETALLE_ID}`, { tags: { endpoint: 'detalle' } });
+    check(detalle, { 'detalle 200': (r) => r.status === 200 });
+}
@@ -0,0 +1,96 @@
+// Cuenta las sentencias SQL que cuesta cada escritura de objetivos (k6).
+//
+//   k6 run -e OBJETIVO_URL=http://localhost:<puerto> -e USUARIO_ID=1 load-tests/viajes-escrituras.js
+//
+// Va directo a objetivo-service (su puerto sale en Eureka) y con un solo VU, porque mide la
+// diferencia del contador jdbc.query de actuator antes y después de cada petición. El usuario
+// USUARIO_ID tiene que existir. Las tareas de fondo (sincronización de la réplica, reconciliación)
+// también suman consultas: la mediana es la cifra que importa.
+//
+// Antes, borrar un objetivo costaba 4 sentencias y una llamada a usuario-service (lectura en el
+// controller con el nombre del usuario, lectura con bloqueo, DELETE y upsert de estadísticas).
+// Ahora son 2 sentencias, y marcar como completado una sola.
+import http from 'k6/http';
+import { check } from 'k6';
+import { Trend } from 'k6/metrics';
+
+const OBJETIVO_URL = __ENV.OBJETIVO_URL || 'http://localhost:8081';
+const USUARIO_ID = parseInt(__ENV.USUARIO_ID || '1');
+const ITERACIONES = parseInt(__ENV.ITERACIONES || '50');
+const LOTE = parseInt(__ENV.LOTE || '100');
+
+const consultas = new Trend('consultas_sql');
+
+export const options = {
+    scenarios: {
+        escrituras: {
+            executor: 'per-vu-iterations',
+            vus: 1,
+            iterations: ITERACIONES,
+        },
+    },
+    summaryTrendStats: ['min', 'med', 'p(95)', 'max'],
+    thresholds: {
+        'consultas_sql{operacion:completar}': ['med<=1'],
+        'consultas_sql{operacion:borrar}': ['med<=2'],
+        'consultas_sql{operacion:borrar-inexistente}': ['med<=2'],
+        // Un lote: bloqueo y conteo, DELETE/UPDATE y un upsert de estadísticas por usuario (aquí uno)
+        'consultas_sql{operacion:borrar-lote}': ['med<=3'],
+        'consultas_sql{operacion:completar-lote}': ['med<=3'],
+        http_req_failed: ['rate<0.01'],
+    },
+};
+
+export function setup() {
+    // Crea los objetivos de todas las iteraciones con la carga masiva
+    const porIteracion = 2 + 2 * LOTE;
+    const objetivos = [];
+    for (let i = 0; i < ITERACIONES * porIteracion; i++) {
+        objetivos.push({
+            titulo: `Objetivo viajes ${i}`,
+            descripcion: 'Creado para contar sentencias por escritura',
+            fechaLimite: '2030-12-31',
+            usuarioId: USUARIO_ID,
+        });
+    }
+    const res = http.post(`${OBJETIVO_URL}/api/objetivos/bulk`, JSON.stringify(objetivos),
+        { headers: { 'Content-Type': 'application/json' }, timeout: '5m' });
+    const ids = res.json('resultados').filter((r) => r.estado === 'CREADO').map((r) => r.id);
+    if (ids.length < objetivos.length) {
+        throw new Error(`Solo se crearon ${ids.length} de ${objetivos.length} objetivos`);
+    }
+    return { ids, porIteracion };
+}
+
+export default function (datos) {
+    const inicio = __ITER * datos.porIteracion;
+    const [uno, otro] = datos.ids.slice(inicio, inicio + 2);
+    const lote = datos.ids.slice(inicio + 2, inicio + 2 + LOTE).join(',');
+    const loteBorrar = datos.ids.slice(inicio + 2 + LOTE, inicio + datos.porIteracion).join(',');
+
+    medir('completar', () => http.patch(`${OBJETIVO_URL}/api/objetivos/${uno}/completado`));
+    medir('borrar', () => http.del(`${OBJETIVO_URL}/api/objetivos/${otro}`));
+    medir('borrar-inexistente', () => http.del(`${OBJETIVO_URL}/api/objetivos/${otro}`, null,
+        { responseCallback: http.expectedStatuses(404) }), 404);
+    medir('completar-lote', () => http.patch(`${OBJETIVO_URL}/api/objetivos/completado?ids=${lote}`));
+    medir('borrar-lote', () => http.del(`${OBJETIVO_URL}/api/objetivos?ids=${loteBorrar}`));
+}
+
+function medir(operacion, peticion, esperado = 200) {
+    const antes = contador();
+    const res = peticion();
+    const despues = contador();
+    check(res, { [`${operacion}: ${esperado}`]: (r) => r.status === esperado });
+    if (antes !== null && despues !== null) {
+        consultas.add(despues - antes, { operacion });
+    }
+}
+
+function contador() {
+    const res = http.get(`${OBJETIVO_URL}/actuator/metrics/jdbc.query`, { tags: { name: 'actuator' } });
+    if (res.status !== 200) {
+        return null;
+    }
+    const medida = res.json('measurements').find((m) => m.statistic === 'COUNT');
+    return medida ? medida.value : null;
+}
@@ -0,0 +1,35 @@
+-- Benchmark del listado por usuario: llena la tabla con @filas objetivos repartidos
+-- entre 1000 usuarios y mide la consulta de GET /api/objetivos/usuario/{id}.
+-- Repetir con @filas = 10000, 100000, 1000000 y 10000000 sobre una base de pruebas;
+-- con el índice el plan debe ser un range sobre idx_objetivo_usuario_completado_fecha
+-- y el tiempo debe mantenerse estable.
+--
+--   mysql -uroot -proot gestor-objetivo-db < db/bench/objetivo_usuario.sql
+
+SET @filas = 10000;
+SET SESSION cte_max_recursion_depth = 10000000;
+
+TRUNCATE TABLE objetivo;
+
+INSERT INTO objetivo (titulo, descripcion, fecha_limite, completado, usuario_id)
+WITH RECURSIVE seq (n) AS (
+    SELECT 1
+    UNION ALL
+    SELECT n + 1 FROM seq WHERE n < @filas
+)
+SELECT CONCAT('OBJETIVO ', n),
+       CONCAT('DESCRIPCION ', n),
+       DATE_ADD('2024-01-01', INTERVAL n % 730 DAY),
+       n % 3 = 0,
+       n % 1000 + 1
+FROM seq;
+
+ANALYZE TABLE objetivo;
+
+EXPLAIN ANALYZE
+SELECT * FROM objetivo
+WHERE usuario_id = 42
+  AND completado = 0
+  AND fecha_limite BETWEEN '2024-06-01' AND '2024-12-31'
+ORDER BY fecha_limite, objetivo_id
+LIMIT 50;
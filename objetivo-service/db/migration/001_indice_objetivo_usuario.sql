@@ -0,0 +1,5 @@
+-- Índice compuesto para GET /api/objetivos/usuario/{id}.
+-- Con spring.jpa.hibernate.ddl-auto=update Hibernate lo crea a partir de @Table(indexes);
+-- este script es para los entornos donde el esquema se administra a mano.
+CREATE INDEX idx_objetivo_usuario_completado_fecha
+    ON objetivo (usuario_id, completado, fecha_limite);
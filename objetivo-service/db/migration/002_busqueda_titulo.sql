@@ -0,0 +1,7 @@
+-- Búsqueda de objetivos por título sin funciones sobre la columna indexada.
+-- Con ddl-auto=update Hibernate agrega la columna y el índice B-tree; el FULLTEXT
+-- lo crea CargueIndicesBusqueda al arrancar. Este script es para esquemas administrados a mano.
+ALTER TABLE objetivo
+    ADD COLUMN titulo_normalizado varchar(255) GENERATED ALWAYS AS (upper(titulo)) STORED;
+CREATE INDEX idx_objetivo_titulo_normalizado ON objetivo (titulo_normalizado);
+CREATE FULLTEXT INDEX ft_objetivo_titulo ON objetivo (titulo);
@@ -0,0 +1,75 @@
+package com.objetivos.objetivo_service.service;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.objetivos.objetivo_service.model.dto.ObjetivoResponse;
+import com.objetivos.objetivo_service.model.entity.Objetivo;
+
+/**
+ * Costo por objetivo de armar la respuesta: mapeo de la entidad (con el nombre del usuario
+ * ya en la cache local, que es el caso habitual) y serialización a JSON.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapeoObjetivoBenchmark {
+
+    private ObjetivoService objetivoService;
+    private ObjectWriter writer;
+    private Objetivo objetivo;
+    private ObjetivoResponse response;
+
+    @Setup
+    public void setup() {
+        objetivoService = UsuarioFeignClientStub.objetivoService();
+        // Misma configuración de fechas que el ObjectMapper de Spring Boot
+        writer = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build()
+                .writerFor(ObjetivoResponse.class);
+        objetivo = Objetivo.builder()
+                .id(1L)
+                .titulo("APRENDER JAVA")
+                .descripcion("TERMINAR EL CURSO DE CONCURRENCIA")
+                .fechaLimite(LocalDate.of(2025, 12, 31))
+                .completado(false)
+                .usuarioId(7L)
+                .build();
+        // Deja el usuario en la cache para medir el camino caliente
+        response = objetivoService.mapToObjetivoResponse(objetivo);
+    }
+
+    @Benchmark
+    public ObjetivoResponse mapearConCache() {
+        return objetivoService.mapToObjetivoResponse(objetivo);
+    }
+
+    @Benchmark
+    public ObjetivoResponse mapearConNombre() {
+        return objetivoService.mapToObjetivoResponse(objetivo, "USUARIO 7");
+    }
+
+    @Benchmark
+    public byte[] serializarJson() throws JsonProcessingException {
+        return writer.writeValueAsBytes(response);
+    }
+}
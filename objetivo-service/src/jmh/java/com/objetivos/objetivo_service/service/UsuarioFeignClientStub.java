@@ -0,0 +1,61 @@
+package com.objetivos.objetivo_service.service;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+
+import com.objetivos.objetivo_service.model.dto.UsuarioDTO;
+import com.objetivos.objetivo_service.model.dto.UsuarioEventoDTO;
+import com.objetivos.objetivo_service.repository.IUsuarioFeignClient;
+
+import feign.Request;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Cliente Feign en memoria: responde al instante con usuarios inventados, para medir
+ * solo el trabajo de objetivo-service sin red ni usuario-service.
+ */
+class UsuarioFeignClientStub implements IUsuarioFeignClient {
+
+    @Override
+    public List<UsuarioDTO> obtenerUsuarios(Request.Options opciones) {
+        return List.of(usuario(1L));
+    }
+
+    @Override
+    public UsuarioDTO obtenerUsuarioPorId(Long id, Request.Options opciones) {
+        return usuario(id);
+    }
+
+    @Override
+    public List<UsuarioDTO> obtenerUsuariosPorIds(Collection<Long> ids, Request.Options opciones) {
+        return ids.stream().map(UsuarioFeignClientStub::usuario).toList();
+    }
+
+    @Override
+    public List<UsuarioEventoDTO> obtenerEventos(Long after, int limit, Request.Options opciones) {
+        return List.of();
+    }
+
+    private static UsuarioDTO usuario(Long id) {
+        return new UsuarioDTO(id, "USUARIO " + id, "usuario" + id + "@correo.com");
+    }
+
+    /**
+     * ObjetivoService armado a mano con el stub detrás de UsuarioClienteRemoto y la cache
+     * real de UsuarioService. Sin repositorio ni réplica de usuarios: los benchmarks no tocan
+     * la base de datos.
+     */
+    static ObjetivoService objetivoService() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        UsuarioClienteRemoto clienteRemoto = new UsuarioClienteRemoto(new UsuarioFeignClientStub(),
+                CircuitBreakerRegistry.ofDefaults(), BulkheadRegistry.ofDefaults(), meterRegistry,
+                Duration.ofMillis(500), Duration.ofSeconds(1), Duration.ofSeconds(3), Duration.ofSeconds(5));
+        ReplicaUsuarios replica = new ReplicaUsuarios(null, null, meterRegistry, false, true);
+        UsuarioService usuarioService = new UsuarioService(clienteRemoto, replica, meterRegistry,
+                Duration.ofMinutes(10), Duration.ofSeconds(30), 10_000, false);
+        return new ObjetivoService(null, usuarioService, null, null);
+    }
+}
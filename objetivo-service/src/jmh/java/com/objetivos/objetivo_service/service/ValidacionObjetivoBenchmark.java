@@ -0,0 +1,102 @@
+package com.objetivos.objetivo_service.service;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.objetivos.objetivo_service.model.dto.ObjetivoRequest;
+import com.objetivos.objetivo_service.service.Util.DateValidator;
+
+/**
+ * Costo de validar un ObjetivoRequest y de leer su fecha límite. validarRequest valida y
+ * parsea en una sola pasada; validarYParsearDosPasadas reproduce el camino anterior
+ * (formatter nuevo por llamada, dos parseos y excepción en fechas inválidas) como referencia.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ValidacionObjetivoBenchmark {
+
+    private ObjetivoService objetivoService;
+    private ObjetivoRequest request;
+    private ObjetivoRequest requestFechaInvalida;
+    private String fechaInvalida;
+
+    @Setup
+    public void setup() {
+        objetivoService = UsuarioFeignClientStub.objetivoService();
+        request = ObjetivoRequest.builder()
+                .titulo("Aprender Java")
+                .descripcion("Terminar el curso de concurrencia")
+                .fechaLimite("2025-12-31")
+                .usuarioId(7L)
+                .build();
+        fechaInvalida = "2025-13-31";
+        requestFechaInvalida = ObjetivoRequest.builder()
+                .titulo(request.getTitulo())
+                .descripcion(request.getDescripcion())
+                .fechaLimite(fechaInvalida)
+                .usuarioId(7L)
+                .build();
+    }
+
+    @Benchmark
+    public ObjetivoService.Validacion validarRequest() {
+        return objetivoService.validarObjetivoRequest(request);
+    }
+
+    @Benchmark
+    public ObjetivoService.Validacion validarRequestFechaInvalida() {
+        return objetivoService.validarObjetivoRequest(requestFechaInvalida);
+    }
+
+    @Benchmark
+    public boolean validarFecha() {
+        return DateValidator.isValidDate(request.getFechaLimite(), "yyyy-MM-dd");
+    }
+
+    @Benchmark
+    public boolean validarFechaInvalida() {
+        return DateValidator.isValidDate(fechaInvalida, "yyyy-MM-dd");
+    }
+
+    @Benchmark
+    public LocalDate parsearFecha() {
+        return objetivoService.parseFechaLimite(request.getFechaLimite());
+    }
+
+    @Benchmark
+    public void validarYParsearDosPasadas(Blackhole blackhole) {
+        blackhole.consume(fechaDosPasadas(request.getFechaLimite()));
+    }
+
+    @Benchmark
+    public void validarYParsearDosPasadasFechaInvalida(Blackhole blackhole) {
+        blackhole.consume(fechaDosPasadas(fechaInvalida));
+    }
+
+    private static LocalDate fechaDosPasadas(String fecha) {
+        try {
+            LocalDate.parse(fecha, DateTimeFormatter.ofPattern("yyyy-MM-dd"));
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+        return LocalDate.parse(fecha, DateTimeFormatter.ofPattern("yyyy-MM-dd"));
+    }
+}
@@ -0,0 +1,57 @@
+package com.objetivos.objetivo_service;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+
+/**
+ * Pool R2DBC y DatabaseClient de la ruta de lectura reactiva (perfil reactivo).
+ * Usa las mismas credenciales que el datasource JDBC, que sigue existiendo para la
+ * réplica de usuarios y las tareas programadas.
+ * <p>
+ * El pool no se publica como bean: con un ConnectionFactory en el contexto Spring Boot
+ * no configura el DataSource JDBC que usa JPA.
+ */
+@Configuration
+@Profile("reactivo")
+public class ConfiguracionReactiva implements DisposableBean {
+
+    private ConnectionPool conexiones;
+
+    @Bean
+    public DatabaseClient databaseClient(@Value("${objetivos.reactivo.r2dbc.url}") String url,
+            @Value("${spring.datasource.username}") String usuario,
+            @Value("${spring.datasource.password}") String clave,
+            @Value("${objetivos.reactivo.r2dbc.pool.tamano-inicial:5}") int tamanoInicial,
+            @Value("${objetivos.reactivo.r2dbc.pool.tamano-maximo:20}") int tamanoMaximo,
+            @Value("${objetivos.reactivo.r2dbc.pool.espera-maxima:2s}") Duration esperaMaxima) {
+        ConnectionFactoryOptions opciones = ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, usuario)
+                .option(ConnectionFactoryOptions.PASSWORD, clave)
+                .build();
+        this.conexiones = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(opciones))
+                .name("objetivos-r2dbc")
+                .initialSize(tamanoInicial)
+                .maxSize(tamanoMaximo)
+                .maxAcquireTime(esperaMaxima)
+                .build());
+        return DatabaseClient.create(conexiones);
+    }
+
+    @Override
+    public void destroy() {
+        if (conexiones != null) {
+            conexiones.dispose();
+        }
+    }
+}
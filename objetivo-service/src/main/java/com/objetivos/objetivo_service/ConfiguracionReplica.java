@@ -0,0 +1,67 @@
+package com.objetivos.objetivo_service;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.objetivos.objetivo_service.service.Util.RuteoDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Lecturas contra una réplica de MySQL (perfil replica). Hay dos pools de Hikari: el
+ * primario, con la configuración de spring.datasource, y el de la réplica, con la de
+ * datasource.replica. RuteoDataSource decide por transacción cuál usar.
+ * <p>
+ * El ruteo va envuelto en LazyConnectionDataSourceProxy: JpaTransactionManager pide la
+ * conexión al abrir la transacción, antes de marcarla readOnly, y el proxy demora la conexión
+ * física hasta la primera sentencia, cuando ya se sabe a qué pool va.
+ * <p>
+ * usuario-service tiene la misma configuración; se cambian juntas (ver «Código repetido entre
+ * servicios» en el README).
+ */
+@Configuration
+@Profile("replica")
+public class ConfiguracionReplica {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primarioDataSource(DataSourceProperties propiedades) {
+        return propiedades.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @ConfigurationProperties("datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(DataSourceProperties propiedades,
+            @Value("${datasource.replica.url}") String url,
+            @Value("${datasource.replica.username:${spring.datasource.username}}") String usuario,
+            @Value("${datasource.replica.password:${spring.datasource.password}}") String clave) {
+        return DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(propiedades.determineDriverClassName())
+                .url(url)
+                .username(usuario)
+                .password(clave)
+                .build();
+    }
+
+    // Los pools se reciben como DataSource: datasource-micrometer los envuelve en un proxy
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primarioDataSource") DataSource primario,
+            @Qualifier("replicaDataSource") DataSource replica, MeterRegistry meterRegistry) {
+        RuteoDataSource ruteo = new RuteoDataSource(primario, replica, meterRegistry);
+        ruteo.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(ruteo);
+    }
+}
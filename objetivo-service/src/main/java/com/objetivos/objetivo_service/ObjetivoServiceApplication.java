@@ -2,23 +2,27 @@ package com.objetivos.objetivo_service;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.cloud.client.loadbalancer.LoadBalanced;
 import org.springframework.cloud.openfeign.EnableFeignClients;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
 //import org.springframework.cloud.openfeign.EnableFeignClients;
 import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.client.RestTemplate;
 
 @SpringBootApplication
 @EnableFeignClients
 @EnableDiscoveryClient
+@EnableScheduling
 //@EnableFeignClients(basePackages = "com.objetivos.objetivo_service.repository")
 public class ObjetivoServiceApplication {
 
+	// Construido con el builder de Spring Boot para que sus llamadas queden en las trazas
 	@Bean
 	@LoadBalanced
-	public RestTemplate getresttemplate() {
-		return new RestTemplate();
+	public RestTemplate getresttemplate(RestTemplateBuilder builder) {
+		return builder.build();
 	}
 
 	public static void main(String[] args) {
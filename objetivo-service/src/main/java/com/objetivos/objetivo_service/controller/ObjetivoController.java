@@ -1,38 +1,65 @@
 package com.objetivos.objetivo_service.controller;
 
+import com.objetivos.objetivo_service.model.dto.ObjetivoBulkResponse;
+import com.objetivos.objetivo_service.model.dto.ObjetivoEstadisticasResponse;
+import com.objetivos.objetivo_service.model.dto.ObjetivoLoteResponse;
 import com.objetivos.objetivo_service.model.dto.ObjetivoRequest;
 import com.objetivos.objetivo_service.model.dto.ObjetivoResponse;
 import com.objetivos.objetivo_service.model.dto.ObjetivoResponseError;
 import com.objetivos.objetivo_service.model.dto.ObjetivoResponseMessage;
 import com.objetivos.objetivo_service.model.dto.UsuarioDTO;
+import com.objetivos.objetivo_service.model.dto.UsuarioEventoDTO;
 import com.objetivos.objetivo_service.model.entity.Objetivo;
-import com.objetivos.objetivo_service.repository.IUsuarioFeignClient;
+import com.objetivos.objetivo_service.service.EstadisticaService;
 import com.objetivos.objetivo_service.service.ObjetivoService;
 import com.objetivos.objetivo_service.service.UsuarioService;
 import com.objetivos.objetivo_service.service.Util.ErrorMessage;
+import com.objetivos.objetivo_service.service.Util.Etags;
+import com.objetivos.objetivo_service.service.Util.LectorNdjson;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import feign.FeignException;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+// Con el perfil reactivo el servidor es WebFlux y las lecturas las atiende ObjetivoReactivoController
 @RestController
+@Profile("!reactivo")
 @RequestMapping("/api/objetivos")
 public class ObjetivoController {
 
     @Autowired
     private ObjetivoService objetivoService;
-    private final IUsuarioFeignClient usuarioFeignClient;
 
     @Autowired
     UsuarioService usuarioService;
 
-    public ObjetivoController(IUsuarioFeignClient usuarioFeignClient,
-            ObjetivoService objetivoService) {
-        this.usuarioFeignClient = usuarioFeignClient;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EstadisticaService estadisticaService;
+
+    public ObjetivoController(ObjetivoService objetivoService) {
         this.objetivoService = objetivoService;
     }
 
@@ -40,7 +67,7 @@ public class ObjetivoController {
     @GetMapping("/usuarios")
     public ResponseEntity<List<UsuarioDTO>> obtenerUsuarios() {
         try {
-            List<UsuarioDTO> usuarios = usuarioFeignClient.obtenerUsuarios();
+            List<UsuarioDTO> usuarios = usuarioService.obtenerUsuarios();
             return ResponseEntity.ok(usuarios);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -53,7 +80,7 @@ public class ObjetivoController {
     public ResponseEntity<UsuarioDTO> obtenerUsuarioPorId(@PathVariable("id") Long id) {
         try {
             // Llamada al Feign Client para obtener el usuario desde usuario-service
-            UsuarioDTO usuario = usuarioFeignClient.obtenerUsuarioPorId(id);
+            UsuarioDTO usuario = usuarioService.obtenerUsuarioPorId(id);
 
             if (usuario == null) {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null); // Si no se encuentra el usuario
@@ -68,13 +95,34 @@ public class ObjetivoController {
         }
     }
 
+    // Endpoint que recibe los lotes de eventos de usuario (alta, cambio, baja) del relay de usuario-service.
+    // Es interno: el gateway no lo publica
+    @PostMapping("/usuarios/eventos")
+    public ResponseEntity<ObjetivoResponseMessage> recibirEventosUsuario(
+            @RequestBody List<UsuarioEventoDTO> eventos) {
+        int aplicados = usuarioService.aplicarEventosRecibidos(eventos);
+        return ResponseEntity.accepted().body(new ObjetivoResponseMessage(
+                aplicados + " de " + eventos.size() + " eventos aplicados en la réplica de usuarios"));
+    }
+
     /**
-     * Obtener todos los objetivos
+     * Obtener los objetivos paginados por cursor (limit/after). Con If-None-Match
+     * responde 304 sin mapear ni consultar usuario-service si la página no cambió
      */
     @GetMapping
-    public ResponseEntity<Object> getAllObjetivos() {
+    public ResponseEntity<Object> getAllObjetivos(@RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
-            var objetivos = objetivoService.getAllObjetivos();
+            // El ETag se calcula antes que el cuerpo: si hay una escritura en medio, el siguiente GET no coincide
+            String etag = objetivoService.etagObjetivos(after, limit);
+            if (etag != null && Etags.coincideDebil(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+            var objetivos = objetivoService.getAllObjetivos(after, limit);
+            if (etag != null && objetivoService.nombresResueltos(objetivos.getObjetivos())) {
+                return ResponseEntity.ok().eTag(etag).body(objetivos);
+            }
             return ResponseEntity.ok(objetivos);
         } catch (ErrorMessage ex) {
             var error = new ObjetivoResponseError(ex.getMessage());
@@ -83,13 +131,51 @@ public class ObjetivoController {
     }
 
     /**
-     * Obtener objetivo por ID
+     * Obtener todos los objetivos en streaming NDJSON (Accept: application/x-ndjson),
+     * un objetivo por línea a medida que se leen de la base de datos
+     */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamObjetivos() {
+        StreamingResponseBody body = outputStream -> objetivoService.streamObjetivos(objetivo -> {
+            try {
+                outputStream.write(objectMapper.writeValueAsBytes(objetivo));
+                outputStream.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    /**
+     * Estadísticas de objetivos (total, completados, pendientes, vencidos): globales y
+     * por usuario, paginadas por cursor sobre usuarioId (limit/after)
+     */
+    @GetMapping("/estadisticas")
+    public ResponseEntity<ObjetivoEstadisticasResponse> getEstadisticas(
+            @RequestParam(required = false) Long usuarioId,
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(estadisticaService.obtenerEstadisticas(usuarioId, after, limit));
+    }
+
+    /**
+     * Obtener objetivo por ID, con ETag y respuesta 304 para If-None-Match
      */
     @GetMapping("/detalle/{id}")
-    public ResponseEntity<Object> getObjetivoById(@PathVariable Long id) {
+    public ResponseEntity<Object> getObjetivoById(@PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
-            var objetivo = objetivoService.findById(id);
-            return ResponseEntity.ok(objetivo);
+            String etag = objetivoService.etagObjetivo(id);
+            if (etag != null && Etags.coincideDebil(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+            // El cuerpo lleva el ETag de su propia versión (ver findDetalle)
+            var detalle = objetivoService.findDetalle(id);
+            if (detalle.etag() != null && objetivoService.nombresResueltos(List.of(detalle.objetivo()))) {
+                return ResponseEntity.ok().eTag(detalle.etag()).body(detalle.objetivo());
+            }
+            return ResponseEntity.ok(detalle.objetivo());
         } catch (ErrorMessage ex) {
             var error = new ObjetivoResponseError(ex.getMessage());
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
@@ -97,13 +183,37 @@ public class ObjetivoController {
     }
 
     /**
-     * Buscar objetivos por título
+     * Buscar objetivos por título (modo exacto, prefijo o contiene)
      */
     @GetMapping("/titulo/{titulo}")
-    public ResponseEntity<Object> getObjetivosByTitulo(@PathVariable String titulo) {
+    public ResponseEntity<Object> getObjetivosByTitulo(@PathVariable String titulo,
+            @RequestParam(defaultValue = "exacto") String modo,
+            @RequestParam(defaultValue = "50") int limit) {
+        try {
+            String tituloNormalizer = titulo.toUpperCase(Locale.ROOT);
+            List<ObjetivoResponse> objetivos = objetivoService.findByTitulo(tituloNormalizer, modo, limit);
+            return ResponseEntity.ok(objetivos);
+        } catch (ErrorMessage ex) {
+            var error = new ObjetivoResponseError(ex.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+        } catch (IllegalArgumentException ex) {
+            var error = new ObjetivoResponseError(ex.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        }
+    }
+
+    /**
+     * Listar los objetivos de un usuario, filtrando por estado y rango de fecha límite
+     */
+    @GetMapping("/usuario/{id}")
+    public ResponseEntity<Object> getObjetivosByUsuario(@PathVariable Long id,
+            @RequestParam(required = false) Boolean completado,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
         try {
-            String tituloNormalizer = titulo.toUpperCase();
-            List<ObjetivoResponse> objetivos = objetivoService.findByTitulo(tituloNormalizer);
+            var objetivos = objetivoService.findByUsuario(id, completado, desde, hasta, page, size);
             return ResponseEntity.ok(objetivos);
         } catch (ErrorMessage ex) {
             var error = new ObjetivoResponseError(ex.getMessage());
@@ -116,9 +226,15 @@ public class ObjetivoController {
      */
     @PostMapping
     public ResponseEntity<Object> createObjetivo(@Validated @RequestBody ObjetivoRequest objetivoRequest) {
+        // Validación del request: los rechazos vuelven como resultado, sin excepciones
+        ObjetivoService.Validacion validacion = objetivoService.validarObjetivoRequest(objetivoRequest);
+        if (!validacion.esValido()) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ObjetivoResponseError(validacion.mensaje()));
+        }
         try {
             // Llamada al servicio para crear el objetivo
-            Objetivo objetivo = objetivoService.createObjetivo(objetivoRequest);
+            Objetivo objetivo = objetivoService.createObjetivo(validacion);
 
             //log.info("objetivo: "+objetivo);
             if (objetivo == null) {
@@ -145,34 +261,94 @@ public class ObjetivoController {
     }    
 
     /**
-     * Actualizar un objetivo
+     * Crear muchos objetivos a partir de un arreglo JSON
+     */
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ObjetivoBulkResponse> createObjetivosBulk(@RequestBody List<ObjetivoRequest> objetivoRequests) {
+        return ResponseEntity.ok(objetivoService.createObjetivos(objetivoRequests.iterator()));
+    }
+
+    /**
+     * Crear muchos objetivos a partir de un stream NDJSON (un objetivo por línea). Se lee
+     * línea a línea y se guarda por lotes mientras llega el cuerpo; una línea que no es un
+     * objetivo JSON válido se informa como error de ese elemento
+     */
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<Object> createObjetivosBulkNdjson(InputStream body) {
+        var lineas = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        try {
+            return ResponseEntity.ok(objetivoService.createObjetivos(
+                    new LectorNdjson<ObjetivoRequest>(lineas, objectMapper.readerFor(ObjetivoRequest.class))));
+        } catch (UncheckedIOException ex) {
+            // Los lotes guardados antes del corte quedan creados
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ObjetivoResponseError("Error al leer el NDJSON: " + ex.getCause().getMessage()));
+        }
+    }
+
+    /**
+     * Actualizar un objetivo. Con If-Match (ETag de /detalle/{id}) solo se actualiza si no
+     * cambió desde que el cliente lo leyó; si no coincide responde 412. Una actualización
+     * concurrente sin If-Match responde 409
      */
     @PutMapping("/{id}")
-    public ResponseEntity<Object> updateObjetivo(@PathVariable Long id, @RequestBody ObjetivoRequest objetivoRequest) {
+    public ResponseEntity<Object> updateObjetivo(@PathVariable Long id, @RequestBody ObjetivoRequest objetivoRequest,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         try {
-            return ResponseEntity.ok(objetivoService.updateObjetivo(id, objetivoRequest));
+            Objetivo objetivo = objetivoService.updateObjetivo(id, objetivoRequest, ifMatch);
+            String etag = objetivoService.etagObjetivo(id);
+            return etag != null ? ResponseEntity.ok().eTag(etag).body(objetivo) : ResponseEntity.ok(objetivo);
         } catch (ErrorMessage ex) {
             var error = new ObjetivoResponseError(ex.getMessage());
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+        } catch (OptimisticLockingFailureException ex) {
+            var error = new ObjetivoResponseError("El objetivo " + id + " fue modificado por otra petición");
+            return ResponseEntity.status(ifMatch != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT)
+                    .body(error);
         }
     }
 
     /**
-     * Eliminar un objetivo
+     * Marcar un objetivo como completado (o pendiente con completado=false) sin leerlo
      */
-    @DeleteMapping("/{id}")
-    public ResponseEntity<Object> deleteObjetivo(@PathVariable Long id) {
+    @PatchMapping("/{id}/completado")
+    public ResponseEntity<Object> marcarCompletado(@PathVariable Long id,
+            @RequestParam(defaultValue = "true") boolean completado) {
         try {
-            // Busca el objetivo por ID
-            var objetivo = objetivoService.findById(id);
+            boolean cambio = objetivoService.marcarCompletado(id, completado);
+            String estado = completado ? "completado" : "pendiente";
+            return ResponseEntity.ok(new ObjetivoResponseMessage(cambio
+                    ? "Objetivo " + id + " marcado como " + estado
+                    : "El objetivo " + id + " ya estaba " + estado));
+        } catch (ErrorMessage ex) {
+            var error = new ObjetivoResponseError(ex.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+        }
+    }
 
-            // Verifica si el objetivo existe
-            if (objetivo == null) {
-                String mensaje = "No se encuentra objetivo para eliminar";
-                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ObjetivoResponseMessage(mensaje));
-            }
+    /**
+     * Marcar varios objetivos como completados (o pendientes) por ID (ids=1,2,3)
+     */
+    @PatchMapping("/completado")
+    public ResponseEntity<ObjetivoLoteResponse> marcarCompletados(@RequestParam("ids") Set<Long> ids,
+            @RequestParam(defaultValue = "true") boolean completado) {
+        return ResponseEntity.ok(objetivoService.marcarCompletados(ids, completado));
+    }
 
-            // Elimina el objetivo
+    /**
+     * Eliminar varios objetivos por ID (ids=1,2,3); los inexistentes se ignoran
+     */
+    @DeleteMapping(params = "ids")
+    public ResponseEntity<ObjetivoLoteResponse> deleteObjetivos(@RequestParam("ids") Set<Long> ids) {
+        return ResponseEntity.ok(objetivoService.deleteObjetivos(ids));
+    }
+
+    /**
+     * Eliminar un objetivo; el 404 sale del conteo de filas borradas, sin leerlo antes
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Object> deleteObjetivo(@PathVariable Long id) {
+        try {
             objetivoService.deleteObjetivo(id);
             return ResponseEntity.ok(new ObjetivoResponseMessage("Objetivo eliminado exitosamente"));
 
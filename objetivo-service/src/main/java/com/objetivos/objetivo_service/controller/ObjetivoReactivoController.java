@@ -0,0 +1,96 @@
+package com.objetivos.objetivo_service.controller;
+
+import com.objetivos.objetivo_service.model.dto.ObjetivoResponse;
+import com.objetivos.objetivo_service.model.dto.ObjetivoResponseError;
+import com.objetivos.objetivo_service.service.ObjetivoReactivoService;
+import com.objetivos.objetivo_service.service.Util.ErrorMessage;
+import java.time.LocalDate;
+import java.util.Locale;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Endpoints GET de ObjetivoController sobre WebFlux y R2DBC (perfil reactivo). Mismas rutas,
+ * parámetros y respuestas; la instancia con este perfil no atiende escrituras.
+ */
+@RestController
+@Profile("reactivo")
+@RequestMapping("/api/objetivos")
+public class ObjetivoReactivoController {
+
+    private final ObjetivoReactivoService objetivoService;
+
+    public ObjetivoReactivoController(ObjetivoReactivoService objetivoService) {
+        this.objetivoService = objetivoService;
+    }
+
+    /**
+     * Obtener los objetivos paginados por cursor (limit/after)
+     */
+    @GetMapping
+    public Mono<ResponseEntity<Object>> getAllObjetivos(@RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "50") int limit) {
+        return objetivoService.getAllObjetivos(after, limit)
+                .<ResponseEntity<Object>>map(ResponseEntity::ok)
+                .onErrorResume(ErrorMessage.class, ex -> error(HttpStatus.NOT_FOUND, ex));
+    }
+
+    /**
+     * Obtener todos los objetivos en streaming NDJSON (Accept: application/x-ndjson). Cada
+     * línea se escribe cuando el cliente la consume; la lectura de la base sigue ese ritmo
+     */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<ObjetivoResponse> streamObjetivos() {
+        return objetivoService.streamObjetivos();
+    }
+
+    /**
+     * Obtener objetivo por ID
+     */
+    @GetMapping("/detalle/{id}")
+    public Mono<ResponseEntity<Object>> getObjetivoById(@PathVariable Long id) {
+        return objetivoService.findById(id)
+                .<ResponseEntity<Object>>map(ResponseEntity::ok)
+                .onErrorResume(ErrorMessage.class, ex -> error(HttpStatus.NOT_FOUND, ex));
+    }
+
+    /**
+     * Buscar objetivos por título (modo exacto, prefijo o contiene)
+     */
+    @GetMapping("/titulo/{titulo}")
+    public Mono<ResponseEntity<Object>> getObjetivosByTitulo(@PathVariable String titulo,
+            @RequestParam(defaultValue = "exacto") String modo,
+            @RequestParam(defaultValue = "50") int limit) {
+        return objetivoService.findByTitulo(titulo.toUpperCase(Locale.ROOT), modo, limit)
+                .<ResponseEntity<Object>>map(ResponseEntity::ok)
+                .onErrorResume(ErrorMessage.class, ex -> error(HttpStatus.NOT_FOUND, ex))
+                .onErrorResume(IllegalArgumentException.class, ex -> error(HttpStatus.BAD_REQUEST, ex));
+    }
+
+    /**
+     * Listar los objetivos de un usuario, filtrando por estado y rango de fecha límite
+     */
+    @GetMapping("/usuario/{id}")
+    public Mono<ResponseEntity<Object>> getObjetivosByUsuario(@PathVariable Long id,
+            @RequestParam(required = false) Boolean completado,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        return objetivoService.findByUsuario(id, completado, desde, hasta, page, size)
+                .<ResponseEntity<Object>>map(ResponseEntity::ok)
+                .onErrorResume(ErrorMessage.class, ex -> error(HttpStatus.NOT_FOUND, ex));
+    }
+
+    private static Mono<ResponseEntity<Object>> error(HttpStatus status, RuntimeException ex) {
+        var error = new ObjetivoResponseError(ex.getMessage());
+        ResponseEntity<Object> respuesta = ResponseEntity.status(status).body(error);
+        return Mono.just(respuesta);
+    }
+}
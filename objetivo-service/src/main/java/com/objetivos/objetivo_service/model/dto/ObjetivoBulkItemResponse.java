@@ -0,0 +1,18 @@
+package com.objetivos.objetivo_service.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ObjetivoBulkItemResponse {
+    // Posición del objetivo en el request (desde 0)
+    private int indice;
+    private Long id;
+    private String estado;
+    private String mensaje;
+}
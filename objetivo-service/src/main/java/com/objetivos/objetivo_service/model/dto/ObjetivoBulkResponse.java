@@ -0,0 +1,21 @@
+package com.objetivos.objetivo_service.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ObjetivoBulkResponse {
+    private int total;
+    private int creados;
+    private int fallidos;
+    private long duracionMs;
+    private double objetivosPorSegundo;
+    private List<ObjetivoBulkItemResponse> resultados;
+}
@@ -0,0 +1,19 @@
+package com.objetivos.objetivo_service.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ObjetivoEstadisticaResponse {
+    // null en el total global
+    private Long usuarioId;
+    private long total;
+    private long completados;
+    private long pendientes;
+    private long vencidos;
+}
@@ -0,0 +1,20 @@
+package com.objetivos.objetivo_service.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ObjetivoEstadisticasResponse {
+    private ObjetivoEstadisticaResponse global;
+    private List<ObjetivoEstadisticaResponse> usuarios;
+
+    // Cursor para pedir la siguiente página de usuarios (after=next); null si no hay más
+    private Long next;
+}
@@ -0,0 +1,18 @@
+package com.objetivos.objetivo_service.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ObjetivoLoteResponse {
+    // IDs distintos recibidos
+    private int solicitados;
+
+    // Filas eliminadas o cambiadas; los IDs inexistentes o que ya estaban en ese estado no cuentan
+    private int afectados;
+}
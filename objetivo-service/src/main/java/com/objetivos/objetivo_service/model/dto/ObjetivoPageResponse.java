@@ -0,0 +1,19 @@
+package com.objetivos.objetivo_service.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ObjetivoPageResponse {
+    private List<ObjetivoResponse> objetivos;
+
+    // Cursor para pedir la siguiente página (after=next); null si no hay más
+    private Long next;
+}
@@ -0,0 +1,19 @@
+package com.objetivos.objetivo_service.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ObjetivoSliceResponse {
+    private List<ObjetivoResponse> objetivos;
+    private int page;
+    private int size;
+    private boolean hasNext;
+}
@@ -0,0 +1,30 @@
+package com.objetivos.objetivo_service.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class UsuarioEventoDTO {
+
+    public static final String ELIMINADO = "ELIMINADO";
+
+    // Id del evento en el outbox de usuario-service: ordena los eventos de un mismo usuario
+    private Long id;
+
+    // Orden de publicación sin huecos; es el cursor (checkpoint) de la sincronización
+    private Long posicion;
+
+    // CREADO, ACTUALIZADO o ELIMINADO
+    private String tipo;
+    private Long usuarioId;
+    private String nombre;
+    private String email;
+    private LocalDateTime fecha;
+}
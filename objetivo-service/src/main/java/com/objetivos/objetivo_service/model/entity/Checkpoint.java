@@ -0,0 +1,31 @@
+package com.objetivos.objetivo_service.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Posición hasta la que un proceso de fondo ya consumió su fuente (p. ej. el id del
+ * último evento de usuario aplicado por la sincronización de la réplica).
+ */
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Table(name = "proceso_checkpoint")
+public class Checkpoint {
+
+    @Id
+    @Column(length = 100)
+    private String nombre;
+
+    @Column(nullable = false)
+    private long posicion;
+
+    private LocalDateTime actualizado;
+}
@@ -5,27 +5,50 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDate;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 @Entity
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
-@Table(name = "Objetivo")
+// Cache de segundo nivel (región objetivos en hibernate-cache.conf). READ_WRITE bloquea la entrada
+// durante la escritura y la reemplaza al confirmar; las escrituras masivas y nativas sobre la
+// tabla vacían la región
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "objetivos")
+@Table(name = "Objetivo", indexes = {
+        // Listado por usuario filtrando por estado y rango de fecha límite
+        @Index(name = "idx_objetivo_usuario_completado_fecha", columnList = "usuario_id, completado, fecha_limite"),
+        // Búsqueda exacta y por prefijo sobre el título normalizado
+        @Index(name = "idx_objetivo_titulo_normalizado", columnList = "titulo_normalizado"),
+        // Recorrido diario de los pendientes vencidos (RevisionVencimientos)
+        @Index(name = "idx_objetivo_completado_fecha", columnList = "completado, fecha_limite")
+})
 public class Objetivo {
 
+    // Secuencia con bloques de 50 IDs: a diferencia de IDENTITY permite que Hibernate agrupe los inserts en batch
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "objetivo_seq")
+    @SequenceGenerator(name = "objetivo_seq", sequenceName = "objetivo_seq", allocationSize = 50)
     @Column(name = "objetivo_id")
     private Long id;
 
     private String titulo;
     private String descripcion;
 
+    // Columna generada por MySQL; permite buscar por título sin aplicar funciones sobre la columna indexada
+    @JsonIgnore
+    @Column(name = "titulo_normalizado", insertable = false, updatable = false,
+            columnDefinition = "varchar(255) GENERATED ALWAYS AS (upper(titulo)) STORED")
+    private String tituloNormalizado;
+
     @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd")
     private LocalDate fechaLimite;
 
@@ -35,4 +58,15 @@ public class Objetivo {
 
     @Column(name = "usuario_id", nullable = false)
     private Long usuarioId;
+
+    // Fecha en que la revisión de vencimientos marcó el objetivo como vencido. Solo la escribe esa
+    // revisión con un UPDATE nativo; JPA no la toca para no pisarla al guardar el objetivo
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd")
+    @Column(name = "vencimiento_notificado", insertable = false, updatable = false)
+    private LocalDate vencimientoNotificado;
+
+    // Versión para el bloqueo optimista y el ETag; el default cubre las filas anteriores a la columna
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint not null default 0")
+    private Long version;
 }
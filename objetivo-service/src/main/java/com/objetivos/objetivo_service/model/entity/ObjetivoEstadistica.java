@@ -0,0 +1,38 @@
+package com.objetivos.objetivo_service.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Conteo de objetivos por usuario, mantenido de forma incremental en cada alta,
+ * cambio de estado y baja (ver EstadisticaService). Pendientes = total - completados.
+ */
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Table(name = "objetivo_estadistica")
+public class ObjetivoEstadistica {
+
+    @Id
+    @Column(name = "usuario_id")
+    private Long usuarioId;
+
+    @Column(nullable = false)
+    private long total;
+
+    @Column(nullable = false)
+    private long completados;
+
+    // Pendientes con fecha límite anterior a hoy
+    @Column(nullable = false)
+    private long vencidos;
+
+    private LocalDateTime actualizado;
+}
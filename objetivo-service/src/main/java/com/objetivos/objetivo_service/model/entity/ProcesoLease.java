@@ -0,0 +1,33 @@
+package com.objetivos.objetivo_service.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lease de un proceso de fondo: la instancia dueña lo renueva mientras trabaja y las demás
+ * no lo corren hasta que vence (ver LeaseProcesos).
+ */
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Table(name = "proceso_lease")
+public class ProcesoLease {
+
+    @Id
+    @Column(length = 100)
+    private String nombre;
+
+    @Column(nullable = false, length = 200)
+    private String duenio;
+
+    // Hora de la base de datos, para no depender del reloj de cada instancia
+    @Column(nullable = false, columnDefinition = "datetime(3)")
+    private LocalDateTime vence;
+}
@@ -0,0 +1,35 @@
+package com.objetivos.objetivo_service.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Copia local de los usuarios construida con los eventos de usuario-service
+ * (ver ReplicaUsuarios). Los eliminados se conservan marcados para que un evento
+ * atrasado no los vuelva a crear.
+ */
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Table(name = "usuario_replica")
+public class UsuarioReplica {
+
+    @Id
+    @Column(name = "usuario_id")
+    private Long usuarioId;
+
+    private String nombre;
+    private String email;
+
+    @Column(nullable = false)
+    private boolean eliminado;
+
+    // Id del último evento aplicado; los eventos con id menor o igual se ignoran
+    @Column(name = "ultimo_evento", nullable = false)
+    private long ultimoEvento;
+}
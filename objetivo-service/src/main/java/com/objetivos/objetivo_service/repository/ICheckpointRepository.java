@@ -0,0 +1,25 @@
+package com.objetivos.objetivo_service.repository;
+
+import com.objetivos.objetivo_service.model.entity.Checkpoint;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ICheckpointRepository extends JpaRepository<Checkpoint, String> {
+
+    // Solo avanza: si otra instancia ya guardó una posición mayor, la conserva
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "proceso_checkpoint"))
+    @Query(value = "INSERT INTO proceso_checkpoint (nombre, posicion, actualizado)"
+            + " VALUES (:nombre, :posicion, NOW()) AS nuevo"
+            + " ON DUPLICATE KEY UPDATE actualizado = IF(nuevo.posicion > proceso_checkpoint.posicion,"
+            + " nuevo.actualizado, proceso_checkpoint.actualizado),"
+            + " posicion = GREATEST(proceso_checkpoint.posicion, nuevo.posicion)",
+            nativeQuery = true)
+    void avanzar(String nombre, long posicion);
+}
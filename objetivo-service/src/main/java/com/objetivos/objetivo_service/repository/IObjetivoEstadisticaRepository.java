@@ -0,0 +1,101 @@
+package com.objetivos.objetivo_service.repository;
+
+import com.objetivos.objetivo_service.model.entity.ObjetivoEstadistica;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface IObjetivoEstadisticaRepository extends JpaRepository<ObjetivoEstadistica, Long> {
+
+    // Suma los deltas a la fila del usuario en una sola sentencia (la crea si no existe). Vencidos no
+    // baja de cero: un objetivo que venció después de la última reconciliación todavía no está contado,
+    // y completarlo o borrarlo no tiene que descontar otro
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "objetivo_estadistica"))
+    @Query(value = "INSERT INTO objetivo_estadistica (usuario_id, total, completados, vencidos, actualizado)"
+            + " VALUES (:usuarioId, :total, :completados, GREATEST(:vencidos, 0), NOW()) AS delta"
+            + " ON DUPLICATE KEY UPDATE total = objetivo_estadistica.total + delta.total,"
+            + " completados = objetivo_estadistica.completados + delta.completados,"
+            + " vencidos = GREATEST(objetivo_estadistica.vencidos + :vencidos, 0),"
+            + " actualizado = delta.actualizado",
+            nativeQuery = true)
+    void sumar(Long usuarioId, long total, long completados, long vencidos);
+
+    // Descuenta un objetivo de las estadísticas de su usuario antes de borrarlo. Actualizar también la
+    // fila del objetivo la bloquea hasta el commit: dos bajas concurrentes del mismo objetivo no
+    // descuentan dos veces (la segunda espera y luego no encuentra la fila)
+    @Modifying
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "objetivo"),
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "objetivo_estadistica")
+    })
+    @Query(value = "UPDATE objetivo o JOIN objetivo_estadistica e ON e.usuario_id = o.usuario_id"
+            + " SET e.total = e.total - 1, e.completados = e.completados - o.completado,"
+            + " e.vencidos = GREATEST(e.vencidos - (o.completado = 0 AND o.fecha_limite < :hoy), 0),"
+            + " e.actualizado = NOW(),"
+            + " o.version = o.version + 1"
+            + " WHERE o.objetivo_id = :objetivoId",
+            nativeQuery = true)
+    int restarObjetivo(Long objetivoId, LocalDate hoy);
+
+    @Query("SELECT COALESCE(SUM(e.total), 0) AS total, COALESCE(SUM(e.completados), 0) AS completados,"
+            + " COALESCE(SUM(e.vencidos), 0) AS vencidos FROM ObjetivoEstadistica e")
+    Totales totales();
+
+    List<ObjetivoEstadistica> findByUsuarioIdGreaterThanOrderByUsuarioIdAsc(Long usuarioId, Limit limit);
+
+    // Usuarios con objetivos después del cursor, por el índice (usuario_id, completado, fecha_limite).
+    // Lectura consistente, sin bloqueos
+    @Query(value = "SELECT DISTINCT usuario_id FROM objetivo WHERE usuario_id > :desde"
+            + " ORDER BY usuario_id LIMIT :limite",
+            nativeQuery = true)
+    List<Long> findUsuariosConObjetivos(long desde, int limite);
+
+    // Bloquea los contadores existentes del rango (desde, hasta] hasta el fin de la transacción: las
+    // escrituras de esos usuarios que ya los tocaron terminan antes del recálculo, y las que llegan
+    // después esperan y suman su delta sobre el valor recalculado
+    @Query(value = "SELECT usuario_id FROM objetivo_estadistica WHERE usuario_id > :desde AND usuario_id <= :hasta"
+            + " FOR UPDATE",
+            nativeQuery = true)
+    List<Long> bloquearRango(long desde, long hasta);
+
+    // Recalcula las filas del rango (desde, hasta] desde la tabla de objetivos. MySQL aplica las
+    // asignaciones en orden, por eso actualizado se compara antes de sobrescribir los contadores
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "objetivo_estadistica"))
+    @Query(value = "INSERT INTO objetivo_estadistica (usuario_id, total, completados, vencidos, actualizado)"
+            + " SELECT * FROM (SELECT usuario_id, COUNT(*) AS total, SUM(completado) AS completados,"
+            + " SUM(completado = 0 AND fecha_limite < :hoy) AS vencidos, NOW() AS actualizado"
+            + " FROM objetivo WHERE usuario_id > :desde AND usuario_id <= :hasta GROUP BY usuario_id) AS real_"
+            + " ON DUPLICATE KEY UPDATE actualizado = IF(objetivo_estadistica.total <> real_.total"
+            + " OR objetivo_estadistica.completados <> real_.completados"
+            + " OR objetivo_estadistica.vencidos <> real_.vencidos, real_.actualizado, objetivo_estadistica.actualizado),"
+            + " total = real_.total, completados = real_.completados, vencidos = real_.vencidos",
+            nativeQuery = true)
+    int reconciliar(LocalDate hoy, long desde, long hasta);
+
+    // Usuarios del rango (desde, hasta] que ya no tienen objetivos
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "objetivo_estadistica"))
+    @Query(value = "DELETE e FROM objetivo_estadistica e WHERE e.usuario_id > :desde AND e.usuario_id <= :hasta"
+            + " AND NOT EXISTS (SELECT 1 FROM objetivo o WHERE o.usuario_id = e.usuario_id)",
+            nativeQuery = true)
+    int eliminarSinObjetivos(long desde, long hasta);
+
+    interface Totales {
+        long getTotal();
+
+        long getCompletados();
+
+        long getVencidos();
+    }
+}
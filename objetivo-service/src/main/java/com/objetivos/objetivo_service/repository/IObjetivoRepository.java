@@ -1,18 +1,180 @@
 package com.objetivos.objetivo_service.repository;
 
 import com.objetivos.objetivo_service.model.entity.Objetivo;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface IObjetivoRepository extends JpaRepository<Objetivo, Long> {
 
-    @Query("SELECT t FROM Objetivo t where upper(t.titulo) = upper(:titulo) ")
-    List<Objetivo> findByTitulo(String titulo);
+    // El título llega normalizado en mayúsculas y se compara contra la columna generada indexada.
+    // El resultado queda en la cache de consultas hasta la próxima escritura sobre la tabla
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "objetivos-por-titulo")
+    })
+    @Query("SELECT t FROM Objetivo t where t.tituloNormalizado = :titulo ORDER BY t.id")
+    List<Objetivo> findByTitulo(String titulo, Limit limit);
+
+    // Lectura previa a una modificación: va a la base y refresca la cache de segundo nivel, que
+    // puede tener una versión vieja si el objetivo se modificó desde otra instancia
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "REFRESH"))
+    @Query("SELECT t FROM Objetivo t WHERE t.id = :id")
+    Optional<Objetivo> findParaActualizar(Long id);
+
+    @Query("SELECT t FROM Objetivo t WHERE t.tituloNormalizado LIKE CONCAT(:prefijo, '%') ESCAPE '!'"
+            + " ORDER BY t.tituloNormalizado, t.id")
+    List<Objetivo> findByTituloPrefijo(String prefijo, Limit limit);
+
+    // Búsqueda por palabras con el índice FULLTEXT ft_objetivo_titulo, ordenada por relevancia
+    @Query(value = "SELECT * FROM objetivo WHERE MATCH(titulo) AGAINST (:texto IN NATURAL LANGUAGE MODE)"
+            + " ORDER BY MATCH(titulo) AGAINST (:texto IN NATURAL LANGUAGE MODE) DESC LIMIT :limite",
+            nativeQuery = true)
+    List<Objetivo> findByTituloTexto(String texto, int limite);
     @Query(value = "SELECT * FROM objetivo WHERE usuario_id = :usuarioId", nativeQuery = true)
     List<Objetivo> findByUsuarioId(Long usuarioId);
-}
 
+    // Usa el índice (usuario_id, completado, fecha_limite); los filtros nulos no se aplican
+    @Query("SELECT t FROM Objetivo t WHERE t.usuarioId = :usuarioId"
+            + " AND (:completado IS NULL OR t.completado = :completado)"
+            + " AND (:desde IS NULL OR t.fechaLimite >= :desde)"
+            + " AND (:hasta IS NULL OR t.fechaLimite <= :hasta)")
+    Slice<Objetivo> findByUsuarioIdFiltrado(Long usuarioId, Boolean completado, LocalDate desde,
+            LocalDate hasta, Pageable pageable);
+
+    /* Escrituras de una sola sentencia: el conteo de filas afectadas reemplaza la lectura previa */
+
+    @Modifying
+    @Query("DELETE FROM Objetivo t WHERE t.id = :id")
+    int eliminarPorId(Long id);
+
+    @Modifying
+    @Query("DELETE FROM Objetivo t WHERE t.id IN :ids")
+    int eliminarPorIds(Collection<Long> ids);
+
+    // Solo cuenta las filas cuyo estado cambia
+    @Modifying
+    @Query("UPDATE Objetivo t SET t.completado = :completado, t.version = t.version + 1"
+            + " WHERE t.id IN :ids AND t.completado <> :completado")
+    int cambiarCompletado(Collection<Long> ids, Boolean completado);
+
+    // Cambia el estado y ajusta las estadísticas del usuario en la misma sentencia. Ninguna asignación
+    // lee una columna asignada en la misma sentencia (MySQL no garantiza el orden en un UPDATE de varias
+    // tablas). Devuelve 0 si el objetivo no existe, ya estaba en ese estado o su usuario aún no tiene
+    // fila de estadísticas. Como toda sentencia nativa sobre objetivo, vacía la región objetivos de
+    // la cache de segundo nivel de esta instancia
+    @Modifying
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "objetivo"),
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "objetivo_estadistica")
+    })
+    @Query(value = "UPDATE objetivo o JOIN objetivo_estadistica e ON e.usuario_id = o.usuario_id"
+            + " SET o.completado = :completado, o.version = o.version + 1,"
+            + " e.completados = e.completados + :signo,"
+            + " e.vencidos = GREATEST(e.vencidos - :signo * (o.fecha_limite < :hoy), 0), e.actualizado = NOW()"
+            + " WHERE o.objetivo_id = :id AND o.completado <> :completado",
+            nativeQuery = true)
+    int cambiarCompletadoConEstadisticas(Long id, boolean completado, int signo, LocalDate hoy);
+
+    // Conteos por usuario de los objetivos indicados, bloqueando sus filas hasta el fin de la
+    // transacción. Con completado se limita a los que cambiarían a ese estado
+    @Query(value = "SELECT usuario_id AS usuarioId, COUNT(*) AS total, SUM(completado) AS completados,"
+            + " SUM(completado = 0 AND fecha_limite < :hoy) AS vencidos,"
+            + " SUM(fecha_limite < :hoy) AS conFechaVencida"
+            + " FROM objetivo WHERE objetivo_id IN (:ids) AND (:completado IS NULL OR completado <> :completado)"
+            + " GROUP BY usuario_id FOR UPDATE",
+            nativeQuery = true)
+    List<ResumenUsuario> resumirConBloqueo(Collection<Long> ids, Boolean completado, LocalDate hoy);
+
+    /* Revisión de vencimientos */
+
+    // Pendientes vencidos después del cursor (fecha_limite, objetivo_id), en el orden del índice
+    // (completado, fecha_limite); el índice incluye la clave primaria, así que no lee las filas
+    @Query(value = "SELECT objetivo_id AS id, fecha_limite AS fechaLimite FROM objetivo"
+            + " WHERE completado = 0 AND fecha_limite >= :fecha AND fecha_limite < :hoy"
+            + " AND (fecha_limite > :fecha OR objetivo_id > :id)"
+            + " ORDER BY fecha_limite, objetivo_id LIMIT :limite",
+            nativeQuery = true)
+    List<Vencimiento> findVencidosDesde(LocalDate fecha, long id, LocalDate hoy, int limite);
+
+    // Marca una sola vez cada objetivo; los que se completaron mientras tanto no cuentan
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "objetivo"))
+    @Query(value = "UPDATE objetivo SET vencimiento_notificado = :hoy"
+            + " WHERE objetivo_id IN (:ids) AND completado = 0 AND vencimiento_notificado IS NULL",
+            nativeQuery = true)
+    int marcarVencimientoNotificado(Collection<Long> ids, LocalDate hoy);
+
+    // Paginación por cursor (keyset) sobre objetivo_id. Como toda consulta, lee las filas de la
+    // base, igual que findVersiones para el ETag. IGNORE solo evita guardar la página en la cache
+    // de segundo nivel, donde desplazaría a los objetivos más leídos
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE"))
+    List<Objetivo> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    // Versiones de una página (misma paginación que findByIdGreaterThanOrderByIdAsc) junto con el
+    // último evento aplicado al usuario de cada objetivo: alcanza para calcular el ETag sin mapear
+    @Query(value = "SELECT o.objetivo_id AS id, o.version AS version,"
+            + " COALESCE(r.ultimo_evento, -1) AS usuarioEvento"
+            + " FROM objetivo o LEFT JOIN usuario_replica r ON r.usuario_id = o.usuario_id"
+            + " WHERE o.objetivo_id > :after ORDER BY o.objetivo_id LIMIT :limite",
+            nativeQuery = true)
+    List<VersionObjetivo> findVersiones(long after, int limite);
+
+    @Query(value = "SELECT o.objetivo_id AS id, o.version AS version,"
+            + " COALESCE(r.ultimo_evento, -1) AS usuarioEvento"
+            + " FROM objetivo o LEFT JOIN usuario_replica r ON r.usuario_id = o.usuario_id"
+            + " WHERE o.objetivo_id = :id",
+            nativeQuery = true)
+    Optional<VersionObjetivo> findVersion(Long id);
+
+    // Fetch size Integer.MIN_VALUE hace que el driver de MySQL entregue las filas una a una.
+    // IGNORE: las filas recorridas no se guardan en la cache de segundo nivel, donde desalojarían
+    // a los objetivos más leídos
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "-2147483648"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @Query("SELECT t FROM Objetivo t ORDER BY t.id")
+    Stream<Objetivo> streamAll();
+
+    interface ResumenUsuario {
+        long getUsuarioId();
+
+        long getTotal();
+
+        long getCompletados();
+
+        long getVencidos();
+
+        long getConFechaVencida();
+    }
+
+    interface Vencimiento {
+        long getId();
+
+        LocalDate getFechaLimite();
+    }
+
+    interface VersionObjetivo {
+        long getId();
+
+        long getVersion();
+
+        long getUsuarioEvento();
+    }
+}
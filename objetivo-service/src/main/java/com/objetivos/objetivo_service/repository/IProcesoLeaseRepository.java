@@ -0,0 +1,38 @@
+package com.objetivos.objetivo_service.repository;
+
+import com.objetivos.objetivo_service.model.entity.ProcesoLease;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface IProcesoLeaseRepository extends JpaRepository<ProcesoLease, String> {
+
+    // Toma el lease si está libre o vencido, o lo renueva si ya es del mismo dueño. MySQL aplica las
+    // asignaciones en orden: el IF de vence ya ve el dueño nuevo y solo extiende el lease si quedó tomado
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "proceso_lease"))
+    @Query(value = "INSERT INTO proceso_lease (nombre, duenio, vence)"
+            + " VALUES (:nombre, :duenio, NOW(3) + INTERVAL :segundos SECOND) AS nuevo"
+            + " ON DUPLICATE KEY UPDATE duenio = IF(proceso_lease.vence < NOW(3)"
+            + " OR proceso_lease.duenio = nuevo.duenio, nuevo.duenio, proceso_lease.duenio),"
+            + " vence = IF(proceso_lease.duenio = nuevo.duenio, nuevo.vence, proceso_lease.vence)",
+            nativeQuery = true)
+    void tomar(String nombre, String duenio, long segundos);
+
+    @Query(value = "SELECT duenio FROM proceso_lease WHERE nombre = :nombre", nativeQuery = true)
+    Optional<String> findDuenio(String nombre);
+
+    // Lo deja vencido para que otra instancia pueda tomarlo sin esperar
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "proceso_lease"))
+    @Query(value = "UPDATE proceso_lease SET vence = NOW(3) WHERE nombre = :nombre AND duenio = :duenio",
+            nativeQuery = true)
+    int liberar(String nombre, String duenio);
+}
@@ -1,18 +1,34 @@
 package com.objetivos.objetivo_service.repository;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 
 import com.objetivos.objetivo_service.model.dto.UsuarioDTO;
+import com.objetivos.objetivo_service.model.dto.UsuarioEventoDTO;
 
+import feign.Request;
+
+// Cada método recibe sus propios timeouts (Request.Options); ver UsuarioService
 @FeignClient(name = "usuario-service")
 public interface IUsuarioFeignClient {
     @GetMapping("/api/usuarios")
-    List<UsuarioDTO> obtenerUsuarios();
+    List<UsuarioDTO> obtenerUsuarios(Request.Options opciones);
 
     @GetMapping("/api/usuarios/{id}")
-    UsuarioDTO obtenerUsuarioPorId(@PathVariable("id") Long id);
+    UsuarioDTO obtenerUsuarioPorId(@PathVariable("id") Long id, Request.Options opciones);
+
+    @GetMapping("/api/usuarios/batch")
+    List<UsuarioDTO> obtenerUsuariosPorIds(@RequestParam("ids") Collection<Long> ids, Request.Options opciones);
+
+    @GetMapping("/api/usuarios/eventos")
+    List<UsuarioEventoDTO> obtenerEventos(@RequestParam("after") Long after, @RequestParam("limit") int limit,
+            Request.Options opciones);
+
+    @GetMapping("/api/usuarios/eventos/ultimo")
+    Long obtenerUltimoEvento(Request.Options opciones);
 }
\ No newline at end of file
@@ -0,0 +1,30 @@
+package com.objetivos.objetivo_service.repository;
+
+import com.objetivos.objetivo_service.model.entity.UsuarioReplica;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface IUsuarioReplicaRepository extends JpaRepository<UsuarioReplica, Long> {
+
+    // Aplica un evento solo si es más nuevo que el último aplicado a ese usuario, así un evento
+    // repetido o desordenado no pisa uno posterior. ultimo_evento se asigna al final porque
+    // MySQL evalúa las asignaciones en orden. Devuelve 0 si el evento se ignoró
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "usuario_replica"))
+    @Query(value = "INSERT INTO usuario_replica (usuario_id, nombre, email, eliminado, ultimo_evento)"
+            + " VALUES (:usuarioId, :nombre, :email, :eliminado, :eventoId) AS nuevo"
+            + " ON DUPLICATE KEY UPDATE"
+            + " nombre = IF(nuevo.ultimo_evento > usuario_replica.ultimo_evento, nuevo.nombre, usuario_replica.nombre),"
+            + " email = IF(nuevo.ultimo_evento > usuario_replica.ultimo_evento, nuevo.email, usuario_replica.email),"
+            + " eliminado = IF(nuevo.ultimo_evento > usuario_replica.ultimo_evento, nuevo.eliminado,"
+            + " usuario_replica.eliminado),"
+            + " ultimo_evento = GREATEST(usuario_replica.ultimo_evento, nuevo.ultimo_evento)",
+            nativeQuery = true)
+    int aplicar(Long usuarioId, String nombre, String email, boolean eliminado, long eventoId);
+}
@@ -0,0 +1,141 @@
+package com.objetivos.objetivo_service.repository;
+
+import com.objetivos.objetivo_service.model.entity.Objetivo;
+import io.r2dbc.spi.Readable;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+/**
+ * Consultas de lectura de objetivos sobre R2DBC (perfil reactivo). Son las mismas que
+ * IObjetivoRepository, con un LEFT JOIN a usuario_replica para traer el nombre del
+ * usuario en la misma fila. Las filas se entregan según la demanda del suscriptor.
+ */
+@Repository
+@Profile("reactivo")
+public class ObjetivoReactivoRepository {
+
+    private static final String SELECT = "SELECT o.objetivo_id, o.titulo, o.descripcion, o.fecha_limite,"
+            + " o.completado, o.usuario_id, o.version, r.usuario_id AS replica_id, r.nombre AS replica_nombre,"
+            + " r.eliminado AS replica_eliminado"
+            + " FROM objetivo o LEFT JOIN usuario_replica r ON r.usuario_id = o.usuario_id";
+
+    private final DatabaseClient databaseClient;
+
+    public ObjetivoReactivoRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    // Paginación por cursor (keyset) sobre objetivo_id
+    public Flux<FilaObjetivo> findByIdGreaterThan(long after, int limite) {
+        return databaseClient.sql(SELECT + " WHERE o.objetivo_id > :after ORDER BY o.objetivo_id LIMIT :limite")
+                .bind("after", after)
+                .bind("limite", limite)
+                .map(ObjetivoReactivoRepository::toFila)
+                .all();
+    }
+
+    // Toda la tabla en orden de ID; el driver lee del socket a medida que hay demanda
+    public Flux<FilaObjetivo> findAll() {
+        return databaseClient.sql(SELECT + " ORDER BY o.objetivo_id")
+                .map(ObjetivoReactivoRepository::toFila)
+                .all();
+    }
+
+    public Mono<FilaObjetivo> findById(long id) {
+        return databaseClient.sql(SELECT + " WHERE o.objetivo_id = :id")
+                .bind("id", id)
+                .map(ObjetivoReactivoRepository::toFila)
+                .one();
+    }
+
+    // El título llega normalizado en mayúsculas y se compara contra la columna generada indexada
+    public Flux<FilaObjetivo> findByTitulo(String titulo, int limite) {
+        return databaseClient.sql(SELECT + " WHERE o.titulo_normalizado = :titulo"
+                        + " ORDER BY o.objetivo_id LIMIT :limite")
+                .bind("titulo", titulo)
+                .bind("limite", limite)
+                .map(ObjetivoReactivoRepository::toFila)
+                .all();
+    }
+
+    public Flux<FilaObjetivo> findByTituloPrefijo(String prefijo, int limite) {
+        return databaseClient.sql(SELECT + " WHERE o.titulo_normalizado LIKE CONCAT(:prefijo, '%') ESCAPE '!'"
+                        + " ORDER BY o.titulo_normalizado, o.objetivo_id LIMIT :limite")
+                .bind("prefijo", prefijo)
+                .bind("limite", limite)
+                .map(ObjetivoReactivoRepository::toFila)
+                .all();
+    }
+
+    // Búsqueda por palabras con el índice FULLTEXT ft_objetivo_titulo, ordenada por relevancia
+    public Flux<FilaObjetivo> findByTituloTexto(String texto, int limite) {
+        return databaseClient.sql(SELECT + " WHERE MATCH(o.titulo) AGAINST (:texto IN NATURAL LANGUAGE MODE)"
+                        + " ORDER BY MATCH(o.titulo) AGAINST (:texto IN NATURAL LANGUAGE MODE) DESC LIMIT :limite")
+                .bind("texto", texto)
+                .bind("limite", limite)
+                .map(ObjetivoReactivoRepository::toFila)
+                .all();
+    }
+
+    // Usa el índice (usuario_id, completado, fecha_limite); los filtros nulos no entran en la consulta
+    public Flux<FilaObjetivo> findByUsuarioIdFiltrado(long usuarioId, Boolean completado, LocalDate desde,
+            LocalDate hasta, long offset, int limite) {
+        StringBuilder sql = new StringBuilder(SELECT).append(" WHERE o.usuario_id = :usuarioId");
+        if (completado != null) {
+            sql.append(" AND o.completado = :completado");
+        }
+        if (desde != null) {
+            sql.append(" AND o.fecha_limite >= :desde");
+        }
+        if (hasta != null) {
+            sql.append(" AND o.fecha_limite <= :hasta");
+        }
+        sql.append(" ORDER BY o.fecha_limite, o.objetivo_id LIMIT :limite OFFSET :offset");
+
+        DatabaseClient.GenericExecuteSpec consulta = databaseClient.sql(sql.toString())
+                .bind("usuarioId", usuarioId)
+                .bind("limite", limite)
+                .bind("offset", offset);
+        if (completado != null) {
+            consulta = consulta.bind("completado", completado);
+        }
+        if (desde != null) {
+            consulta = consulta.bind("desde", desde);
+        }
+        if (hasta != null) {
+            consulta = consulta.bind("hasta", hasta);
+        }
+        return consulta.map(ObjetivoReactivoRepository::toFila).all();
+    }
+
+    private static FilaObjetivo toFila(Readable fila) {
+        Objetivo objetivo = Objetivo.builder()
+                .id(fila.get("objetivo_id", Long.class))
+                .titulo(fila.get("titulo", String.class))
+                .descripcion(fila.get("descripcion", String.class))
+                .fechaLimite(fila.get("fecha_limite", LocalDate.class))
+                .completado(Boolean.TRUE.equals(fila.get("completado", Boolean.class)))
+                .usuarioId(fila.get("usuario_id", Long.class))
+                .version(fila.get("version", Long.class))
+                .build();
+        boolean enReplica = fila.get("replica_id", Long.class) != null;
+        return new FilaObjetivo(objetivo, enReplica, fila.get("replica_nombre", String.class),
+                enReplica && Boolean.TRUE.equals(fila.get("replica_eliminado", Boolean.class)));
+    }
+
+    /**
+     * Objetivo junto con lo que la réplica sabe de su usuario.
+     *
+     * @param enReplica        false si la réplica todavía no conoce al usuario.
+     * @param usuarioNombre    nombre según la réplica; null si no está en la réplica.
+     * @param usuarioEliminado true si la réplica lo tiene marcado como eliminado.
+     */
+    public record FilaObjetivo(Objetivo objetivo, boolean enReplica, String usuarioNombre,
+            boolean usuarioEliminado) {
+    }
+}
@@ -0,0 +1,225 @@
+package com.objetivos.objetivo_service.service;
+
+import com.objetivos.objetivo_service.model.dto.ObjetivoEstadisticaResponse;
+import com.objetivos.objetivo_service.model.dto.ObjetivoEstadisticasResponse;
+import com.objetivos.objetivo_service.model.entity.Objetivo;
+import com.objetivos.objetivo_service.model.entity.ObjetivoEstadistica;
+import com.objetivos.objetivo_service.repository.IObjetivoEstadisticaRepository;
+import com.objetivos.objetivo_service.repository.IObjetivoRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Estadísticas de objetivos por usuario (total, completados, pendientes, vencidos).
+ * <p>
+ * Los contadores se actualizan con un upsert en la misma transacción que crea, cambia
+ * o elimina el objetivo, así que leerlos no recorre la tabla de objetivos. Lo único que
+ * cambia sin una escritura es "vencido" al pasar la fecha límite: eso, y cualquier
+ * deriva, lo corrige la reconciliación periódica.
+ * <p>
+ * La reconciliación va por rangos de usuarios, cada uno en una transacción READ COMMITTED:
+ * la lectura de objetivos es una lectura consistente que no bloquea sus filas, así que las
+ * escrituras de objetivos no esperan a que termine.
+ */
+@Slf4j
+@Service
+public class EstadisticaService {
+
+    private static final int LIMITE_MAXIMO_USUARIOS = 500;
+
+    private final IObjetivoEstadisticaRepository estadisticaRepository;
+    private final TransactionTemplate transaccionReconciliacion;
+    private final int tamanoLoteReconciliacion;
+    private final Timer duracionReconciliacion;
+
+    public EstadisticaService(IObjetivoEstadisticaRepository estadisticaRepository,
+            PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+            @Value("${objetivos.estadisticas.reconciliacion.tamano-lote:200}") int tamanoLoteReconciliacion) {
+        this.estadisticaRepository = estadisticaRepository;
+        this.transaccionReconciliacion = new TransactionTemplate(transactionManager);
+        this.transaccionReconciliacion.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+        this.tamanoLoteReconciliacion = Math.max(tamanoLoteReconciliacion, 1);
+        this.duracionReconciliacion = Timer.builder("objetivos.estadisticas.reconciliacion")
+                .description("Duración de la reconciliación de estadísticas contra la tabla de objetivos")
+                .register(meterRegistry);
+    }
+
+    /* Actualización incremental: se llaman dentro de la transacción que modifica el objetivo */
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrarAlta(Objetivo objetivo) {
+        estadisticaRepository.sumar(objetivo.getUsuarioId(), 1, objetivo.getCompletado() ? 1 : 0,
+                esVencido(objetivo) ? 1 : 0);
+    }
+
+    /**
+     * Registra las altas de un lote con un upsert por usuario en lugar de uno por objetivo.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrarAltas(List<Objetivo> objetivos) {
+        Map<Long, long[]> deltas = new HashMap<>();
+        for (Objetivo objetivo : objetivos) {
+            long[] delta = deltas.computeIfAbsent(objetivo.getUsuarioId(), id -> new long[3]);
+            delta[0]++;
+            delta[1] += objetivo.getCompletado() ? 1 : 0;
+            delta[2] += esVencido(objetivo) ? 1 : 0;
+        }
+        deltas.forEach((usuarioId, delta) -> estadisticaRepository.sumar(usuarioId, delta[0], delta[1], delta[2]));
+    }
+
+    /**
+     * Registra el cambio de estado de un objetivo. No hace nada si el estado no cambió.
+     *
+     * @param objetivo             objetivo con el estado nuevo.
+     * @param completadoAnterior   estado antes del cambio.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrarCambioEstado(Objetivo objetivo, boolean completadoAnterior) {
+        boolean completado = objetivo.getCompletado();
+        if (completado == completadoAnterior) {
+            return;
+        }
+        int signo = completado ? 1 : -1;
+        boolean vencidaLaFecha = objetivo.getFechaLimite().isBefore(LocalDate.now());
+        estadisticaRepository.sumar(objetivo.getUsuarioId(), 0, signo, vencidaLaFecha ? -signo : 0);
+    }
+
+    /**
+     * Registra cambios de estado en lote a partir de los conteos por usuario de los objetivos
+     * que cambiaron (ver IObjetivoRepository.resumirConBloqueo).
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrarCambiosEstado(List<IObjetivoRepository.ResumenUsuario> resumen, boolean completado) {
+        int signo = completado ? 1 : -1;
+        for (IObjetivoRepository.ResumenUsuario usuario : resumen) {
+            estadisticaRepository.sumar(usuario.getUsuarioId(), 0, signo * usuario.getTotal(),
+                    -signo * usuario.getConFechaVencida());
+        }
+    }
+
+    /**
+     * Descuenta un objetivo por ID sin leerlo. Hay que llamarlo antes de borrar la fila; si el
+     * usuario todavía no tiene fila de estadísticas no hace nada (la reconciliación la crea).
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrarBaja(Long objetivoId) {
+        estadisticaRepository.restarObjetivo(objetivoId, LocalDate.now());
+    }
+
+    /**
+     * Registra las bajas de un lote con un upsert por usuario.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrarBajas(List<IObjetivoRepository.ResumenUsuario> resumen) {
+        for (IObjetivoRepository.ResumenUsuario usuario : resumen) {
+            estadisticaRepository.sumar(usuario.getUsuarioId(), -usuario.getTotal(), -usuario.getCompletados(),
+                    -usuario.getVencidos());
+        }
+    }
+
+    /* Lectura */
+
+    /**
+     * Estadísticas globales y de una página de usuarios (paginación por cursor sobre usuario_id),
+     * o solo las de un usuario si se indica.
+     *
+     * @param usuarioId usuario a consultar; null para listar todos.
+     * @param after     último usuario_id de la página anterior; null para empezar.
+     * @param limit     cantidad máxima de usuarios (máximo 500).
+     */
+    @Transactional(readOnly = true)
+    public ObjetivoEstadisticasResponse obtenerEstadisticas(Long usuarioId, Long after, int limit) {
+        IObjetivoEstadisticaRepository.Totales totales = estadisticaRepository.totales();
+        ObjetivoEstadisticaResponse global = toResponse(null, totales.getTotal(), totales.getCompletados(),
+                totales.getVencidos());
+
+        if (usuarioId != null) {
+            ObjetivoEstadisticaResponse usuario = estadisticaRepository.findById(usuarioId)
+                    .map(this::toResponse)
+                    .orElseGet(() -> toResponse(usuarioId, 0, 0, 0));
+            return new ObjetivoEstadisticasResponse(global, List.of(usuario), null);
+        }
+
+        int tamano = Math.min(Math.max(limit, 1), LIMITE_MAXIMO_USUARIOS);
+        List<ObjetivoEstadistica> filas = estadisticaRepository.findByUsuarioIdGreaterThanOrderByUsuarioIdAsc(
+                after == null ? 0L : after, Limit.of(tamano + 1));
+        boolean hayMas = filas.size() > tamano;
+        List<ObjetivoEstadistica> pagina = hayMas ? filas.subList(0, tamano) : filas;
+        return new ObjetivoEstadisticasResponse(global, pagina.stream().map(this::toResponse).toList(),
+                hayMas ? pagina.get(pagina.size() - 1).getUsuarioId() : null);
+    }
+
+    /* Reconciliación */
+
+    /**
+     * Recalcula los contadores desde la tabla de objetivos: corrige deriva y marca como
+     * vencidos los pendientes cuya fecha límite ya pasó. Recorre los usuarios en rangos de
+     * objetivos.estadisticas.reconciliacion.tamano-lote; cada rango bloquea solo sus filas
+     * de estadísticas y se confirma aparte.
+     *
+     * @return filas afectadas por el recálculo.
+     */
+    public int reconciliar() {
+        return duracionReconciliacion.record(() -> {
+            LocalDate hoy = LocalDate.now();
+            int afectadas = 0;
+            int eliminadas = 0;
+            long desde = 0;
+            long hasta;
+            do {
+                List<Long> usuarios = estadisticaRepository.findUsuariosConObjetivos(desde,
+                        tamanoLoteReconciliacion);
+                // El último rango queda abierto para borrar los usuarios sin objetivos que haya al final
+                hasta = usuarios.size() < tamanoLoteReconciliacion
+                        ? Long.MAX_VALUE
+                        : usuarios.get(usuarios.size() - 1);
+                int[] rango = reconciliarRango(hoy, desde, hasta);
+                afectadas += rango[0];
+                eliminadas += rango[1];
+                desde = hasta;
+            } while (hasta != Long.MAX_VALUE);
+            log.info("Reconciliación de estadísticas: {} filas afectadas, {} usuarios sin objetivos eliminados",
+                    afectadas, eliminadas);
+            return afectadas + eliminadas;
+        });
+    }
+
+    /* Metodos privados */
+
+    private int[] reconciliarRango(LocalDate hoy, long desde, long hasta) {
+        return transaccionReconciliacion.execute(status -> {
+            estadisticaRepository.bloquearRango(desde, hasta);
+            return new int[] { estadisticaRepository.reconciliar(hoy, desde, hasta),
+                    estadisticaRepository.eliminarSinObjetivos(desde, hasta) };
+        });
+    }
+
+    private boolean esVencido(Objetivo objetivo) {
+        return !objetivo.getCompletado() && objetivo.getFechaLimite().isBefore(LocalDate.now());
+    }
+
+    private ObjetivoEstadisticaResponse toResponse(ObjetivoEstadistica estadistica) {
+        return toResponse(estadistica.getUsuarioId(), estadistica.getTotal(), estadistica.getCompletados(),
+                estadistica.getVencidos());
+    }
+
+    private ObjetivoEstadisticaResponse toResponse(Long usuarioId, long total, long completados, long vencidos) {
+        return new ObjetivoEstadisticaResponse(usuarioId, total, completados, total - completados, vencidos);
+    }
+}
@@ -0,0 +1,58 @@
+package com.objetivos.objetivo_service.service;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.UUID;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.objetivos.objetivo_service.repository.IProcesoLeaseRepository;
+
+/**
+ * Leases por nombre de proceso en la tabla proceso_lease, para que un proceso de fondo
+ * corra en una sola instancia aunque haya varias registradas en Eureka. El lease vence
+ * solo: si la instancia dueña se cae, otra lo toma al pasar la duración.
+ */
+@Component
+public class LeaseProcesos {
+
+    private final IProcesoLeaseRepository leaseRepository;
+    private final String duenio;
+
+    public LeaseProcesos(IProcesoLeaseRepository leaseRepository) {
+        this.leaseRepository = leaseRepository;
+        this.duenio = host() + ":" + UUID.randomUUID();
+    }
+
+    /**
+     * Toma el lease o, si ya es de esta instancia, lo extiende.
+     *
+     * @param proceso  nombre del proceso.
+     * @param duracion tiempo hasta que vence si no se renueva.
+     * @return true si esta instancia es la dueña al terminar la llamada.
+     */
+    @Transactional
+    public boolean tomar(String proceso, Duration duracion) {
+        leaseRepository.tomar(proceso, duenio, Math.max(duracion.toSeconds(), 1));
+        return leaseRepository.findDuenio(proceso).map(duenio::equals).orElse(false);
+    }
+
+    @Transactional
+    public void liberar(String proceso) {
+        leaseRepository.liberar(proceso, duenio);
+    }
+
+    public String getDuenio() {
+        return duenio;
+    }
+
+    private static String host() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "desconocido";
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.objetivos.objetivo_service.service;
+
+import com.objetivos.objetivo_service.model.dto.ObjetivoPageResponse;
+import com.objetivos.objetivo_service.model.dto.ObjetivoResponse;
+import com.objetivos.objetivo_service.model.dto.ObjetivoSliceResponse;
+import com.objetivos.objetivo_service.model.dto.UsuarioDTO;
+import com.objetivos.objetivo_service.repository.ObjetivoReactivoRepository;
+import com.objetivos.objetivo_service.repository.ObjetivoReactivoRepository.FilaObjetivo;
+import com.objetivos.objetivo_service.service.Util.ErrorMessage;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Lecturas de objetivos sin bloquear hilos (perfil reactivo): R2DBC para la base de datos y
+ * WebClient para usuario-service. Devuelve lo mismo que ObjetivoService: los nombres salen
+ * de la réplica de usuarios en la misma consulta, y solo los usuarios que la réplica no
+ * conoce se piden a usuario-service, en lotes por el endpoint batch.
+ */
+@Slf4j
+@Service
+@Profile("reactivo")
+public class ObjetivoReactivoService {
+
+    private final ObjetivoReactivoRepository objetivoRepository;
+    private final UsuarioClienteReactivo usuarioCliente;
+    private final ReplicaUsuarios replica;
+    private final ObjetivoService objetivoService;
+    private final int tamanoLoteStream;
+    private final int tamanoLoteUsuarios;
+    private final int concurrencia;
+
+    public ObjetivoReactivoService(ObjetivoReactivoRepository objetivoRepository,
+            UsuarioClienteReactivo usuarioCliente, ReplicaUsuarios replica, ObjetivoService objetivoService,
+            @Value("${objetivos.reactivo.stream.tamano-lote:500}") int tamanoLoteStream,
+            @Value("${usuarios.enriquecimiento.tamano-lote:100}") int tamanoLoteUsuarios,
+            @Value("${usuarios.enriquecimiento.concurrencia:8}") int concurrencia) {
+        this.objetivoRepository = objetivoRepository;
+        this.usuarioCliente = usuarioCliente;
+        this.replica = replica;
+        this.objetivoService = objetivoService;
+        this.tamanoLoteStream = Math.max(tamanoLoteStream, 1);
+        this.tamanoLoteUsuarios = Math.max(tamanoLoteUsuarios, 1);
+        this.concurrencia = Math.max(concurrencia, 1);
+    }
+
+    /**
+     * Página de objetivos por cursor sobre el ID, igual que ObjetivoService.getAllObjetivos.
+     * Emite ErrorMessage si no hay objetivos.
+     */
+    public Mono<ObjetivoPageResponse> getAllObjetivos(Long after, int limit) {
+        int tamano = Math.min(Math.max(limit, 1), ObjetivoService.LIMITE_MAXIMO_PAGINA);
+        // Se pide un registro de más para saber si existe una página siguiente
+        return objetivoRepository.findByIdGreaterThan(after == null ? 0L : after, tamano + 1)
+                .collectList()
+                .flatMap(filas -> {
+                    if (filas.isEmpty() && after == null) {
+                        return Mono.error(new ErrorMessage("No se encontraron objetivos"));
+                    }
+                    boolean hayMas = filas.size() > tamano;
+                    List<FilaObjetivo> pagina = hayMas ? filas.subList(0, tamano) : filas;
+                    Long next = hayMas ? pagina.get(pagina.size() - 1).objetivo().getId() : null;
+                    return mapear(pagina).map(objetivos -> new ObjetivoPageResponse(objetivos, next));
+                });
+    }
+
+    /**
+     * Todos los objetivos en orden de ID. Se leen de la base por lotes a medida que el
+     * cliente consume: concatMap con prefetch 1 deja como máximo un lote en vuelo, así que
+     * un cliente lento frena la lectura en lugar de acumular filas en memoria.
+     */
+    public Flux<ObjetivoResponse> streamObjetivos() {
+        return objetivoRepository.findAll()
+                .buffer(tamanoLoteStream)
+                .concatMap(this::mapear, 1)
+                .flatMapIterable(Function.identity());
+    }
+
+    /**
+     * Objetivo por ID. Emite ErrorMessage si no existe.
+     */
+    public Mono<ObjetivoResponse> findById(Long id) {
+        return objetivoRepository.findById(id)
+                .switchIfEmpty(Mono.defer(() -> {
+                    log.error("No se encontro objetivo: {}", id);
+                    return Mono.error(new ErrorMessage("No se encontro objetivo:" + id));
+                }))
+                .flatMap(fila -> mapear(List.of(fila)))
+                .map(objetivos -> objetivos.get(0));
+    }
+
+    /**
+     * Búsqueda por título en modo exacto, prefijo o contiene. Emite ErrorMessage si no
+     * hay resultados e IllegalArgumentException si el modo no es válido.
+     */
+    public Mono<List<ObjetivoResponse>> findByTitulo(String titulo, String modo, int limit) {
+        int tamano = Math.min(Math.max(limit, 1), ObjetivoService.LIMITE_MAXIMO_PAGINA);
+        Flux<FilaObjetivo> filas = switch (modo.toLowerCase(Locale.ROOT)) {
+            case "exacto" -> objetivoRepository.findByTitulo(titulo, tamano);
+            case "prefijo" -> objetivoRepository.findByTituloPrefijo(ObjetivoService.escaparLike(titulo), tamano);
+            case "contiene" -> objetivoRepository.findByTituloTexto(titulo, tamano);
+            default -> Flux.error(new IllegalArgumentException("Modo de búsqueda no válido: " + modo));
+        };
+        return filas.collectList().flatMap(encontrados -> {
+            if (encontrados.isEmpty()) {
+                log.error("No se encontro objetivo con titulo: {}", titulo);
+                return Mono.error(new ErrorMessage("No se encontro objetivo:" + titulo));
+            }
+            return mapear(encontrados);
+        });
+    }
+
+    /**
+     * Objetivos de un usuario con filtros opcionales, ordenados por fecha límite. Emite
+     * ErrorMessage si la primera página viene vacía.
+     */
+    public Mono<ObjetivoSliceResponse> findByUsuario(Long usuarioId, Boolean completado, LocalDate desde,
+            LocalDate hasta, int page, int size) {
+        int tamano = Math.min(Math.max(size, 1), ObjetivoService.LIMITE_MAXIMO_PAGINA);
+        int pagina = Math.max(page, 0);
+        return objetivoRepository.findByUsuarioIdFiltrado(usuarioId, completado, desde, hasta,
+                        (long) pagina * tamano, tamano + 1)
+                .collectList()
+                .flatMap(filas -> {
+                    if (filas.isEmpty() && pagina == 0) {
+                        log.error("No se encontraron objetivos para el usuario: {}", usuarioId);
+                        return Mono.error(new ErrorMessage(
+                                "No se encontraron objetivos para el usuario:" + usuarioId));
+                    }
+                    boolean hayMas = filas.size() > tamano;
+                    List<FilaObjetivo> contenido = hayMas ? filas.subList(0, tamano) : filas;
+                    return mapear(contenido)
+                            .map(objetivos -> new ObjetivoSliceResponse(objetivos, pagina, tamano, hayMas));
+                });
+    }
+
+    /* Metodos privados */
+
+    /**
+     * Mapea un lote de filas resolviendo los nombres que la réplica no trajo en una
+     * llamada batch por cada tamano-lote usuarios.
+     */
+    private Mono<List<ObjetivoResponse>> mapear(List<FilaObjetivo> filas) {
+        Map<Long, String> nombres = new HashMap<>();
+        Set<Long> faltantes = new LinkedHashSet<>();
+        boolean usarReplica = replica.habilitada();
+        for (FilaObjetivo fila : filas) {
+            Long usuarioId = fila.objetivo().getUsuarioId();
+            if (usarReplica && fila.enReplica()) {
+                nombres.put(usuarioId, fila.usuarioEliminado()
+                        ? ObjetivoService.USUARIO_NO_ENCONTRADO : fila.usuarioNombre());
+            } else {
+                faltantes.add(usuarioId);
+            }
+        }
+        if (usarReplica && !replica.respaldoRemoto()) {
+            faltantes.forEach(usuarioId -> nombres.put(usuarioId, ObjetivoService.USUARIO_NO_ENCONTRADO));
+            faltantes.clear();
+        }
+        return resolverRemotos(faltantes).map(remotos -> {
+            nombres.putAll(remotos);
+            return filas.stream()
+                    .map(fila -> objetivoService.mapToObjetivoResponse(fila.objetivo(),
+                            nombres.get(fila.objetivo().getUsuarioId())))
+                    .toList();
+        });
+    }
+
+    private Mono<Map<Long, String>> resolverRemotos(Set<Long> usuarioIds) {
+        if (usuarioIds.isEmpty()) {
+            return Mono.just(Map.of());
+        }
+        return Flux.fromIterable(usuarioIds)
+                .buffer(tamanoLoteUsuarios)
+                .flatMap(lote -> usuarioCliente.obtenerUsuariosPorIds(lote)
+                        .map(usuarios -> nombresDelLote(lote, usuarios))
+                        .onErrorResume(e -> {
+                            log.error("Error al obtener los nombres de {} usuarios: {}", lote.size(), e.getMessage());
+                            return Mono.just(nombresConError(lote));
+                        }), concurrencia)
+                .<Map<Long, String>>collect(HashMap::new, Map::putAll);
+    }
+
+    private static Map<Long, String> nombresDelLote(Collection<Long> lote, List<UsuarioDTO> usuarios) {
+        Map<Long, String> nombres = new HashMap<>();
+        for (UsuarioDTO usuario : usuarios) {
+            nombres.put(usuario.getId(), usuario.getNombre());
+        }
+        // El endpoint batch omite los IDs inexistentes
+        for (Long usuarioId : lote) {
+            if (!nombres.containsKey(usuarioId)) {
+                log.warn("Usuario con ID {} no encontrado. No se puede mapear el nombre.", usuarioId);
+                nombres.put(usuarioId, ObjetivoService.USUARIO_NO_ENCONTRADO);
+            }
+        }
+        return nombres;
+    }
+
+    private static Map<Long, String> nombresConError(Collection<Long> lote) {
+        Map<Long, String> nombres = new HashMap<>();
+        lote.forEach(usuarioId -> nombres.put(usuarioId, ObjetivoService.ERROR_NOMBRE_USUARIO));
+        return nombres;
+    }
+}
@@ -1,56 +1,204 @@
 package com.objetivos.objetivo_service.service;
 
+import com.objetivos.objetivo_service.model.dto.ObjetivoBulkItemResponse;
+import com.objetivos.objetivo_service.model.dto.ObjetivoBulkResponse;
+import com.objetivos.objetivo_service.model.dto.ObjetivoLoteResponse;
+import com.objetivos.objetivo_service.model.dto.ObjetivoPageResponse;
 import com.objetivos.objetivo_service.model.dto.ObjetivoRequest;
 import com.objetivos.objetivo_service.model.dto.ObjetivoResponse;
+import com.objetivos.objetivo_service.model.dto.ObjetivoSliceResponse;
 import com.objetivos.objetivo_service.model.dto.UsuarioDTO;
 import com.objetivos.objetivo_service.model.entity.Objetivo;
 import com.objetivos.objetivo_service.repository.IObjetivoRepository;
-import com.objetivos.objetivo_service.repository.IUsuarioFeignClient;
 import com.objetivos.objetivo_service.service.Util.DateValidator;
 import com.objetivos.objetivo_service.service.Util.ErrorMessage;
+import com.objetivos.objetivo_service.service.Util.Etags;
+import com.objetivos.objetivo_service.service.Util.LecturaPropia;
 
-import feign.FeignException;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import lombok.extern.slf4j.Slf4j;
 
-import org.springframework.beans.factory.annotation.Autowired;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.DigestUtils;
 
+import java.nio.ByteBuffer;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
 public class ObjetivoService {
 
+    // Visibles en el paquete: ObjetivoReactivoService degrada los nombres igual
+    static final String USUARIO_NO_ENCONTRADO = "Usuario no encontrado";
+    static final String ERROR_NOMBRE_USUARIO = "Error al obtener nombre";
+    private static final String NOMBRE_NO_DISPONIBLE = "Nombre no disponible";
+    static final int LIMITE_MAXIMO_PAGINA = 500;
+    private static final int TAMANO_LOTE_STREAM = 500;
+
+    // Mensajes de validación: constantes para no armar un String por cada rechazo
+    private static final String OBJETIVO_NULO = "El objetivo no puede ser nulo.";
+    private static final String TITULO_VACIO = "El título no puede estar vacío.";
+    private static final String DESCRIPCION_VACIA = "La descripción no puede estar vacía.";
+    private static final String FECHA_OBLIGATORIA = "La fecha límite es obligatoria.";
+    private static final String USUARIO_OBLIGATORIO = "El id usuario es obligatorio.";
+    private static final String FORMATO_FECHA_INVALIDO = "El formato de la fecha debe ser 'yyyy-MM-dd'.";
+
+    private static final DateTimeFormatter FORMATO_FECHA = DateValidator.formatter(DateValidator.FORMATO_ISO);
+
     private final IObjetivoRepository objetivoRepository;
-    @Autowired
-    private final IUsuarioFeignClient usuarioFeignClient;
+    private final UsuarioService usuarioService;
+    private final TransactionTemplate transactionTemplate;
+    private final EstadisticaService estadisticaService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${objetivos.bulk.batch-size:500}")
+    private int tamanoLoteBulk;
 
     // Constructor para inyección de dependencias
-    public ObjetivoService(IObjetivoRepository objetivoRepository, IUsuarioFeignClient usuarioFeignClient) {
+    public ObjetivoService(IObjetivoRepository objetivoRepository, UsuarioService usuarioService,
+            TransactionTemplate transactionTemplate, EstadisticaService estadisticaService) {
         this.objetivoRepository = objetivoRepository;
-        this.usuarioFeignClient = usuarioFeignClient;
+        this.usuarioService = usuarioService;
+        this.transactionTemplate = transactionTemplate;
+        this.estadisticaService = estadisticaService;
     }
     
     /* Metodos publicos */
 
     /**
-     * Método para consultar todos los objetivos.
+     * Método para consultar los objetivos paginando por cursor sobre el ID.
      * 
-     * @return Lista de objetivos encontrados.
+     * @param after ID del último objetivo de la página anterior, o null para la primera.
+     * @param limit cantidad máxima de objetivos a devolver (máximo 500).
+     * @return Página de objetivos con el cursor de la siguiente página.
      * @throws ErrorMessage si no se encuentran objetivos en la base de datos.
      */
-
-    public List<ObjetivoResponse> getAllObjetivos() {
-        List<Objetivo> objetivos = objetivoRepository.findAll();
-        if (objetivos.isEmpty()) {
+    @Transactional(readOnly = true)
+    public ObjetivoPageResponse getAllObjetivos(Long after, int limit) {
+        int tamano = Math.min(Math.max(limit, 1), LIMITE_MAXIMO_PAGINA);
+        // Se pide un registro de más para saber si existe una página siguiente
+        List<Objetivo> objetivos = objetivoRepository.findByIdGreaterThanOrderByIdAsc(
+                after == null ? 0L : after, Limit.of(tamano + 1));
+        if (objetivos.isEmpty() && after == null) {
             throw new ErrorMessage("No se encontraron objetivos");
         }
-        return objetivos.stream()
-                .map(this::mapToObjetivoResponse)
-                .toList();
+
+        boolean hayMas = objetivos.size() > tamano;
+        List<Objetivo> pagina = hayMas ? objetivos.subList(0, tamano) : objetivos;
+        Long next = hayMas ? pagina.get(pagina.size() - 1).getId() : null;
+        return new ObjetivoPageResponse(mapToObjetivoResponses(pagina), next);
+    }
+
+    /**
+     * ETag de una página de {@link #getAllObjetivos(Long, int)}, calculado con una consulta
+     * de versiones (id, versión del objetivo, último evento del usuario) sin mapear ni
+     * consultar usuario-service.
+     *
+     * @return el ETag entre comillas, o null si la página está vacía o la réplica de
+     *         usuarios está apagada.
+     */
+    @Transactional(readOnly = true)
+    public String etagObjetivos(Long after, int limit) {
+        if (!usuarioService.replicaHabilitada()) {
+            return null;
+        }
+        int tamano = Math.min(Math.max(limit, 1), LIMITE_MAXIMO_PAGINA);
+        // La fila de más decide el cursor next, así que también entra en el ETag
+        List<IObjetivoRepository.VersionObjetivo> versiones = objetivoRepository.findVersiones(
+                after == null ? 0L : after, tamano + 1);
+        if (versiones.isEmpty()) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES * (1 + 3 * versiones.size()));
+        buffer.putLong(tamano);
+        for (IObjetivoRepository.VersionObjetivo version : versiones) {
+            buffer.putLong(version.getId()).putLong(version.getVersion()).putLong(version.getUsuarioEvento());
+        }
+        return "\"" + DigestUtils.md5DigestAsHex(buffer.array()) + "\"";
+    }
+
+    /**
+     * ETag del detalle de un objetivo: cambia con la versión del objetivo y con cada evento
+     * aplicado a su usuario (el detalle incluye el nombre).
+     *
+     * @return el ETag entre comillas, o null si el objetivo no existe o la réplica está apagada.
+     */
+    @Transactional(readOnly = true)
+    public String etagObjetivo(Long id) {
+        if (!usuarioService.replicaHabilitada()) {
+            return null;
+        }
+        return objetivoRepository.findVersion(id)
+                .map(version -> etag(version.getId(), version.getVersion(), version.getUsuarioEvento()))
+                .orElse(null);
+    }
+
+    /**
+     * Indica si todos los nombres de usuario se resolvieron; una respuesta con nombres
+     * degradados no lleva ETag para que el cliente no la conserve.
+     */
+    public boolean nombresResueltos(List<ObjetivoResponse> objetivos) {
+        for (ObjetivoResponse objetivo : objetivos) {
+            String nombre = objetivo.getUsuarioNombre();
+            if (ERROR_NOMBRE_USUARIO.equals(nombre) || NOMBRE_NO_DISPONIBLE.equals(nombre)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Método para recorrer todos los objetivos sin cargarlos en memoria a la vez.
+     * Las filas se leen en streaming desde la base de datos y se entregan al
+     * consumidor por lotes, resolviendo los nombres de usuario de cada lote.
+     * 
+     * @param consumidor recibe cada objetivo mapeado, en orden de ID.
+     */
+    @Transactional(readOnly = true)
+    public void streamObjetivos(Consumer<ObjetivoResponse> consumidor) {
+        try (Stream<Objetivo> objetivos = objetivoRepository.streamAll()) {
+            List<Objetivo> lote = new ArrayList<>(TAMANO_LOTE_STREAM);
+            Iterator<Objetivo> iterator = objetivos.iterator();
+            while (iterator.hasNext()) {
+                Objetivo objetivo = iterator.next();
+                // Se saca del contexto de persistencia para que el heap no crezca con la tabla
+                entityManager.detach(objetivo);
+                lote.add(objetivo);
+                if (lote.size() == TAMANO_LOTE_STREAM) {
+                    mapToObjetivoResponses(lote).forEach(consumidor);
+                    lote.clear();
+                }
+            }
+            mapToObjetivoResponses(lote).forEach(consumidor);
+        }
     }
 
     /**
@@ -60,43 +208,108 @@ public class ObjetivoService {
      * @return ObjetivoResponse con los detalles del objetivo encontrado.
      * @throws ErrorMessage si no se encuentra un objetivo con ese ID.
      */
+    @Transactional(readOnly = true)
     public ObjetivoResponse findById(Long id) {
-        var objetivo = objetivoRepository.findById(id).orElse(null);
-        if (objetivo == null) {
-            log.error("No se encontro objetivo: {}", id);
-            throw new ErrorMessage("No se encontro objetivo:" + id);
-        }
-        return mapToObjetivoResponse(objetivo);
+        return mapToObjetivoResponse(buscar(id));
+    }
+
+    /**
+     * Método para obtener un objetivo junto con el ETag de la versión devuelta. El objetivo
+     * puede salir de la cache de segundo nivel, que va atrás de las escrituras de otras
+     * instancias: el ETag se arma con la versión leída y no con la de etagObjetivo, para que
+     * un cuerpo viejo nunca quede asociado a un ETag nuevo.
+     * 
+     * @param id identificador único del objetivo.
+     * @return el objetivo y su ETag (null si la réplica de usuarios está apagada).
+     * @throws ErrorMessage si no se encuentra un objetivo con ese ID.
+     */
+    @Transactional(readOnly = true)
+    public Detalle findDetalle(Long id) {
+        Objetivo objetivo = buscar(id);
+        return new Detalle(mapToObjetivoResponse(objetivo), etagActual(objetivo));
     }
 
     /**
      * Método para buscar objetivos por título.
      * 
-     * @param titulo título del objetivo a buscar.
+     * @param titulo título del objetivo a buscar, normalizado en mayúsculas.
      * @return Lista de ObjetivoResponse que contienen los objetivos con el título proporcionado.
      */
+    @Transactional(readOnly = true)
     public List<ObjetivoResponse> findByTitulo(String titulo) {
-        List<Objetivo> objetivos = objetivoRepository.findByTitulo(titulo);
+        return findByTitulo(titulo, "exacto", LIMITE_MAXIMO_PAGINA);
+    }
+
+    /**
+     * Método para buscar objetivos por título con distintos modos de búsqueda.
+     * 
+     * @param titulo título (o parte del título) a buscar, normalizado en mayúsculas.
+     * @param modo "exacto", "prefijo" (títulos que empiezan con el texto) o
+     *             "contiene" (búsqueda por palabras, ordenada por relevancia).
+     * @param limit cantidad máxima de resultados en cualquier modo (máximo 500).
+     * @return Lista de ObjetivoResponse con los objetivos encontrados.
+     * @throws ErrorMessage si no se encuentran objetivos.
+     * @throws IllegalArgumentException si el modo no es válido.
+     */
+    @Transactional(readOnly = true)
+    public List<ObjetivoResponse> findByTitulo(String titulo, String modo, int limit) {
+        int tamano = Math.min(Math.max(limit, 1), LIMITE_MAXIMO_PAGINA);
+        omitirCacheEnLecturaPropia();
+        List<Objetivo> objetivos = switch (modo.toLowerCase(Locale.ROOT)) {
+            case "exacto" -> objetivoRepository.findByTitulo(titulo, Limit.of(tamano));
+            case "prefijo" -> objetivoRepository.findByTituloPrefijo(escaparLike(titulo), Limit.of(tamano));
+            case "contiene" -> objetivoRepository.findByTituloTexto(titulo, tamano);
+            default -> throw new IllegalArgumentException("Modo de búsqueda no válido: " + modo);
+        };
         if (objetivos.isEmpty()) {
             log.error("No se encontro objetivo con titulo: {}", titulo);
             throw new ErrorMessage("No se encontro objetivo:" + titulo);
         }
-        return objetivos.stream()
-                .map(this::mapToObjetivoResponse)
-                .collect(Collectors.toList());
+        return mapToObjetivoResponses(objetivos);
     }
 
     /**
-     * Método para crear un nuevo objetivo.
+     * Método para listar los objetivos de un usuario con filtros opcionales.
      * 
-     * @param objetivoRequest objeto que contiene la información para crear un nuevo objetivo.
-     * @return Objetivo recién creado.
+     * @param usuarioId identificador del usuario.
+     * @param completado filtra por estado si no es null.
+     * @param desde fecha límite mínima (inclusive) si no es null.
+     * @param hasta fecha límite máxima (inclusive) si no es null.
+     * @param page número de página, desde 0.
+     * @param size tamaño de página (máximo 500).
+     * @return Página de objetivos ordenados por fecha límite.
+     * @throws ErrorMessage si el usuario no tiene objetivos con esos filtros.
      */
-    public Objetivo createObjetivo(ObjetivoRequest objetivoRequest) {
-        try {
-            // Validación del request
-            validateObjetivoRequest(objetivoRequest);
+    @Transactional(readOnly = true)
+    public ObjetivoSliceResponse findByUsuario(Long usuarioId, Boolean completado, LocalDate desde,
+            LocalDate hasta, int page, int size) {
+        int tamano = Math.min(Math.max(size, 1), LIMITE_MAXIMO_PAGINA);
+        PageRequest pageRequest = PageRequest.of(Math.max(page, 0), tamano, Sort.by("fechaLimite", "id"));
+        Slice<Objetivo> objetivos = objetivoRepository.findByUsuarioIdFiltrado(usuarioId, completado, desde,
+                hasta, pageRequest);
+        if (!objetivos.hasContent() && objetivos.isFirst()) {
+            log.error("No se encontraron objetivos para el usuario: {}", usuarioId);
+            throw new ErrorMessage("No se encontraron objetivos para el usuario:" + usuarioId);
+        }
+        return new ObjetivoSliceResponse(mapToObjetivoResponses(objetivos.getContent()),
+                objetivos.getNumber(), objetivos.getSize(), objetivos.hasNext());
+    }
 
+    /**
+     * Método para crear un nuevo objetivo a partir de un request ya validado con
+     * {@link #validarObjetivoRequest(ObjetivoRequest)}.
+     * 
+     * @param validacion resultado válido de la validación del request.
+     * @return Objetivo recién creado, o null si el usuario no existe.
+     * @throws IllegalStateException si la validación no fue exitosa.
+     */
+    public Objetivo createObjetivo(Validacion validacion) {
+        if (!validacion.esValido()) {
+            throw new IllegalStateException("No se puede crear un objetivo con un request inválido: "
+                    + validacion.mensaje());
+        }
+        ObjetivoRequest objetivoRequest = validacion.objetivoRequest();
+        try {
             // Validación del usuario
             if (!validarUsuario(objetivoRequest.getUsuarioId())) {
                 log.warn("El usuario con ID {} no es válido. No se puede crear el objetivo.",
@@ -104,83 +317,286 @@ public class ObjetivoService {
                 return null; // o puedes lanzar una excepción personalizada
             }
 
-            LocalDate fechaLimite = parseFechaLimite(objetivoRequest.getFechaLimite());
-
             // Creación del objetivo
-            Objetivo objetivo = Objetivo.builder()
-                    .titulo(objetivoRequest.getTitulo().toUpperCase())
-                    .descripcion(objetivoRequest.getDescripcion().toUpperCase())
-                    .fechaLimite(fechaLimite)
-                    .usuarioId(objetivoRequest.getUsuarioId())
-                    .build();
+            Objetivo objetivo = buildObjetivo(validacion);
 
             log.info("Creando objetivo con título: {} y descripcion: {}", objetivo.getTitulo(),
                     objetivo.getDescripcion());
-            return objetivoRepository.save(objetivo);
+            // El objetivo y sus estadísticas se guardan en la misma transacción
+            return transactionTemplate.execute(status -> {
+                Objetivo creado = objetivoRepository.save(objetivo);
+                estadisticaService.registrarAlta(creado);
+                return creado;
+            });
 
-        } catch (IllegalArgumentException e) {
-            log.error("Error de validación al crear objetivo: {}", e.getMessage(), e);
-            throw e; // Re-lanza la excepción si es necesario
         } catch (Exception e) {
             log.error("Error inesperado al crear objetivo: {}", e.getMessage(), e);
             throw new RuntimeException("Error al crear el objetivo", e); // Lanza una excepción general o personalizada
         }
     }
 
+    /**
+     * Método para crear muchos objetivos en una sola llamada.
+     * Recorre los requests en tramos de objetivos.bulk.batch-size: valida el tramo,
+     * comprueba sus usuarios distintos con una sola consulta (los ya comprobados en
+     * tramos anteriores no se vuelven a consultar) y lo guarda con inserts en batch.
+     * Cada tramo va en su propia transacción: si uno falla, sus objetivos se informan
+     * como error y se sigue con el siguiente. En memoria solo queda el tramo en curso
+     * y el resultado de cada objetivo.
+     * 
+     * @param objetivoRequests objetivos a crear. Si next() lanza IllegalArgumentException
+     *                         (elemento ilegible) se informa como error de ese elemento.
+     * @return resultado por objetivo, totales y throughput de la carga.
+     */
+    public ObjetivoBulkResponse createObjetivos(Iterator<ObjetivoRequest> objetivoRequests) {
+        long inicio = System.nanoTime();
+        List<ObjetivoBulkItemResponse> resultados = new ArrayList<>();
+        Map<Long, Boolean> usuariosComprobados = new HashMap<>();
+        List<Validacion> tramo = new ArrayList<>(tamanoLoteBulk);
+        List<Integer> indicesTramo = new ArrayList<>(tamanoLoteBulk);
+
+        while (objetivoRequests.hasNext()) {
+            int indice = resultados.size();
+            Validacion validacion;
+            try {
+                validacion = validarObjetivoRequest(objetivoRequests.next());
+            } catch (IllegalArgumentException e) {
+                validacion = Validacion.invalida(null, e.getMessage());
+            }
+            resultados.add(validacion.esValido() ? null : itemBulkError(indice, validacion.mensaje()));
+            if (validacion.esValido()) {
+                tramo.add(validacion);
+                indicesTramo.add(indice);
+                if (tramo.size() == tamanoLoteBulk) {
+                    guardarTramoBulk(tramo, indicesTramo, resultados, usuariosComprobados);
+                }
+            }
+        }
+        guardarTramoBulk(tramo, indicesTramo, resultados, usuariosComprobados);
+
+        long duracionMs = (System.nanoTime() - inicio) / 1_000_000;
+        int creados = 0;
+        for (ObjetivoBulkItemResponse resultado : resultados) {
+            if (resultado.getId() != null) {
+                creados++;
+            }
+        }
+        double objetivosPorSegundo = duracionMs == 0 ? creados : creados * 1000.0 / duracionMs;
+        log.info("Carga masiva: {} de {} objetivos creados en {} ms ({} objetivos/s)", creados, resultados.size(),
+                duracionMs, Math.round(objetivosPorSegundo));
+
+        return ObjetivoBulkResponse.builder()
+                .total(resultados.size())
+                .creados(creados)
+                .fallidos(resultados.size() - creados)
+                .duracionMs(duracionMs)
+                .objetivosPorSegundo(objetivosPorSegundo)
+                .resultados(resultados)
+                .build();
+    }
+
    /**
-     * Método para actualizar un objetivo existente.
+     * Método para actualizar un objetivo existente. Usa bloqueo optimista: si otra
+     * petición lo modificó entre la lectura y la escritura, la transacción se revierte
+     * (y las estadísticas con ella).
      * 
      * @param id identificador del objetivo a actualizar.
      * @param objetivoRequest objeto que contiene los datos actualizados del objetivo.
+     * @param ifMatch valor de If-Match del cliente, o null para actualizar sin condición.
      * @return Objetivo actualizado.
      * @throws ErrorMessage si el objetivo no existe para actualizar.
+     * @throws OptimisticLockingFailureException si If-Match no coincide con el ETag actual
+     *         o hubo una actualización concurrente.
      */
-    public Objetivo updateObjetivo(Long id, ObjetivoRequest objetivoRequest) {
-        // Buscar el objetivo existente
-        Objetivo objectObjetivo = objetivoRepository.findById(id).orElse(null);
-        if (objectObjetivo == null) {
-            log.error("No se puede actualizar, no se encuentra objetivo con ID: {}", id);
-            throw new ErrorMessage("No se puede actualizar un objetivo inexistente.");
-        }
-    
-        // Actualizar campos principales
-        objectObjetivo.setTitulo(objetivoRequest.getTitulo().toUpperCase());
-        objectObjetivo.setDescripcion(objetivoRequest.getDescripcion().toUpperCase());
-    
-        // Actualizar estado de completado
-        boolean completado = objetivoRequest.getCompletado() == 1 ? true : false;
-        objectObjetivo.setCompletado(completado);
-    
-        log.info("Objetivo con ID {} actualizado exitosamente", id);
-        return objetivoRepository.save(objectObjetivo);
-    }    
+    public Objetivo updateObjetivo(Long id, ObjetivoRequest objetivoRequest, String ifMatch) {
+        return transactionTemplate.execute(status -> {
+            // Buscar el objetivo existente; @Version detecta una actualización concurrente al hacer flush
+            Objetivo objectObjetivo = objetivoRepository.findParaActualizar(id).orElse(null);
+            if (objectObjetivo == null) {
+                log.error("No se puede actualizar, no se encuentra objetivo con ID: {}", id);
+                throw new ErrorMessage("No se puede actualizar un objetivo inexistente.");
+            }
+            // El ETag se arma con la versión leída: si coincide, el flush solo pasa si nadie lo cambió después
+            if (ifMatch != null && !Etags.coincideFuerte(ifMatch, etagActual(objectObjetivo))) {
+                throw new OptimisticLockingFailureException("El objetivo " + id + " cambió desde que se leyó");
+            }
+            boolean completadoAnterior = objectObjetivo.getCompletado();
+
+            // Actualizar campos principales
+            objectObjetivo.setTitulo(objetivoRequest.getTitulo().toUpperCase(Locale.ROOT));
+            objectObjetivo.setDescripcion(objetivoRequest.getDescripcion().toUpperCase(Locale.ROOT));
+
+            // Actualizar estado de completado
+            boolean completado = objetivoRequest.getCompletado() == 1 ? true : false;
+            objectObjetivo.setCompletado(completado);
+
+            Objetivo actualizado = objetivoRepository.saveAndFlush(objectObjetivo);
+            estadisticaService.registrarCambioEstado(actualizado, completadoAnterior);
+            log.info("Objetivo con ID {} actualizado exitosamente", id);
+            return actualizado;
+        });
+    }
 
 
     /**
-     * Método para eliminar un objetivo por su ID.
+     * Método para eliminar un objetivo por su ID sin leerlo: descuenta las estadísticas y
+     * borra la fila con una sentencia cada una; el conteo del DELETE indica si existía.
      * 
      * @param id identificador del objetivo a eliminar.
      * @return Mensaje indicando si la eliminación fue exitosa.
      * @throws ErrorMessage si no se encuentra el objetivo para eliminar.
      */
     public String deleteObjetivo(Long id) {
-        if (!objetivoRepository.existsById(id)) {
-            log.error("No se puede eliminar, el objetivo no existe con el ID:{}", id);
-            throw new ErrorMessage("No se puede eliminar, el objetivo no existe con el ID: " + id);
-        }
-        objetivoRepository.deleteById(id);
+        transactionTemplate.executeWithoutResult(status -> {
+            estadisticaService.registrarBaja(id);
+            if (objetivoRepository.eliminarPorId(id) == 0) {
+                log.error("No se puede eliminar, el objetivo no existe con el ID:{}", id);
+                throw new ErrorMessage("No se puede eliminar, el objetivo no existe con el ID: " + id);
+            }
+        });
         log.info("Objetivo con ID {} eliminado exitosamente", id);
 
         return String.format("Objetivo %s eliminado exitosamente", id);
     }
 
     /**
-     * Método privado para mapear un objeto de tipo Objetivo a ObjetivoResponse.
+     * Método para marcar un objetivo como completado o pendiente sin leerlo. En el caso
+     * común es una sola sentencia que también ajusta las estadísticas.
+     * 
+     * @param id identificador del objetivo.
+     * @param completado estado nuevo.
+     * @return false si el objetivo ya estaba en ese estado.
+     * @throws ErrorMessage si el objetivo no existe.
+     */
+    public boolean marcarCompletado(Long id, boolean completado) {
+        return transactionTemplate.execute(status -> {
+            if (objetivoRepository.cambiarCompletadoConEstadisticas(id, completado, completado ? 1 : -1,
+                    LocalDate.now()) > 0) {
+                return true;
+            }
+            // Sin fila de estadísticas para el usuario (la crea la reconciliación) o sin cambio de estado
+            if (objetivoRepository.cambiarCompletado(List.of(id), completado) > 0) {
+                return true;
+            }
+            if (!objetivoRepository.existsById(id)) {
+                log.error("No se puede actualizar, no se encuentra objetivo con ID: {}", id);
+                throw new ErrorMessage("No se puede actualizar un objetivo inexistente.");
+            }
+            return false;
+        });
+    }
+
+    /**
+     * Método para eliminar varios objetivos por ID. Por cada lote de objetivos.bulk.batch-size
+     * IDs: una consulta que bloquea las filas y cuenta por usuario, un DELETE y un upsert de
+     * estadísticas por usuario.
+     * 
+     * @param ids identificadores de los objetivos; los inexistentes se ignoran.
+     * @return cantidad de IDs recibidos y de objetivos eliminados.
+     */
+    public ObjetivoLoteResponse deleteObjetivos(Collection<Long> ids) {
+        List<Long> distintos = List.copyOf(new LinkedHashSet<>(ids));
+        int eliminados = 0;
+        for (List<Long> lote : lotes(distintos)) {
+            eliminados += transactionTemplate.execute(status -> {
+                estadisticaService.registrarBajas(objetivoRepository.resumirConBloqueo(lote, null, LocalDate.now()));
+                return objetivoRepository.eliminarPorIds(lote);
+            });
+        }
+        log.info("{} de {} objetivos eliminados en lote", eliminados, distintos.size());
+        return new ObjetivoLoteResponse(distintos.size(), eliminados);
+    }
+
+    /**
+     * Método para marcar varios objetivos como completados o pendientes, por lotes igual
+     * que {@link #deleteObjetivos(Collection)}.
+     * 
+     * @param ids identificadores de los objetivos; los inexistentes se ignoran.
+     * @param completado estado nuevo.
+     * @return cantidad de IDs recibidos y de objetivos que cambiaron de estado.
+     */
+    public ObjetivoLoteResponse marcarCompletados(Collection<Long> ids, boolean completado) {
+        List<Long> distintos = List.copyOf(new LinkedHashSet<>(ids));
+        int cambiados = 0;
+        for (List<Long> lote : lotes(distintos)) {
+            cambiados += transactionTemplate.execute(status -> {
+                estadisticaService.registrarCambiosEstado(
+                        objetivoRepository.resumirConBloqueo(lote, completado, LocalDate.now()), completado);
+                return objetivoRepository.cambiarCompletado(lote, completado);
+            });
+        }
+        log.info("{} de {} objetivos marcados como {}", cambiados, distintos.size(),
+                completado ? "completados" : "pendientes");
+        return new ObjetivoLoteResponse(distintos.size(), cambiados);
+    }
+
+    /**
+     * Método para mapear un objeto de tipo Objetivo a ObjetivoResponse.
+     * Visible en el paquete para los benchmarks JMH (src/jmh/java).
      * 
      * @param objetivo objeto de tipo Objetivo a mapear.
      * @return ObjetivoResponse con los detalles del objetivo.
      */
-    private ObjetivoResponse mapToObjetivoResponse(Objetivo objetivo) {
+    ObjetivoResponse mapToObjetivoResponse(Objetivo objetivo) {
+        String usuarioNombre;
+        try {
+            // Consulta del usuario (cache local o usuario-service) para obtener el nombre
+            Optional<UsuarioDTO> usuario = usuarioService.buscarUsuarioPorId(objetivo.getUsuarioId());
+            if (usuario.isPresent()) {
+                usuarioNombre = usuario.get().getNombre();
+            } else {
+                log.warn("Usuario con ID {} no encontrado. No se puede mapear el nombre.", objetivo.getUsuarioId());
+                usuarioNombre = USUARIO_NO_ENCONTRADO;
+            }
+        } catch (Exception e) {
+            log.error("Error al obtener el nombre del usuario con ID {}: {}", objetivo.getUsuarioId(), e.getMessage());
+            usuarioNombre = ERROR_NOMBRE_USUARIO;
+        }
+
+        return mapToObjetivoResponse(objetivo, usuarioNombre);
+    }
+
+    /**
+     * Método privado para mapear una lista de objetivos resolviendo los nombres
+     * de todos sus usuarios en una sola llamada a usuario-service.
+     * 
+     * @param objetivos objetivos a mapear.
+     * @return lista de ObjetivoResponse en el mismo orden recibido.
+     */
+    private List<ObjetivoResponse> mapToObjetivoResponses(List<Objetivo> objetivos) {
+        Map<Long, String> nombres = obtenerNombresUsuarios(objetivos.stream()
+                .map(Objetivo::getUsuarioId)
+                .collect(Collectors.toSet()));
+        return objetivos.stream()
+                .map(objetivo -> mapToObjetivoResponse(objetivo, nombres.get(objetivo.getUsuarioId())))
+                .toList();
+    }
+
+    /**
+     * Obtiene los nombres de varios usuarios desde la cache local y, para los que
+     * falten, con consultas concurrentes a usuario-service limitadas por un plazo.
+     * Los usuarios que no existen quedan como "Usuario no encontrado", los que
+     * fallaron como "Error al obtener nombre" y los que no se resolvieron a tiempo
+     * como "Nombre no disponible".
+     * 
+     * @param usuarioIds IDs distintos de los usuarios.
+     * @return mapa de ID de usuario a nombre.
+     */
+    private Map<Long, String> obtenerNombresUsuarios(Set<Long> usuarioIds) {
+        Map<Long, String> nombres = new HashMap<>();
+        UsuarioService.Resolucion resolucion = usuarioService.resolverUsuarios(usuarioIds);
+        resolucion.encontrados().forEach((usuarioId, usuario) -> nombres.put(usuarioId, usuario.getNombre()));
+        for (Long usuarioId : resolucion.noEncontrados()) {
+            log.warn("Usuario con ID {} no encontrado. No se puede mapear el nombre.", usuarioId);
+            nombres.put(usuarioId, USUARIO_NO_ENCONTRADO);
+        }
+        resolucion.conError().forEach(usuarioId -> nombres.put(usuarioId, ERROR_NOMBRE_USUARIO));
+        resolucion.pendientes().forEach(usuarioId -> nombres.put(usuarioId, NOMBRE_NO_DISPONIBLE));
+        return nombres;
+    }
+
+    // Visible en el paquete: lo usan ObjetivoReactivoService y los benchmarks JMH (src/jmh/java)
+    ObjetivoResponse mapToObjetivoResponse(Objetivo objetivo, String usuarioNombre) {
         ObjetivoResponse response = new ObjetivoResponse();
         response.setId(objetivo.getId());
         response.setTitulo(objetivo.getTitulo());
@@ -188,46 +604,185 @@ public class ObjetivoService {
         response.setFechaLimite(objetivo.getFechaLimite());
         response.setCompletado(objetivo.getCompletado() == false ? "Pendiente" : "Completado");
         response.setUsuarioId(objetivo.getUsuarioId());
+        response.setUsuarioNombre(usuarioNombre);
+        return response;
+    }
+
+    /**
+     * Comprueba los usuarios de un tramo de la carga masiva y guarda sus objetivos
+     * válidos en una transacción, registrando el resultado de cada uno. Deja las
+     * listas vacías para el siguiente tramo.
+     */
+    private void guardarTramoBulk(List<Validacion> tramo, List<Integer> indicesTramo,
+            List<ObjetivoBulkItemResponse> resultados, Map<Long, Boolean> usuariosComprobados) {
+        if (tramo.isEmpty()) {
+            return;
+        }
+        // Validación de los usuarios nuevos del tramo en una sola consulta
+        Set<Long> usuarioIds = new HashSet<>();
+        for (Validacion validacion : tramo) {
+            if (!usuariosComprobados.containsKey(validacion.objetivoRequest().getUsuarioId())) {
+                usuarioIds.add(validacion.objetivoRequest().getUsuarioId());
+            }
+        }
+        String errorUsuarios = null;
+        if (!usuarioIds.isEmpty()) {
+            try {
+                Set<Long> encontrados = usuarioService.buscarUsuariosPorIds(usuarioIds).keySet();
+                for (Long usuarioId : usuarioIds) {
+                    usuariosComprobados.put(usuarioId, encontrados.contains(usuarioId));
+                }
+            } catch (Exception e) {
+                log.error("Error al validar los usuarios de la carga masiva: {}", e.getMessage(), e);
+                errorUsuarios = "Error al validar el usuario: " + e.getMessage();
+            }
+        }
+
+        List<Objetivo> lote = new ArrayList<>(tramo.size());
+        List<Integer> indicesLote = new ArrayList<>(tramo.size());
+        for (int j = 0; j < tramo.size(); j++) {
+            int indice = indicesTramo.get(j);
+            Long usuarioId = tramo.get(j).objetivoRequest().getUsuarioId();
+            Boolean existe = usuariosComprobados.get(usuarioId);
+            if (existe == null) {
+                resultados.set(indice, itemBulkError(indice, errorUsuarios));
+            } else if (!existe) {
+                resultados.set(indice, itemBulkError(indice, "No se encuentra usuario con ID " + usuarioId));
+            } else {
+                lote.add(buildObjetivo(tramo.get(j)));
+                indicesLote.add(indice);
+            }
+        }
+        tramo.clear();
+        indicesTramo.clear();
+        if (lote.isEmpty()) {
+            return;
+        }
 
         try {
-            // Llamada al servicio de usuario para obtener el nombre
-            UsuarioDTO usuario = usuarioFeignClient.obtenerUsuarioPorId(objetivo.getUsuarioId());
-            response.setUsuarioNombre(usuario.getNombre());
-        } catch (FeignException.NotFound e) {
-            log.warn("Usuario con ID {} no encontrado. No se puede mapear el nombre.", objetivo.getUsuarioId());
-            response.setUsuarioNombre("Usuario no encontrado");
+            transactionTemplate.executeWithoutResult(status -> {
+                objetivoRepository.saveAll(lote);
+                entityManager.flush();
+                estadisticaService.registrarAltas(lote);
+                // Libera el contexto de persistencia para que no crezca con la carga
+                entityManager.clear();
+            });
+            for (int j = 0; j < lote.size(); j++) {
+                int indice = indicesLote.get(j);
+                resultados.set(indice, new ObjetivoBulkItemResponse(indice, lote.get(j).getId(), "CREADO", null));
+            }
         } catch (Exception e) {
-            log.error("Error al obtener el nombre del usuario con ID {}: {}", objetivo.getUsuarioId(), e.getMessage());
-            response.setUsuarioNombre("Error al obtener nombre");
+            log.error("Error al guardar un lote de {} objetivos: {}", lote.size(), e.getMessage(), e);
+            for (int indice : indicesLote) {
+                resultados.set(indice, itemBulkError(indice, "Error al guardar el objetivo: " + e.getMessage()));
+            }
         }
+    }
 
-        return response;
+    private Objetivo buscar(Long id) {
+        omitirCacheEnLecturaPropia();
+        var objetivo = objetivoRepository.findById(id).orElse(null);
+        if (objetivo == null) {
+            log.error("No se encontro objetivo: {}", id);
+            throw new ErrorMessage("No se encontro objetivo:" + id);
+        }
+        return objetivo;
+    }
+
+    // La cache de segundo nivel es local a cada instancia: en la ventana de lectura propia
+    // (perfil replica) no se lee de ella, porque el cliente pudo escribir a través de otra
+    private void omitirCacheEnLecturaPropia() {
+        if (LecturaPropia.primarioForzado()) {
+            entityManager.unwrap(Session.class).setCacheMode(CacheMode.REFRESH);
+        }
+    }
+
+    private String etagActual(Objetivo objetivo) {
+        if (!usuarioService.replicaHabilitada()) {
+            return null;
+        }
+        long usuarioEvento = objetivoRepository.findVersion(objetivo.getId())
+                .map(IObjetivoRepository.VersionObjetivo::getUsuarioEvento)
+                .orElse(-1L);
+        return etag(objetivo.getId(), objetivo.getVersion(), usuarioEvento);
+    }
+
+    private static String etag(long id, long version, long usuarioEvento) {
+        return "\"" + id + "-" + version + "-" + usuarioEvento + "\"";
+    }
+
+    private List<List<Long>> lotes(List<Long> ids) {
+        int tamano = Math.max(tamanoLoteBulk, 1);
+        List<List<Long>> lotes = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i += tamano) {
+            lotes.add(ids.subList(i, Math.min(i + tamano, ids.size())));
+        }
+        return lotes;
+    }
+
+    private ObjetivoBulkItemResponse itemBulkError(int indice, String mensaje) {
+        return new ObjetivoBulkItemResponse(indice, null, "ERROR", mensaje);
     }
 
     /**
-     * Método para validar los datos del request al crear o actualizar un objetivo.
+     * Construye la entidad a partir de un request ya validado, reutilizando la
+     * fecha parseada durante la validación. toUpperCase devuelve el mismo String
+     * cuando el texto ya viene en mayúsculas, sin copiarlo.
+     */
+    private Objetivo buildObjetivo(Validacion validacion) {
+        ObjetivoRequest objetivoRequest = validacion.objetivoRequest();
+        return Objetivo.builder()
+                .titulo(objetivoRequest.getTitulo().toUpperCase(Locale.ROOT))
+                .descripcion(objetivoRequest.getDescripcion().toUpperCase(Locale.ROOT))
+                .fechaLimite(validacion.fechaLimite())
+                .usuarioId(objetivoRequest.getUsuarioId())
+                .build();
+    }
+
+    /**
+     * Escapa los comodines de LIKE para que el prefijo se busque literal.
+     * 
+     * @param texto texto ingresado por el usuario.
+     * @return texto con '!', '%' y '_' escapados con '!'.
+     */
+    static String escaparLike(String texto) {
+        return texto.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+    }
+
+    /**
+     * Método para validar los datos del request al crear un objetivo. Valida y
+     * parsea la fecha límite en una sola pasada y no lanza excepciones: los
+     * rechazos se devuelven en el resultado.
      * 
      * @param objetivoRequest objeto con los datos del objetivo a validar.
-     * @throws IllegalArgumentException si algún campo es inválido.
+     * @return resultado de la validación con la fecha límite ya parseada, o el
+     *         mensaje del primer campo inválido.
      */
-    private void validateObjetivoRequest(ObjetivoRequest objetivoRequest) {
-        if (objetivoRequest.getTitulo() == null || objetivoRequest.getTitulo().isEmpty()
-                || objetivoRequest.getTitulo() == "null") {
-            throw new IllegalArgumentException("El título no puede estar vacío.");
+    public Validacion validarObjetivoRequest(ObjetivoRequest objetivoRequest) {
+        if (objetivoRequest == null) {
+            return Validacion.invalida(null, OBJETIVO_NULO);
+        }
+        if (esVacio(objetivoRequest.getTitulo())) {
+            return Validacion.invalida(objetivoRequest, TITULO_VACIO);
         }
-        if (objetivoRequest.getDescripcion() == null || objetivoRequest.getDescripcion().isEmpty()
-                || objetivoRequest.getDescripcion() == "null") {
-            throw new IllegalArgumentException("La descripción no puede estar vacía.");
+        if (esVacio(objetivoRequest.getDescripcion())) {
+            return Validacion.invalida(objetivoRequest, DESCRIPCION_VACIA);
         }
         if (objetivoRequest.getFechaLimite() == null) {
-            throw new IllegalArgumentException("La fecha límite es obligatoria.");
+            return Validacion.invalida(objetivoRequest, FECHA_OBLIGATORIA);
         }
         if (objetivoRequest.getUsuarioId() == null) {
-            throw new IllegalArgumentException("El id usuario es obligatorio.");
+            return Validacion.invalida(objetivoRequest, USUARIO_OBLIGATORIO);
         }
-        if (!DateValidator.isValidDate(objetivoRequest.getFechaLimite(), "yyyy-MM-dd")) {
-            throw new IllegalArgumentException("El formato de la fecha debe ser 'yyyy-MM-dd'.");
+        LocalDate fechaLimite = DateValidator.parseIsoDate(objetivoRequest.getFechaLimite());
+        if (fechaLimite == null) {
+            return Validacion.invalida(objetivoRequest, FORMATO_FECHA_INVALIDO);
         }
+        return new Validacion(objetivoRequest, fechaLimite, null);
+    }
+
+    private boolean esVacio(String texto) {
+        return texto == null || texto.isEmpty() || "null".equals(texto);
     }
 
     /**
@@ -237,9 +792,7 @@ public class ObjetivoService {
      * @return LocalDate con la fecha límite parseada.
      */
     public LocalDate parseFechaLimite(String fecha) {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-        return LocalDate.parse(fecha, formatter);
-  
+        return LocalDate.parse(fecha, FORMATO_FECHA);
     }
 
     /**
@@ -250,13 +803,39 @@ public class ObjetivoService {
     
     private boolean validarUsuario(Long usuarioId) {
         try {
-            UsuarioDTO usuario = usuarioFeignClient.obtenerUsuarioPorId(usuarioId);
-            return usuario != null;
+            return usuarioService.buscarUsuarioPorId(usuarioId).isPresent();
         } catch (Exception e) {
             log.error(String.format("Error al obtener el usuario con ID %s: %s", usuarioId, e.getMessage()), e);
             return false;
         }
     }
 
+    /**
+     * Resultado de {@link #findDetalle(Long)}.
+     *
+     * @param objetivo objetivo encontrado.
+     * @param etag     ETag de la versión devuelta; null si la réplica de usuarios está apagada.
+     */
+    public record Detalle(ObjetivoResponse objetivo, String etag) {
+    }
+
+    /**
+     * Resultado de {@link #validarObjetivoRequest(ObjetivoRequest)}.
+     *
+     * @param objetivoRequest request validado.
+     * @param fechaLimite     fecha límite parseada; null si el request es inválido.
+     * @param mensaje         motivo del rechazo; null si el request es válido.
+     */
+    public record Validacion(ObjetivoRequest objetivoRequest, LocalDate fechaLimite, String mensaje) {
+
+        static Validacion invalida(ObjetivoRequest objetivoRequest, String mensaje) {
+            return new Validacion(objetivoRequest, null, mensaje);
+        }
+
+        public boolean esValido() {
+            return mensaje == null;
+        }
+    }
+
     /* Metodos privados */
 }
@@ -0,0 +1,110 @@
+package com.objetivos.objetivo_service.service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.objetivos.objetivo_service.model.dto.UsuarioEventoDTO;
+import com.objetivos.objetivo_service.model.entity.Checkpoint;
+import com.objetivos.objetivo_service.model.entity.UsuarioReplica;
+import com.objetivos.objetivo_service.repository.ICheckpointRepository;
+import com.objetivos.objetivo_service.repository.IUsuarioReplicaRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Réplica local de usuarios (id → nombre, email) alimentada por los eventos de
+ * usuario-service: los que llegan por POST /api/objetivos/usuarios/eventos y los que
+ * la sincronización lee del outbox para ponerse al día.
+ * <p>
+ * Aplicar un evento es idempotente y no depende del orden de llegada. El checkpoint
+ * solo lo avanza la sincronización, que lee el outbox por posición (sin huecos), así
+ * que un evento que se perdió por el camino rápido se recupera en la siguiente pasada.
+ */
+@Component
+public class ReplicaUsuarios {
+
+    static final String CHECKPOINT = "replica-usuarios";
+
+    private final IUsuarioReplicaRepository replicaRepository;
+    private final ICheckpointRepository checkpointRepository;
+    private final boolean habilitada;
+    private final boolean respaldoRemoto;
+    private final Counter eventosAplicados;
+    private final Counter eventosIgnorados;
+
+    public ReplicaUsuarios(IUsuarioReplicaRepository replicaRepository, ICheckpointRepository checkpointRepository,
+            MeterRegistry meterRegistry,
+            @Value("${usuarios.replica.enabled:true}") boolean habilitada,
+            @Value("${usuarios.replica.respaldo-remoto:true}") boolean respaldoRemoto) {
+        this.replicaRepository = replicaRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.habilitada = habilitada;
+        this.respaldoRemoto = respaldoRemoto;
+        this.eventosAplicados = Counter.builder("usuarios.replica.eventos")
+                .description("Eventos de usuario recibidos por la réplica local")
+                .tag("resultado", "aplicado")
+                .register(meterRegistry);
+        this.eventosIgnorados = Counter.builder("usuarios.replica.eventos")
+                .description("Eventos de usuario recibidos por la réplica local")
+                .tag("resultado", "ignorado")
+                .register(meterRegistry);
+    }
+
+    public boolean habilitada() {
+        return habilitada;
+    }
+
+    /**
+     * Indica si los usuarios que la réplica no conoce se consultan a usuario-service;
+     * si no, se tratan como inexistentes.
+     */
+    public boolean respaldoRemoto() {
+        return respaldoRemoto;
+    }
+
+    /**
+     * Aplica un evento a la réplica.
+     *
+     * @param evento evento de usuario-service.
+     * @return false si el evento ya estaba aplicado o es anterior al último aplicado.
+     */
+    @Transactional
+    public boolean aplicar(UsuarioEventoDTO evento) {
+        boolean aplicado = replicaRepository.aplicar(evento.getUsuarioId(), evento.getNombre(), evento.getEmail(),
+                UsuarioEventoDTO.ELIMINADO.equals(evento.getTipo()), evento.getId()) > 0;
+        (aplicado ? eventosAplicados : eventosIgnorados).increment();
+        return aplicado;
+    }
+
+    /**
+     * Busca varios usuarios en la réplica, incluidos los marcados como eliminados.
+     *
+     * @return mapa de ID a fila de la réplica; los IDs que la réplica no conoce no aparecen.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, UsuarioReplica> buscar(Collection<Long> ids) {
+        List<UsuarioReplica> filas = replicaRepository.findAllById(ids);
+        return filas.stream().collect(Collectors.toMap(UsuarioReplica::getUsuarioId, Function.identity()));
+    }
+
+    /**
+     * Posición del último evento que la sincronización ya leyó del outbox; 0 si nunca corrió.
+     */
+    @Transactional(readOnly = true)
+    public long checkpoint() {
+        return checkpointRepository.findById(CHECKPOINT).map(Checkpoint::getPosicion).orElse(0L);
+    }
+
+    @Transactional
+    public void avanzarCheckpoint(long posicion) {
+        checkpointRepository.avanzar(CHECKPOINT, posicion);
+    }
+}
@@ -0,0 +1,89 @@
+package com.objetivos.objetivo_service.service;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import com.objetivos.objetivo_service.model.dto.UsuarioDTO;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import reactor.core.publisher.Mono;
+
+/**
+ * Versión no bloqueante de UsuarioClienteRemoto para la ruta de lectura reactiva: WebClient
+ * balanceado por Eureka, con el mismo bulkhead y circuit breaker (usuarioService) y los
+ * mismos timeouts por método.
+ */
+@Component
+@Profile("reactivo")
+public class UsuarioClienteReactivo {
+
+    private static final String INSTANCIA = "usuarioService";
+    private static final ParameterizedTypeReference<List<UsuarioDTO>> LISTA_USUARIOS =
+            new ParameterizedTypeReference<>() {
+            };
+
+    private final WebClient webClient;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final Duration lecturaBatch;
+    private final Duration lecturaListado;
+    private final Duration lecturaPorId;
+
+    // Se parte del builder de Spring Boot para conservar las trazas y métricas de http.client.requests
+    public UsuarioClienteReactivo(WebClient.Builder builder, ReactorLoadBalancerExchangeFilterFunction balanceo,
+            CircuitBreakerRegistry circuitBreakerRegistry, BulkheadRegistry bulkheadRegistry,
+            @Value("${usuarios.timeout.lectura-por-id:1s}") Duration lecturaPorId,
+            @Value("${usuarios.timeout.lectura-batch:3s}") Duration lecturaBatch,
+            @Value("${usuarios.timeout.lectura-listado:5s}") Duration lecturaListado) {
+        this.webClient = builder.baseUrl("http://usuario-service").filter(balanceo).build();
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker(INSTANCIA);
+        this.bulkhead = bulkheadRegistry.bulkhead(INSTANCIA);
+        this.lecturaPorId = lecturaPorId;
+        this.lecturaBatch = lecturaBatch;
+        this.lecturaListado = lecturaListado;
+    }
+
+    public Mono<List<UsuarioDTO>> obtenerUsuarios() {
+        return ejecutar(webClient.get().uri("/api/usuarios")
+                .retrieve()
+                .bodyToMono(LISTA_USUARIOS), lecturaListado);
+    }
+
+    /**
+     * Usuario por ID; vacío si usuario-service responde 404 (no cuenta como fallo del circuito).
+     */
+    public Mono<UsuarioDTO> obtenerUsuarioPorId(Long id) {
+        return ejecutar(webClient.get().uri("/api/usuarios/{id}", id)
+                .retrieve()
+                .bodyToMono(UsuarioDTO.class)
+                .onErrorResume(WebClientResponseException.NotFound.class, e -> Mono.empty()), lecturaPorId);
+    }
+
+    public Mono<List<UsuarioDTO>> obtenerUsuariosPorIds(Collection<Long> ids) {
+        return ejecutar(webClient.get()
+                .uri(uri -> uri.path("/api/usuarios/batch").queryParam("ids", ids).build())
+                .retrieve()
+                .bodyToMono(LISTA_USUARIOS), lecturaBatch);
+    }
+
+    private <T> Mono<T> ejecutar(Mono<T> llamada, Duration timeout) {
+        // El bulkhead va por fuera para que sus rechazos no cuenten como fallos del circuito
+        return llamada.timeout(timeout)
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                .transformDeferred(BulkheadOperator.of(bulkhead));
+    }
+}
@@ -0,0 +1,111 @@
+package com.objetivos.objetivo_service.service;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.objetivos.objetivo_service.model.dto.UsuarioDTO;
+import com.objetivos.objetivo_service.model.dto.UsuarioEventoDTO;
+import com.objetivos.objetivo_service.repository.IUsuarioFeignClient;
+
+import feign.Request;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Llamadas a usuario-service con timeouts por método, un bulkhead de semáforo
+ * que limita las llamadas concurrentes y un circuit breaker (configurados en
+ * resilience4j.*.instances.usuarioService).
+ * Cuando el bulkhead está lleno o el circuito abierto la llamada falla de
+ * inmediato con BulkheadFullException o CallNotPermittedException, y quien
+ * llama aplica el valor degradado de siempre ("Error al obtener nombre").
+ * Los 404 no cuentan como fallo del circuito.
+ */
+@Component
+public class UsuarioClienteRemoto {
+
+    private static final String INSTANCIA = "usuarioService";
+
+    private final IUsuarioFeignClient usuarioFeignClient;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final Counter rechazosBulkhead;
+    private final Counter rechazosCircuito;
+
+    private final Request.Options opcionesPorId;
+    private final Request.Options opcionesBatch;
+    private final Request.Options opcionesListado;
+
+    public UsuarioClienteRemoto(IUsuarioFeignClient usuarioFeignClient,
+            CircuitBreakerRegistry circuitBreakerRegistry, BulkheadRegistry bulkheadRegistry,
+            MeterRegistry meterRegistry,
+            @Value("${usuarios.timeout.conexion:500ms}") Duration conexion,
+            @Value("${usuarios.timeout.lectura-por-id:1s}") Duration lecturaPorId,
+            @Value("${usuarios.timeout.lectura-batch:3s}") Duration lecturaBatch,
+            @Value("${usuarios.timeout.lectura-listado:5s}") Duration lecturaListado) {
+        this.usuarioFeignClient = usuarioFeignClient;
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker(INSTANCIA);
+        this.bulkhead = bulkheadRegistry.bulkhead(INSTANCIA);
+        this.rechazosBulkhead = Counter.builder("usuarios.llamadas.rechazadas")
+                .description("Llamadas a usuario-service rechazadas sin salir del servicio")
+                .tag("motivo", "bulkhead")
+                .register(meterRegistry);
+        this.rechazosCircuito = Counter.builder("usuarios.llamadas.rechazadas")
+                .description("Llamadas a usuario-service rechazadas sin salir del servicio")
+                .tag("motivo", "circuito-abierto")
+                .register(meterRegistry);
+        this.opcionesPorId = opciones(conexion, lecturaPorId);
+        this.opcionesBatch = opciones(conexion, lecturaBatch);
+        this.opcionesListado = opciones(conexion, lecturaListado);
+    }
+
+    public List<UsuarioDTO> obtenerUsuarios() {
+        return ejecutar(() -> usuarioFeignClient.obtenerUsuarios(opcionesListado));
+    }
+
+    public UsuarioDTO obtenerUsuarioPorId(Long id) {
+        return ejecutar(() -> usuarioFeignClient.obtenerUsuarioPorId(id, opcionesPorId));
+    }
+
+    public List<UsuarioDTO> obtenerUsuariosPorIds(Collection<Long> ids) {
+        return ejecutar(() -> usuarioFeignClient.obtenerUsuariosPorIds(ids, opcionesBatch));
+    }
+
+    public List<UsuarioEventoDTO> obtenerEventos(long after, int limit) {
+        return ejecutar(() -> usuarioFeignClient.obtenerEventos(after, limit, opcionesBatch));
+    }
+
+    public long obtenerUltimoEvento() {
+        return ejecutar(() -> usuarioFeignClient.obtenerUltimoEvento(opcionesPorId));
+    }
+
+    private <T> T ejecutar(Supplier<T> llamada) {
+        // El bulkhead va por fuera para que sus rechazos no cuenten como fallos del circuito
+        try {
+            return Bulkhead.decorateSupplier(bulkhead, CircuitBreaker.decorateSupplier(circuitBreaker, llamada))
+                    .get();
+        } catch (BulkheadFullException e) {
+            rechazosBulkhead.increment();
+            throw e;
+        } catch (CallNotPermittedException e) {
+            rechazosCircuito.increment();
+            throw e;
+        }
+    }
+
+    private static Request.Options opciones(Duration conexion, Duration lectura) {
+        return new Request.Options(conexion.toMillis(), TimeUnit.MILLISECONDS, lectura.toMillis(),
+                TimeUnit.MILLISECONDS, true);
+    }
+}
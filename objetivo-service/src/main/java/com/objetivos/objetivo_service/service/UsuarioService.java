@@ -1,38 +1,472 @@
 package com.objetivos.objetivo_service.service;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.support.ContextPropagatingTaskDecorator;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.objetivos.objetivo_service.model.dto.UsuarioDTO;
-import com.objetivos.objetivo_service.repository.IUsuarioFeignClient;
+import com.objetivos.objetivo_service.model.dto.UsuarioEventoDTO;
+import com.objetivos.objetivo_service.model.entity.UsuarioReplica;
 
+import feign.FeignException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
 @Service
 public class UsuarioService {
 
     @Autowired
     RestTemplate restTemplate;
 
-    @Autowired
-    private IUsuarioFeignClient usuarioFeignClient;
+    private final UsuarioClienteRemoto usuarioClienteRemoto;
+
+    // Réplica local alimentada por eventos; se consulta antes que usuario-service
+    private final ReplicaUsuarios replica;
+
+    // Cache local de usuarios encontrados y cache negativa de IDs que respondieron 404
+    private final Cache<Long, UsuarioDTO> usuarios;
+    private final Cache<Long, Boolean> usuariosNoEncontrados;
+
+    // Resolución concurrente de los usuarios que no están en cache
+    private final SimpleAsyncTaskExecutor enriquecimientoExecutor;
+
+    @Value("${usuarios.enriquecimiento.concurrencia:8}")
+    private int concurrencia;
+
+    @Value("${usuarios.enriquecimiento.tamano-lote:100}")
+    private int tamanoLote;
+
+    @Value("${usuarios.enriquecimiento.plazo:2s}")
+    private Duration plazo;
+
+    @Value("${usuarios.enriquecimiento.batch:true}")
+    private boolean usarBatch;
+
+    @Value("${usuarios.replica.sincronizacion.tamano-lote:500}")
+    private int tamanoLoteEventos;
+
+    // Id del último evento que se sabe que existe en el outbox de usuario-service
+    private final AtomicLong ultimoEventoOutbox = new AtomicLong();
+    private final Counter eventosRechazados;
+
+    public UsuarioService(UsuarioClienteRemoto usuarioClienteRemoto, ReplicaUsuarios replica,
+            MeterRegistry meterRegistry,
+            @Value("${usuarios.cache.ttl:10m}") Duration ttl,
+            @Value("${usuarios.cache.ttl-no-encontrado:30s}") Duration ttlNoEncontrado,
+            @Value("${usuarios.cache.max-entradas:10000}") long maxEntradas,
+            @Value("${spring.threads.virtual.enabled:false}") boolean hilosVirtuales) {
+        this.usuarioClienteRemoto = usuarioClienteRemoto;
+        this.replica = replica;
+        this.enriquecimientoExecutor = new SimpleAsyncTaskExecutor("enriquecimiento-");
+        this.enriquecimientoExecutor.setVirtualThreads(hilosVirtuales);
+        // Las llamadas a usuario-service quedan dentro de la traza de la petición que las origina
+        this.enriquecimientoExecutor.setTaskDecorator(new ContextPropagatingTaskDecorator());
+        this.usuarios = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxEntradas)
+                .recordStats()
+                .build();
+        this.usuariosNoEncontrados = Caffeine.newBuilder()
+                .expireAfterWrite(ttlNoEncontrado)
+                .maximumSize(maxEntradas)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, usuarios, "usuarios");
+        CaffeineCacheMetrics.monitor(meterRegistry, usuariosNoEncontrados, "usuarios-no-encontrados");
+        this.eventosRechazados = Counter.builder("usuarios.replica.eventos")
+                .description("Eventos de usuario recibidos por la réplica local")
+                .tag("resultado", "rechazado")
+                .register(meterRegistry);
+    }
 
     public List<UsuarioDTO> obtenerUsuarios() {
-        return usuarioFeignClient.obtenerUsuarios();
+        return usuarioClienteRemoto.obtenerUsuarios();
     }
 
     public UsuarioDTO obtenerUsuarioPorId(Long id) {
-        return usuarioFeignClient.obtenerUsuarioPorId(id);  // Llamada al servicio a través de Feign
+        return usuarioClienteRemoto.obtenerUsuarioPorId(id);  // Llamada al servicio a través de Feign
+    }
+
+    /**
+     * Busca un usuario pasando primero por la cache local y por la réplica.
+     *
+     * @param id identificador del usuario.
+     * @return el usuario, o vacío si no existe según la réplica o usuario-service respondió 404.
+     * @throws RuntimeException si la llamada remota falla por otro motivo.
+     */
+    public Optional<UsuarioDTO> buscarUsuarioPorId(Long id) {
+        UsuarioDTO usuario = usuarios.getIfPresent(id);
+        if (usuario != null) {
+            return Optional.of(usuario);
+        }
+        if (usuariosNoEncontrados.getIfPresent(id) != null) {
+            return Optional.empty();
+        }
+        Map<Long, UsuarioDTO> encontrados = new HashMap<>(1);
+        if (resolverDesdeReplicaOTodos(List.of(id), encontrados, new HashSet<>(1)).isEmpty()) {
+            return Optional.ofNullable(encontrados.get(id));
+        }
+        try {
+            usuario = usuarioClienteRemoto.obtenerUsuarioPorId(id);
+        } catch (FeignException.NotFound e) {
+            usuariosNoEncontrados.put(id, Boolean.TRUE);
+            return Optional.empty();
+        }
+        if (usuario == null) {
+            return Optional.empty();
+        }
+        usuarios.put(id, usuario);
+        return Optional.of(usuario);
+    }
+
+    /**
+     * Busca varios usuarios pasando primero por la cache local y por la réplica;
+     * los IDs que faltan se resuelven con una sola llamada al endpoint batch.
+     *
+     * @param ids identificadores de los usuarios.
+     * @return mapa de ID a usuario con los usuarios existentes.
+     * @throws RuntimeException si la llamada remota falla.
+     */
+    public Map<Long, UsuarioDTO> buscarUsuariosPorIds(Collection<Long> ids) {
+        Map<Long, UsuarioDTO> encontrados = new HashMap<>(usuarios.getAllPresent(ids));
+        List<Long> sinCache = new ArrayList<>();
+        for (Long id : ids) {
+            if (!encontrados.containsKey(id) && usuariosNoEncontrados.getIfPresent(id) == null) {
+                sinCache.add(id);
+            }
+        }
+        Set<Long> pendientes = new HashSet<>(resolverDesdeReplicaOTodos(sinCache, encontrados, new HashSet<>()));
+        if (pendientes.isEmpty()) {
+            return encontrados;
+        }
+
+        for (UsuarioDTO usuario : usuarioClienteRemoto.obtenerUsuariosPorIds(pendientes)) {
+            usuarios.put(usuario.getId(), usuario);
+            encontrados.put(usuario.getId(), usuario);
+            pendientes.remove(usuario.getId());
+        }
+        pendientes.forEach(id -> usuariosNoEncontrados.put(id, Boolean.TRUE));
+        return encontrados;
+    }
+
+    /**
+     * Resuelve varios usuarios para enriquecer un listado sin bloquear la respuesta
+     * completa. Los IDs que no están en cache ni en la réplica se reparten en lotes que se consultan
+     * en paralelo (como máximo usuarios.enriquecimiento.concurrencia a la vez), ya
+     * sea con el endpoint batch o, si usuarios.enriquecimiento.batch=false, con una
+     * llamada por usuario. Aunque haya un solo lote, la espera nunca pasa de
+     * usuarios.enriquecimiento.plazo: lo que no se resolvió para entonces queda como pendiente.
+     *
+     * @param ids identificadores distintos de los usuarios.
+     * @return usuarios encontrados e IDs no encontrados, con error o pendientes.
+     */
+    public Resolucion resolverUsuarios(Collection<Long> ids) {
+        Map<Long, UsuarioDTO> encontrados = new HashMap<>(usuarios.getAllPresent(ids));
+        Set<Long> noEncontrados = new HashSet<>();
+        Set<Long> conError = new HashSet<>();
+        List<Long> sinCache = new ArrayList<>();
+        for (Long id : ids) {
+            if (encontrados.containsKey(id)) {
+                continue;
+            }
+            if (usuariosNoEncontrados.getIfPresent(id) != null) {
+                noEncontrados.add(id);
+            } else {
+                sinCache.add(id);
+            }
+        }
+        List<Long> faltantes = resolverDesdeReplicaOTodos(sinCache, encontrados, noEncontrados);
+
+        List<List<Long>> lotes = new ArrayList<>();
+        int tamano = usarBatch ? Math.max(tamanoLote, 1) : 1;
+        for (int i = 0; i < faltantes.size(); i += tamano) {
+            lotes.add(faltantes.subList(i, Math.min(i + tamano, faltantes.size())));
+        }
+
+        if (!lotes.isEmpty()) {
+            resolverLotesConPlazo(lotes, encontrados, noEncontrados, conError);
+        }
+
+        Set<Long> pendientes = new HashSet<>();
+        for (Long id : faltantes) {
+            if (!encontrados.containsKey(id) && !noEncontrados.contains(id) && !conError.contains(id)) {
+                pendientes.add(id);
+            }
+        }
+        if (!pendientes.isEmpty()) {
+            log.warn("{} usuarios sin resolver al vencer el plazo de {}", pendientes.size(), plazo);
+        }
+        return new Resolucion(Map.copyOf(encontrados), Set.copyOf(noEncontrados), Set.copyOf(conError),
+                pendientes);
+    }
+
+    /**
+     * Indica si la réplica de usuarios está activa; sin ella los ETags de objetivos no
+     * pueden reflejar los cambios de nombre y no se generan.
+     */
+    public boolean replicaHabilitada() {
+        return replica.habilitada();
+    }
+
+    /**
+     * Aplica un evento de usuario-service a la réplica y saca al usuario de la cache local.
+     *
+     * @param evento evento de alta, cambio o baja.
+     * @return false si el evento ya estaba aplicado o llegó después de uno más nuevo.
+     */
+    public boolean aplicarEvento(UsuarioEventoDTO evento) {
+        boolean aplicado = replica.aplicar(evento);
+        usuarios.invalidate(evento.getUsuarioId());
+        usuariosNoEncontrados.invalidate(evento.getUsuarioId());
+        return aplicado;
     }
-/* 
+
+    /**
+     * Aplica un lote recibido por POST /api/objetivos/usuarios/eventos. Un evento con id
+     * posterior al último del outbox de usuario-service no puede venir del relay y se
+     * descarta: aplicado, su id quedaría como último evento del usuario y la réplica
+     * ignoraría todos los eventos reales de ese usuario. Si el lote trae ids que superan
+     * la cota conocida se vuelve a consultar una vez; si esa consulta falla, los eventos
+     * nuevos se descartan y los recupera la sincronización.
+     *
+     * @param eventos eventos recibidos, en orden de id.
+     * @return cantidad de eventos aplicados.
+     */
+    public int aplicarEventosRecibidos(List<UsuarioEventoDTO> eventos) {
+        long maximo = eventos.stream()
+                .map(UsuarioEventoDTO::getId)
+                .filter(Objects::nonNull)
+                .mapToLong(Long::longValue)
+                .max()
+                .orElse(0L);
+        long cota = ultimoEventoOutbox.get();
+        if (maximo > cota) {
+            try {
+                cota = ultimoEventoOutbox.accumulateAndGet(usuarioClienteRemoto.obtenerUltimoEvento(), Math::max);
+            } catch (Exception e) {
+                log.warn("No se pudo consultar el último evento de usuario-service: {}", e.getMessage());
+            }
+        }
+        int aplicados = 0;
+        for (UsuarioEventoDTO evento : eventos) {
+            if (evento.getId() == null || evento.getUsuarioId() == null || evento.getId() > cota) {
+                eventosRechazados.increment();
+                log.warn("Evento de usuario descartado: id {} fuera del outbox (último {})", evento.getId(), cota);
+            } else if (aplicarEvento(evento)) {
+                aplicados++;
+            }
+        }
+        return aplicados;
+    }
+
+    /**
+     * Pone la réplica al día leyendo el outbox de usuario-service desde el checkpoint (la
+     * última posición leída), por lotes de usuarios.replica.sincronizacion.tamano-lote eventos.
+     *
+     * @return cantidad de eventos leídos.
+     * @throws RuntimeException si la llamada remota falla; el checkpoint queda en el último lote aplicado.
+     */
+    public int sincronizarReplica() {
+        if (!replica.habilitada()) {
+            return 0;
+        }
+        int tamano = Math.max(tamanoLoteEventos, 1);
+        long checkpoint = replica.checkpoint();
+        int leidos = 0;
+        List<UsuarioEventoDTO> eventos;
+        do {
+            eventos = usuarioClienteRemoto.obtenerEventos(checkpoint, tamano);
+            for (UsuarioEventoDTO evento : eventos) {
+                aplicarEvento(evento);
+                checkpoint = Math.max(checkpoint, evento.getPosicion());
+                ultimoEventoOutbox.accumulateAndGet(evento.getId(), Math::max);
+            }
+            if (!eventos.isEmpty()) {
+                replica.avanzarCheckpoint(checkpoint);
+                leidos += eventos.size();
+            }
+        } while (eventos.size() == tamano);
+        return leidos;
+    }
+
+    /**
+     * Como {@link #resolverDesdeReplica}, pero si la réplica falla devuelve todos los IDs
+     * para consultarlos a usuario-service.
+     */
+    private List<Long> resolverDesdeReplicaOTodos(List<Long> ids, Map<Long, UsuarioDTO> encontrados,
+            Set<Long> noEncontrados) {
+        try {
+            return resolverDesdeReplica(ids, encontrados, noEncontrados);
+        } catch (Exception e) {
+            log.error("Error al consultar la réplica de usuarios: {}", e.getMessage());
+            return ids;
+        }
+    }
+
+    /**
+     * Resuelve desde la réplica los IDs indicados: los usuarios vigentes van a
+     * {@code encontrados} (y a la cache) y los eliminados a {@code noEncontrados}.
+     *
+     * @return IDs que hay que consultar a usuario-service: los que la réplica no conoce,
+     *         o ninguno si usuarios.replica.respaldo-remoto=false (quedan como no encontrados).
+     */
+    private List<Long> resolverDesdeReplica(List<Long> ids, Map<Long, UsuarioDTO> encontrados,
+            Set<Long> noEncontrados) {
+        if (ids.isEmpty() || !replica.habilitada()) {
+            return ids;
+        }
+        Map<Long, UsuarioReplica> filas = replica.buscar(ids);
+        List<Long> desconocidos = new ArrayList<>();
+        for (Long id : ids) {
+            UsuarioReplica fila = filas.get(id);
+            if (fila == null) {
+                desconocidos.add(id);
+            } else if (fila.isEliminado()) {
+                usuariosNoEncontrados.put(id, Boolean.TRUE);
+                noEncontrados.add(id);
+            } else {
+                UsuarioDTO usuario = new UsuarioDTO(id, fila.getNombre(), fila.getEmail());
+                usuarios.put(id, usuario);
+                encontrados.put(id, usuario);
+            }
+        }
+        if (replica.respaldoRemoto()) {
+            return desconocidos;
+        }
+        noEncontrados.addAll(desconocidos);
+        return List.of();
+    }
+    /**
+     * Reparte los lotes entre como máximo {@code concurrencia} tareas que los van
+     * tomando de una cola, y espera hasta el plazo; las tareas que siguen corriendo
+     * al vencer se cancelan. Cada lote se resuelve aparte y se suma a los acumuladores
+     * solo si termina antes del plazo: al volver, los acumuladores quedan fijos aunque
+     * alguna tarea tardía siga corriendo (lo que resuelva igual queda en la cache).
+     */
+    private void resolverLotesConPlazo(List<List<Long>> lotes, Map<Long, UsuarioDTO> encontrados,
+            Set<Long> noEncontrados, Set<Long> conError) {
+        ConcurrentLinkedQueue<List<Long>> cola = new ConcurrentLinkedQueue<>(lotes);
+        CountDownLatch terminados = new CountDownLatch(lotes.size());
+        // Hace de cerrojo de los acumuladores y marca el vencimiento del plazo
+        AtomicBoolean vencido = new AtomicBoolean();
+        List<Future<?>> tareas = new ArrayList<>();
+        for (int i = 0; i < Math.min(Math.max(concurrencia, 1), lotes.size()); i++) {
+            tareas.add(enriquecimientoExecutor.submit(() -> {
+                List<Long> lote;
+                while (!Thread.currentThread().isInterrupted() && (lote = cola.poll()) != null) {
+                    try {
+                        Map<Long, UsuarioDTO> encontradosLote = new HashMap<>();
+                        Set<Long> noEncontradosLote = new HashSet<>();
+                        Set<Long> conErrorLote = new HashSet<>();
+                        resolverLote(lote, encontradosLote, noEncontradosLote, conErrorLote);
+                        synchronized (vencido) {
+                            if (!vencido.get()) {
+                                encontrados.putAll(encontradosLote);
+                                noEncontrados.addAll(noEncontradosLote);
+                                conError.addAll(conErrorLote);
+                            }
+                        }
+                    } finally {
+                        terminados.countDown();
+                    }
+                }
+            }));
+        }
+
+        boolean completos = false;
+        try {
+            completos = terminados.await(plazo.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            synchronized (vencido) {
+                vencido.set(true);
+            }
+        }
+        if (!completos) {
+            tareas.forEach(tarea -> tarea.cancel(true));
+        }
+    }
+
+    /**
+     * Consulta un lote de usuarios y guarda el resultado en la cache y en los
+     * acumuladores. Si la llamada falla, todo el lote queda con error.
+     */
+    private void resolverLote(List<Long> lote, Map<Long, UsuarioDTO> encontrados, Set<Long> noEncontrados,
+            Set<Long> conError) {
+        try {
+            if (usarBatch) {
+                Set<Long> sinRespuesta = new HashSet<>(lote);
+                for (UsuarioDTO usuario : usuarioClienteRemoto.obtenerUsuariosPorIds(lote)) {
+                    usuarios.put(usuario.getId(), usuario);
+                    encontrados.put(usuario.getId(), usuario);
+                    sinRespuesta.remove(usuario.getId());
+                }
+                for (Long id : sinRespuesta) {
+                    usuariosNoEncontrados.put(id, Boolean.TRUE);
+                    noEncontrados.add(id);
+                }
+            } else {
+                for (Long id : lote) {
+                    buscarUsuarioPorId(id).ifPresentOrElse(
+                            usuario -> encontrados.put(id, usuario),
+                            () -> noEncontrados.add(id));
+                }
+            }
+        } catch (Exception e) {
+            log.error("Error al obtener los usuarios {}: {}", lote, e.getMessage());
+            for (Long id : lote) {
+                if (!encontrados.containsKey(id) && !noEncontrados.contains(id)) {
+                    conError.add(id);
+                }
+            }
+        }
+    }
+
+    /**
+     * Resultado de {@link #resolverUsuarios(Collection)}.
+     *
+     * @param encontrados   usuarios encontrados por ID.
+     * @param noEncontrados IDs que usuario-service respondió como inexistentes.
+     * @param conError      IDs cuya consulta falló.
+     * @param pendientes    IDs que no se alcanzaron a resolver dentro del plazo.
+     */
+    public record Resolucion(Map<Long, UsuarioDTO> encontrados, Set<Long> noEncontrados, Set<Long> conError,
+            Set<Long> pendientes) {
+    }
+/*
     public List<UsuarioDTO> obtenerUsuarios() {
         ResponseEntity<UsuarioDTO[]> response = restTemplate.getForEntity(
-            "http://usuario-service/api/usuarios", 
+            "http://usuario-service/api/usuarios",
             UsuarioDTO[].class);
         UsuarioDTO[] usuarioDTOs = response.getBody();
         List<UsuarioDTO> usuarios = Arrays.asList(usuarioDTOs);
         return usuarios;
     }*/
-    
+
 }
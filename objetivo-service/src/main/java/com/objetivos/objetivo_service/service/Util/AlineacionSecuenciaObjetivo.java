@@ -0,0 +1,41 @@
+package com.objetivos.objetivo_service.service.Util;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Adelanta la secuencia objetivo_seq por encima del mayor objetivo_id existente.
+ * Las filas creadas antes con AUTO_INCREMENT no pasaron por la secuencia, y sin
+ * este ajuste los primeros IDs asignados chocarían con ellas.
+ * <p>
+ * Corre al terminar de crear los singletons (el esquema ya existe) y antes de que
+ * arranque el servidor web, así ningún insert puede adelantarse al ajuste.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AlineacionSecuenciaObjetivo implements SmartInitializingSingleton {
+
+    // Margen de dos bloques de allocationSize para cubrir el rango que reserva el optimizador pooled
+    private static final int MARGEN = 100;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        try {
+            int actualizadas = jdbcTemplate.update(
+                    "UPDATE objetivo_seq SET next_val = (SELECT COALESCE(MAX(objetivo_id), 0) + ? FROM objetivo)"
+                            + " WHERE next_val <= (SELECT COALESCE(MAX(objetivo_id), 0) + ? FROM objetivo)",
+                    MARGEN, MARGEN);
+            if (actualizadas > 0) {
+                log.info("Secuencia objetivo_seq alineada con el mayor objetivo_id existente");
+            }
+        } catch (Exception e) {
+            log.warn("No se pudo alinear la secuencia objetivo_seq: {}", e.getMessage());
+        }
+    }
+}
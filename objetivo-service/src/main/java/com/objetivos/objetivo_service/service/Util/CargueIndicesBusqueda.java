@@ -0,0 +1,38 @@
+package com.objetivos.objetivo_service.service.Util;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Crea el índice FULLTEXT sobre objetivo.titulo si no existe; Hibernate no
+ * puede declararlo con @Index. usuario-service tiene la misma clase para su propia tabla.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CargueIndicesBusqueda implements CommandLineRunner {
+
+    private static final String TABLA = "objetivo";
+    private static final String INDICE = "ft_objetivo_titulo";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(String... args) {
+        try {
+            Integer existe = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM information_schema.statistics"
+                            + " WHERE table_schema = DATABASE() AND table_name = ? AND index_name = ?",
+                    Integer.class, TABLA, INDICE);
+            if (existe == null || existe == 0) {
+                log.info("Creando indice {} sobre {}", INDICE, TABLA);
+                jdbcTemplate.execute("CREATE FULLTEXT INDEX " + INDICE + " ON " + TABLA + " (titulo)");
+            }
+        } catch (Exception e) {
+            log.warn("No se pudo crear el indice {}: {}", INDICE, e.getMessage());
+        }
+    }
+}
@@ -1,22 +1,73 @@
 package com.objetivos.objetivo_service.service.Util;
 
 import java.time.LocalDate;
+import java.time.Month;
+import java.time.Year;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class DateValidator {
 
+    public static final String FORMATO_ISO = "yyyy-MM-dd";
+
+    // Un formatter por patrón, creado una sola vez (son inmutables y thread-safe)
+    private static final Map<String, DateTimeFormatter> FORMATTERS = new ConcurrentHashMap<>();
+
     public static boolean isValidDate(String date, String pattern) {
         if (date == null || date.isEmpty()) {
             return false;
         }
+        if (FORMATO_ISO.equals(pattern)) {
+            return parseIsoDate(date) != null;
+        }
 
         try {
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern(pattern);
-            LocalDate.parse(date, formatter);
+            LocalDate.parse(date, formatter(pattern));
             return true;
         } catch (DateTimeParseException e) {
             return false;
         }
     }
-}
\ No newline at end of file
+
+    public static DateTimeFormatter formatter(String pattern) {
+        return FORMATTERS.computeIfAbsent(pattern, DateTimeFormatter::ofPattern);
+    }
+
+    /**
+     * Valida y parsea una fecha yyyy-MM-dd en una sola pasada, sin excepciones ni
+     * objetos intermedios.
+     *
+     * @param date fecha en formato yyyy-MM-dd.
+     * @return la fecha, o null si el texto no tiene el formato o la fecha no existe (p. ej. 2025-02-30).
+     */
+    public static LocalDate parseIsoDate(String date) {
+        if (date == null || date.length() != 10 || date.charAt(4) != '-' || date.charAt(7) != '-') {
+            return null;
+        }
+        int anio = digitos(date, 0, 4);
+        int mes = digitos(date, 5, 7);
+        int dia = digitos(date, 8, 10);
+        if (anio < 1 || mes < 1 || mes > 12 || dia < 1) {
+            return null;
+        }
+        if (dia > 28 && dia > Month.of(mes).length(Year.isLeap(anio))) {
+            return null;
+        }
+        return LocalDate.of(anio, mes, dia);
+    }
+
+    // Valor numérico de date[desde, hasta), o -1 si hay algún carácter que no es dígito
+    private static int digitos(String date, int desde, int hasta) {
+        int valor = 0;
+        for (int i = desde; i < hasta; i++) {
+            char c = date.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            valor = valor * 10 + (c - '0');
+        }
+        return valor;
+    }
+}
@@ -0,0 +1,56 @@
+package com.objetivos.objetivo_service.service.Util;
+
+/**
+ * Comparación de ETags contra las cabeceras condicionales If-None-Match e If-Match.
+ * <p>
+ * usuario-service tiene una copia igual salvo por el paquete: los servicios se despliegan por
+ * separado y no comparten un módulo común. Un cambio aquí se hace también en la otra copia.
+ */
+public final class Etags {
+
+    private Etags() {
+    }
+
+    /**
+     * Comparación débil, la que corresponde a If-None-Match: ignora el prefijo W/.
+     *
+     * @param cabecera valor de If-None-Match (una o varias etiquetas separadas por coma, o "*").
+     * @param etag     ETag actual del recurso, entre comillas; null si no tiene (solo coincide "*").
+     * @return true si alguna etiqueta coincide.
+     */
+    public static boolean coincideDebil(String cabecera, String etag) {
+        return coincide(cabecera, etag, true);
+    }
+
+    /**
+     * Comparación fuerte, la que corresponde a If-Match: una etiqueta débil nunca coincide.
+     */
+    public static boolean coincideFuerte(String cabecera, String etag) {
+        return coincide(cabecera, etag, false);
+    }
+
+    private static boolean coincide(String cabecera, String etag, boolean debil) {
+        if (cabecera == null) {
+            return false;
+        }
+        for (String candidato : cabecera.split(",")) {
+            String valor = candidato.trim();
+            if (valor.equals("*")) {
+                return true;
+            }
+            if (etag == null) {
+                continue;
+            }
+            if (valor.startsWith("W/")) {
+                if (!debil) {
+                    continue;
+                }
+                valor = valor.substring(2);
+            }
+            if (valor.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
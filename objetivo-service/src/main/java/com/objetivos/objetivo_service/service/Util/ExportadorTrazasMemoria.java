@@ -0,0 +1,67 @@
+package com.objetivos.objetivo_service.service.Util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+
+/**
+ * Exportador de trazas que guarda los últimos spans en memoria, para revisarlos en
+ * pruebas sin levantar un colector OTLP. Spring Boot lo agrega a los demás exportadores.
+ */
+@Component
+@ConditionalOnProperty(name = "trazas.memoria.enabled", havingValue = "true")
+public class ExportadorTrazasMemoria implements SpanExporter {
+
+    private final ConcurrentLinkedDeque<SpanData> spans = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger cantidad = new AtomicInteger();
+    private final int maxSpans;
+
+    public ExportadorTrazasMemoria(@Value("${trazas.memoria.max-spans:10000}") int maxSpans) {
+        this.maxSpans = maxSpans;
+    }
+
+    @Override
+    public CompletableResultCode export(Collection<SpanData> lote) {
+        for (SpanData span : lote) {
+            spans.addLast(span);
+            // Descarta los más viejos al pasar el máximo
+            if (cantidad.incrementAndGet() > maxSpans && spans.pollFirst() != null) {
+                cantidad.decrementAndGet();
+            }
+        }
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        return CompletableResultCode.ofSuccess();
+    }
+
+    public List<SpanData> getSpans() {
+        return new ArrayList<>(spans);
+    }
+
+    public List<SpanData> getSpans(String traceId) {
+        return spans.stream().filter(span -> span.getTraceId().equals(traceId)).toList();
+    }
+
+    public void reset() {
+        spans.clear();
+        cantidad.set(0);
+    }
+}
@@ -0,0 +1,63 @@
+package com.objetivos.objetivo_service.service.Util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Recorre un cuerpo NDJSON línea a línea, sin cargarlo entero en memoria. Las líneas
+ * en blanco se saltan. Una línea que no se puede leer como el tipo pedido hace que
+ * next() lance IllegalArgumentException, y la siguiente llamada sigue con la próxima
+ * línea; un error de lectura del cuerpo sale como UncheckedIOException.
+ */
+public class LectorNdjson<T> implements Iterator<T> {
+
+    private final BufferedReader lineas;
+    private final ObjectReader lector;
+    private String siguiente;
+    private int numeroLinea;
+
+    public LectorNdjson(BufferedReader lineas, ObjectReader lector) {
+        this.lineas = lineas;
+        this.lector = lector;
+    }
+
+    @Override
+    public boolean hasNext() {
+        try {
+            while (siguiente == null) {
+                String linea = lineas.readLine();
+                if (linea == null) {
+                    return false;
+                }
+                numeroLinea++;
+                if (!linea.isBlank()) {
+                    siguiente = linea;
+                }
+            }
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        String linea = siguiente;
+        siguiente = null;
+        try {
+            return lector.readValue(linea);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("JSON inválido en la línea " + numeroLinea + ": "
+                    + e.getOriginalMessage());
+        }
+    }
+}
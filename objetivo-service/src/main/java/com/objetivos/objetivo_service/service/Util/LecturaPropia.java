@@ -0,0 +1,106 @@
+package com.objetivos.objetivo_service.service.Util;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Ventana de lectura propia del ruteo a la réplica (perfil replica). Cada escritura deja al
+ * cliente una cookie con el instante en que vence la ventana; mientras no venza, sus lecturas
+ * van al primario y ve lo que escribió aunque la réplica venga atrasada.
+ * <p>
+ * La cookie la guarda el cliente, así que vale para cualquier instancia detrás del gateway,
+ * y el gateway no cachea las peticiones que traen cookies. La de usuario-service solo cambia el
+ * nombre de la cookie.
+ */
+@Component
+@Profile("replica")
+public class LecturaPropia extends OncePerRequestFilter {
+
+    static final String COOKIE = "objetivos-escritura";
+
+    private static final Set<String> ESCRITURAS = Set.of("POST", "PUT", "PATCH", "DELETE");
+    private static final ThreadLocal<Boolean> PRIMARIO = new ThreadLocal<>();
+
+    private final Duration ventana;
+
+    public LecturaPropia(@Value("${datasource.replica.lectura-propia:5s}") Duration ventana) {
+        this.ventana = ventana;
+    }
+
+    /**
+     * @return true si las lecturas del hilo actual tienen que ir al primario.
+     */
+    public static boolean primarioForzado() {
+        return Boolean.TRUE.equals(PRIMARIO.get());
+    }
+
+    /**
+     * Ejecuta la lectura mandando sus transacciones readOnly al primario.
+     */
+    public static <T> T enPrimario(Supplier<T> lectura) {
+        Boolean anterior = PRIMARIO.get();
+        PRIMARIO.set(Boolean.TRUE);
+        try {
+            return lectura.get();
+        } finally {
+            if (anterior == null) {
+                PRIMARIO.remove();
+            } else {
+                PRIMARIO.set(anterior);
+            }
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long ahora = System.currentTimeMillis();
+        boolean escritura = ESCRITURAS.contains(request.getMethod());
+        if (escritura) {
+            // Antes de la cadena: después la respuesta puede estar confirmada y ya no admite cabeceras
+            Cookie cookie = new Cookie(COOKIE, String.valueOf(ahora + ventana.toMillis()));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.max(ventana.toSeconds(), 1));
+            response.addCookie(cookie);
+        }
+        if (!escritura && !enVentana(request, ahora)) {
+            chain.doFilter(request, response);
+            return;
+        }
+        PRIMARIO.set(Boolean.TRUE);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            PRIMARIO.remove();
+        }
+    }
+
+    // Un vencimiento más allá de la ventana no lo pudo emitir el servicio: no se respeta
+    private boolean enVentana(HttpServletRequest request, long ahora) {
+        Cookie cookie = WebUtils.getCookie(request, COOKIE);
+        if (cookie == null) {
+            return false;
+        }
+        try {
+            long vence = Long.parseLong(cookie.getValue());
+            return vence > ahora && vence <= ahora + ventana.toMillis();
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
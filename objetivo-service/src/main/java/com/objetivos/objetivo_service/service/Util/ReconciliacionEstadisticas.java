@@ -0,0 +1,35 @@
+package com.objetivos.objetivo_service.service.Util;
+
+import com.objetivos.objetivo_service.service.EstadisticaService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reconcilia las estadísticas de objetivos al arrancar (llena la tabla la primera vez)
+ * y luego periódicamente. Es idempotente, así que puede correr en varias instancias.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ReconciliacionEstadisticas implements CommandLineRunner {
+
+    private final EstadisticaService estadisticaService;
+
+    @Override
+    public void run(String... args) {
+        reconciliar();
+    }
+
+    @Scheduled(cron = "${objetivos.estadisticas.reconciliacion.cron:0 */15 * * * *}")
+    public void reconciliar() {
+        try {
+            estadisticaService.reconciliar();
+        } catch (Exception e) {
+            log.warn("No se pudo reconciliar las estadísticas de objetivos: {}", e.getMessage());
+        }
+    }
+}
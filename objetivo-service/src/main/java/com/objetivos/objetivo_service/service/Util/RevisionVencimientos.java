@@ -0,0 +1,94 @@
+package com.objetivos.objetivo_service.service.Util;
+
+import com.objetivos.objetivo_service.service.VencimientoService;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Corre la revisión de objetivos vencidos una vez por día y, poco después de arrancar,
+ * una vez más para retomar una revisión que quedó a medias por un reinicio. El lease de
+ * VencimientoService hace que solo una instancia la ejecute.
+ * <p>
+ * La revisión corre en un hilo propio: con sus pausas entre lotes puede tardar minutos, y en
+ * el scheduler (un solo hilo por defecto) frenaría la sincronización de la réplica y la
+ * reconciliación de estadísticas. Si la anterior sigue en curso, la nueva se omite.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "objetivos.vencimientos.enabled", havingValue = "true", matchIfMissing = true)
+public class RevisionVencimientos implements CommandLineRunner {
+
+    private final VencimientoService vencimientoService;
+    private final TaskScheduler taskScheduler;
+    private final Duration retrasoInicial;
+    private final SimpleAsyncTaskExecutor executor;
+    private final AtomicBoolean enCurso = new AtomicBoolean(false);
+    private final AtomicReference<Thread> hilo = new AtomicReference<>();
+
+    public RevisionVencimientos(VencimientoService vencimientoService, TaskScheduler taskScheduler,
+            @Value("${objetivos.vencimientos.retraso-inicial:1m}") Duration retrasoInicial,
+            @Value("${spring.threads.virtual.enabled:false}") boolean hilosVirtuales) {
+        this.vencimientoService = vencimientoService;
+        this.taskScheduler = taskScheduler;
+        this.retrasoInicial = retrasoInicial;
+        this.executor = new SimpleAsyncTaskExecutor("vencimientos-");
+        this.executor.setVirtualThreads(hilosVirtuales);
+        this.executor.setDaemon(true);
+    }
+
+    // Fuera del arranque: la primera revisión puede recorrer todo el histórico
+    @Override
+    public void run(String... args) {
+        taskScheduler.schedule(this::revisar, Instant.now().plus(retrasoInicial));
+    }
+
+    @Scheduled(cron = "${objetivos.vencimientos.cron:0 30 0 * * *}")
+    public void revisar() {
+        if (!enCurso.compareAndSet(false, true)) {
+            log.info("Revisión de vencimientos omitida: la anterior sigue en curso");
+            return;
+        }
+        try {
+            executor.execute(this::ejecutar);
+        } catch (TaskRejectedException e) {
+            enCurso.set(false);
+            log.warn("No se pudo iniciar la revisión de vencimientos: {}", e.getMessage());
+        }
+    }
+
+    // Al apagar se interrumpe la revisión: corta en la próxima pausa y sigue desde el checkpoint
+    @PreDestroy
+    public void detener() {
+        Thread actual = hilo.get();
+        if (actual != null) {
+            actual.interrupt();
+        }
+    }
+
+    private void ejecutar() {
+        hilo.set(Thread.currentThread());
+        try {
+            vencimientoService.revisar(LocalDate.now());
+        } catch (Exception e) {
+            log.warn("No se pudo completar la revisión de vencimientos: {}", e.getMessage());
+        } finally {
+            hilo.set(null);
+            enCurso.set(false);
+        }
+    }
+}
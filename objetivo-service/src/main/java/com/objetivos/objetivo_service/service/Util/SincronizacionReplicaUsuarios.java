@@ -0,0 +1,40 @@
+package com.objetivos.objetivo_service.service.Util;
+
+import com.objetivos.objetivo_service.service.UsuarioService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Pone al día la réplica de usuarios al arrancar (reproduce el outbox de usuario-service
+ * desde el checkpoint) y luego cada cierto tiempo, para recuperar los eventos que no
+ * llegaron por POST /api/objetivos/usuarios/eventos.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SincronizacionReplicaUsuarios implements CommandLineRunner {
+
+    private final UsuarioService usuarioService;
+
+    @Override
+    public void run(String... args) {
+        sincronizar();
+    }
+
+    @Scheduled(fixedDelayString = "${usuarios.replica.sincronizacion.intervalo:30s}",
+            initialDelayString = "${usuarios.replica.sincronizacion.intervalo:30s}")
+    public void sincronizar() {
+        try {
+            int leidos = usuarioService.sincronizarReplica();
+            if (leidos > 0) {
+                log.info("Réplica de usuarios sincronizada: {} eventos leídos del outbox", leidos);
+            }
+        } catch (Exception e) {
+            log.warn("No se pudo sincronizar la réplica de usuarios: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.objetivos.objetivo_service.service;
+
+import com.objetivos.objetivo_service.model.entity.Checkpoint;
+import com.objetivos.objetivo_service.repository.ICheckpointRepository;
+import com.objetivos.objetivo_service.repository.IObjetivoRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Revisión de objetivos vencidos: marca una vez (vencimiento_notificado) cada objetivo
+ * pendiente cuya fecha límite ya pasó.
+ * <p>
+ * Recorre solo los pendientes vencidos por el índice (completado, fecha_limite), en lotes
+ * con cursor (fecha_limite, objetivo_id) y una pausa entre lotes para acotar la carga sobre
+ * la base. El checkpoint guarda el último día ya revisado completo: al reiniciar se retoma
+ * desde el día siguiente, y el UPDATE solo marca lo que no estaba marcado, así que repetir
+ * parte de un día no notifica dos veces. Un lease en la base hace que corra en una sola
+ * instancia.
+ * <p>
+ * Los objetivos cuya fecha ya quedó detrás del checkpoint cuando pasan a estar pendientes
+ * (se crean con fecha pasada o se reabren) no se vuelven a revisar.
+ */
+@Slf4j
+@Service
+public class VencimientoService {
+
+    static final String PROCESO = "vencimientos";
+
+    // Mínimo de DATE en MySQL: sin checkpoint se revisa desde el principio
+    private static final LocalDate FECHA_INICIAL = LocalDate.of(1000, 1, 1);
+
+    private final IObjetivoRepository objetivoRepository;
+    private final ICheckpointRepository checkpointRepository;
+    private final LeaseProcesos leaseProcesos;
+    private final TransactionTemplate transactionTemplate;
+    private final int tamanoLote;
+    private final Duration pausa;
+    private final Duration duracionLease;
+
+    private final Counter revisados;
+    private final Counter notificados;
+    private final Counter omitidas;
+    private final Timer duracion;
+    private final DistributionSummary filasPorSegundo;
+
+    public VencimientoService(IObjetivoRepository objetivoRepository, ICheckpointRepository checkpointRepository,
+            LeaseProcesos leaseProcesos, TransactionTemplate transactionTemplate, MeterRegistry meterRegistry,
+            @Value("${objetivos.vencimientos.tamano-lote:500}") int tamanoLote,
+            @Value("${objetivos.vencimientos.pausa:200ms}") Duration pausa,
+            @Value("${objetivos.vencimientos.lease:5m}") Duration duracionLease) {
+        this.objetivoRepository = objetivoRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.leaseProcesos = leaseProcesos;
+        this.transactionTemplate = transactionTemplate;
+        this.tamanoLote = Math.max(tamanoLote, 1);
+        this.pausa = pausa;
+        this.duracionLease = duracionLease;
+        this.revisados = Counter.builder("objetivos.vencimientos.revisados")
+                .description("Objetivos pendientes vencidos recorridos por la revisión")
+                .register(meterRegistry);
+        this.notificados = Counter.builder("objetivos.vencimientos.notificados")
+                .description("Objetivos marcados como vencidos")
+                .register(meterRegistry);
+        this.omitidas = Counter.builder("objetivos.vencimientos.omitidas")
+                .description("Revisiones que no corrieron porque otra instancia tenía el lease")
+                .register(meterRegistry);
+        this.duracion = Timer.builder("objetivos.vencimientos.ejecucion")
+                .description("Duración de cada revisión de vencimientos")
+                .register(meterRegistry);
+        this.filasPorSegundo = DistributionSummary.builder("objetivos.vencimientos.rendimiento")
+                .description("Objetivos recorridos por segundo en cada revisión")
+                .baseUnit("objetivos/s")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Revisa los pendientes con fecha límite anterior a hoy desde el checkpoint.
+     *
+     * @param hoy fecha de corte (exclusiva).
+     * @return resultado de la revisión; no ejecutada si otra instancia tiene el lease.
+     */
+    public Resultado revisar(LocalDate hoy) {
+        if (!leaseProcesos.tomar(PROCESO, duracionLease)) {
+            omitidas.increment();
+            log.debug("Revisión de vencimientos omitida: otra instancia tiene el lease");
+            return new Resultado(false, 0, 0, 0, Duration.ZERO);
+        }
+        long inicio = System.nanoTime();
+        long totalRevisados = 0;
+        long totalNotificados = 0;
+        int lotes = 0;
+        boolean completa = false;
+        try {
+            LocalDate fecha = desde();
+            long id = 0;
+            while (true) {
+                List<IObjetivoRepository.Vencimiento> lote = objetivoRepository.findVencidosDesde(fecha, id, hoy,
+                        tamanoLote);
+                if (lote.isEmpty()) {
+                    completa = true;
+                    break;
+                }
+                IObjetivoRepository.Vencimiento ultimo = lote.get(lote.size() - 1);
+                List<Long> ids = lote.stream().map(IObjetivoRepository.Vencimiento::getId).toList();
+                Integer marcados = transactionTemplate.execute(status -> {
+                    int n = objetivoRepository.marcarVencimientoNotificado(ids, hoy);
+                    // Los días anteriores al último objetivo del lote ya quedaron revisados completos
+                    checkpointRepository.avanzar(PROCESO, ultimo.getFechaLimite().minusDays(1).toEpochDay());
+                    return n;
+                });
+                lotes++;
+                totalRevisados += lote.size();
+                totalNotificados += marcados == null ? 0 : marcados;
+                revisados.increment(lote.size());
+                notificados.increment(marcados == null ? 0 : marcados);
+
+                if (lote.size() < tamanoLote) {
+                    completa = true;
+                    break;
+                }
+                fecha = ultimo.getFechaLimite();
+                id = ultimo.getId();
+                if (!leaseProcesos.tomar(PROCESO, duracionLease) || !esperar()) {
+                    log.warn("Revisión de vencimientos interrumpida tras {} lotes; sigue desde el checkpoint", lotes);
+                    break;
+                }
+            }
+            if (completa) {
+                transactionTemplate.executeWithoutResult(
+                        status -> checkpointRepository.avanzar(PROCESO, hoy.minusDays(1).toEpochDay()));
+            }
+        } finally {
+            leaseProcesos.liberar(PROCESO);
+        }
+
+        Duration transcurrido = Duration.ofNanos(System.nanoTime() - inicio);
+        duracion.record(transcurrido);
+        if (totalRevisados > 0) {
+            filasPorSegundo.record(totalRevisados * 1000.0 / Math.max(transcurrido.toMillis(), 1));
+        }
+        log.info("Revisión de vencimientos: {} objetivos revisados, {} marcados como vencidos, {} lotes en {} ms",
+                totalRevisados, totalNotificados, lotes, transcurrido.toMillis());
+        return new Resultado(true, totalRevisados, totalNotificados, lotes, transcurrido);
+    }
+
+    /* Metodos privados */
+
+    private LocalDate desde() {
+        return checkpointRepository.findById(PROCESO)
+                .map(Checkpoint::getPosicion)
+                .map(dia -> LocalDate.ofEpochDay(dia).plusDays(1))
+                .orElse(FECHA_INICIAL);
+    }
+
+    // Pausa entre lotes; false si el hilo fue interrumpido (apagado de la aplicación)
+    private boolean esperar() {
+        if (pausa.isZero() || pausa.isNegative()) {
+            return true;
+        }
+        try {
+            Thread.sleep(pausa);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * @param ejecutada   false si otra instancia tenía el lease.
+     * @param revisados   pendientes vencidos recorridos.
+     * @param notificados objetivos marcados en esta revisión.
+     */
+    public record Resultado(boolean ejecutada, long revisados, long notificados, int lotes, Duration duracion) {
+    }
+}
@@ -0,0 +1,22 @@
+package com.objetivos.objetivo_service;
+
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.testcontainers.containers.MySQLContainer;
+
+/**
+ * MySQL en un contenedor para las pruebas de repositorio: las consultas nativas usan sintaxis
+ * de MySQL (upserts con alias, UPDATE de varias tablas, GREATEST). Las clases que lo importan
+ * comparten el contenedor mientras compartan el contexto de Spring.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+public class MySqlPruebas {
+
+	@Bean
+	@ServiceConnection
+	MySQLContainer<?> mysql() {
+		// Mismo parámetro que spring.datasource.url: @ServiceConnection reemplaza la URL completa
+		return new MySQLContainer<>("mysql:8.0").withUrlParam("useAffectedRows", "true");
+	}
+}
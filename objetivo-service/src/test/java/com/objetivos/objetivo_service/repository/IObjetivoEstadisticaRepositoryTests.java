@@ -0,0 +1,140 @@
+package com.objetivos.objetivo_service.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.objetivos.objetivo_service.MySqlPruebas;
+import com.objetivos.objetivo_service.model.entity.Objetivo;
+import com.objetivos.objetivo_service.model.entity.ObjetivoEstadistica;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(MySqlPruebas.class)
+@Testcontainers(disabledWithoutDocker = true)
+class IObjetivoEstadisticaRepositoryTests {
+
+	private static final LocalDate HOY = LocalDate.of(2025, 6, 15);
+
+	@Autowired
+	private IObjetivoEstadisticaRepository estadisticaRepository;
+
+	@Autowired
+	private IObjetivoRepository objetivoRepository;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Test
+	void sumarCreaLaFilaYAcumulaLosDeltas() {
+		estadisticaRepository.sumar(1L, 2, 1, 1);
+		estadisticaRepository.sumar(1L, 1, 0, 1);
+		estadisticaRepository.sumar(1L, -1, -1, 0);
+
+		assertContadores(leer(1L), 2, 0, 2);
+	}
+
+	@Test
+	void vencidosNoBajaDeCero() {
+		estadisticaRepository.sumar(1L, 1, 0, 0);
+		// Completar un objetivo que venció después de la última reconciliación (no estaba contado)
+		estadisticaRepository.sumar(1L, 0, 1, -1);
+		assertContadores(leer(1L), 1, 1, 0);
+
+		// Sin fila previa tampoco se crea con vencidos negativos
+		estadisticaRepository.sumar(2L, 0, 1, -1);
+		assertContadores(leer(2L), 0, 1, 0);
+	}
+
+	@Test
+	void cambiarCompletadoConEstadisticasNoDejaVencidosNegativos() {
+		Objetivo vencido = guardar(1L, false, HOY.minusDays(1));
+		estadisticaRepository.sumar(1L, 1, 0, 0);
+
+		assertTrue(objetivoRepository.cambiarCompletadoConEstadisticas(vencido.getId(), true, 1, HOY) > 0);
+		assertContadores(leer(1L), 1, 1, 0);
+
+		// Volver a pendiente lo cuenta como vencido
+		assertTrue(objetivoRepository.cambiarCompletadoConEstadisticas(vencido.getId(), false, -1, HOY) > 0);
+		assertContadores(leer(1L), 1, 0, 1);
+	}
+
+	@Test
+	void restarObjetivoNoDejaVencidosNegativos() {
+		Objetivo vencido = guardar(1L, false, HOY.minusDays(1));
+		guardar(1L, true, HOY.minusDays(1));
+		estadisticaRepository.sumar(1L, 2, 1, 0);
+
+		assertEquals(2, estadisticaRepository.restarObjetivo(vencido.getId(), HOY));
+		assertContadores(leer(1L), 1, 1, 0);
+	}
+
+	@Test
+	void findUsuariosConObjetivosRecorreLosUsuariosDistintosEnOrden() {
+		guardar(5L, false, HOY);
+		guardar(2L, false, HOY);
+		guardar(2L, true, HOY);
+		guardar(9L, false, HOY);
+
+		assertEquals(List.of(2L, 5L), estadisticaRepository.findUsuariosConObjetivos(0, 2));
+		assertEquals(List.of(9L), estadisticaRepository.findUsuariosConObjetivos(5, 2));
+		assertEquals(List.of(), estadisticaRepository.findUsuariosConObjetivos(9, 2));
+	}
+
+	@Test
+	void reconciliarRecalculaSoloElRango() {
+		guardar(1L, false, HOY.minusDays(1));
+		guardar(1L, true, HOY.minusDays(1));
+		guardar(1L, false, HOY.plusDays(1));
+		guardar(2L, false, HOY.minusDays(3));
+		estadisticaRepository.sumar(1L, 99, 99, 99);
+		estadisticaRepository.sumar(2L, 99, 99, 99);
+		estadisticaRepository.sumar(3L, 5, 0, 0);
+
+		estadisticaRepository.reconciliar(HOY, 0, 1);
+		assertContadores(leer(1L), 3, 1, 1);
+		assertContadores(leer(2L), 99, 99, 99);
+
+		estadisticaRepository.reconciliar(HOY, 1, Long.MAX_VALUE);
+		assertContadores(leer(2L), 1, 0, 1);
+
+		// El usuario 3 no tiene objetivos: solo lo borra el rango que lo contiene
+		assertEquals(0, estadisticaRepository.eliminarSinObjetivos(0, 2));
+		assertEquals(1, estadisticaRepository.eliminarSinObjetivos(2, Long.MAX_VALUE));
+		entityManager.clear();
+		assertTrue(estadisticaRepository.findById(3L).isEmpty());
+	}
+
+	private Objetivo guardar(Long usuarioId, boolean completado, LocalDate fechaLimite) {
+		return entityManager.persistFlushFind(Objetivo.builder()
+				.titulo("OBJETIVO")
+				.descripcion("DESCRIPCION")
+				.fechaLimite(fechaLimite)
+				.completado(completado)
+				.usuarioId(usuarioId)
+				.build());
+	}
+
+	private ObjetivoEstadistica leer(Long usuarioId) {
+		// Las sentencias nativas no pasan por el contexto de persistencia
+		entityManager.clear();
+		return estadisticaRepository.findById(usuarioId).orElseThrow();
+	}
+
+	private static void assertContadores(ObjetivoEstadistica estadistica, long total, long completados,
+			long vencidos) {
+		assertEquals(total, estadistica.getTotal(), "total");
+		assertEquals(completados, estadistica.getCompletados(), "completados");
+		assertEquals(vencidos, estadistica.getVencidos(), "vencidos");
+	}
+}
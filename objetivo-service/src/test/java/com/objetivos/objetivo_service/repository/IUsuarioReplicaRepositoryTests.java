@@ -0,0 +1,88 @@
+package com.objetivos.objetivo_service.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.objetivos.objetivo_service.MySqlPruebas;
+import com.objetivos.objetivo_service.model.entity.UsuarioReplica;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(MySqlPruebas.class)
+@Testcontainers(disabledWithoutDocker = true)
+class IUsuarioReplicaRepositoryTests {
+
+	@Autowired
+	private IUsuarioReplicaRepository replicaRepository;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Test
+	void aplicarCreaYActualizaLaFila() {
+		assertEquals(1, replicaRepository.aplicar(1L, "ANA", "ana@correo.com", false, 10));
+		assertFila(leer(1L), "ANA", "ana@correo.com", false, 10);
+
+		assertTrue(replicaRepository.aplicar(1L, "ANA", "ana@otro.com", false, 11) > 0);
+		assertFila(leer(1L), "ANA", "ana@otro.com", false, 11);
+	}
+
+	@Test
+	void eventoRepetidoNoCambiaNada() {
+		replicaRepository.aplicar(1L, "ANA", "ana@correo.com", false, 10);
+
+		assertEquals(0, replicaRepository.aplicar(1L, "ANA", "ana@correo.com", false, 10));
+		assertFila(leer(1L), "ANA", "ana@correo.com", false, 10);
+	}
+
+	@Test
+	void eventoAnteriorAlUltimoAplicadoSeIgnora() {
+		replicaRepository.aplicar(1L, "ANA", "ana@nuevo.com", false, 20);
+
+		assertEquals(0, replicaRepository.aplicar(1L, "ANA", "ana@viejo.com", false, 15));
+		assertFila(leer(1L), "ANA", "ana@nuevo.com", false, 20);
+	}
+
+	@Test
+	void eliminadoMarcaLaFilaYUnAltaAtrasadaNoLaRevive() {
+		replicaRepository.aplicar(1L, "ANA", "ana@correo.com", false, 10);
+		assertTrue(replicaRepository.aplicar(1L, null, null, true, 12) > 0);
+		assertFila(leer(1L), null, null, true, 12);
+
+		assertEquals(0, replicaRepository.aplicar(1L, "ANA", "ana@correo.com", false, 11));
+		assertFila(leer(1L), null, null, true, 12);
+	}
+
+	@Test
+	void eliminadoQueLlegaAntesQueElAltaDejaLaFilaEliminada() {
+		replicaRepository.aplicar(2L, null, null, true, 8);
+		assertEquals(0, replicaRepository.aplicar(2L, "LUIS", "luis@correo.com", false, 5));
+
+		UsuarioReplica fila = leer(2L);
+		assertTrue(fila.isEliminado());
+		assertFalse("LUIS".equals(fila.getNombre()));
+	}
+
+	private UsuarioReplica leer(Long usuarioId) {
+		// Las sentencias nativas no pasan por el contexto de persistencia
+		entityManager.clear();
+		return replicaRepository.findById(usuarioId).orElseThrow();
+	}
+
+	private static void assertFila(UsuarioReplica fila, String nombre, String email, boolean eliminado,
+			long ultimoEvento) {
+		assertEquals(nombre, fila.getNombre(), "nombre");
+		assertEquals(email, fila.getEmail(), "email");
+		assertEquals(eliminado, fila.isEliminado(), "eliminado");
+		assertEquals(ultimoEvento, fila.getUltimoEvento(), "ultimo_evento");
+	}
+}
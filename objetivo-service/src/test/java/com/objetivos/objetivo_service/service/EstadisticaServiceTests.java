@@ -0,0 +1,152 @@
+package com.objetivos.objetivo_service.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import com.objetivos.objetivo_service.model.entity.Objetivo;
+import com.objetivos.objetivo_service.repository.IObjetivoEstadisticaRepository;
+import com.objetivos.objetivo_service.repository.IObjetivoRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class EstadisticaServiceTests {
+
+	private static final LocalDate PASADO = LocalDate.of(2000, 1, 1);
+	private static final LocalDate FUTURO = LocalDate.of(2999, 1, 1);
+
+	private IObjetivoEstadisticaRepository estadisticaRepository;
+	private PlatformTransactionManager transactionManager;
+	private EstadisticaService service;
+
+	@BeforeEach
+	void setUp() {
+		estadisticaRepository = mock(IObjetivoEstadisticaRepository.class);
+		transactionManager = mock(PlatformTransactionManager.class);
+		when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+		service = new EstadisticaService(estadisticaRepository, transactionManager, new SimpleMeterRegistry(), 2);
+	}
+
+	@Test
+	void registrarAltasSumaUnaVezPorUsuario() {
+		service.registrarAltas(List.of(
+				objetivo(1L, false, PASADO),
+				objetivo(1L, true, PASADO),
+				objetivo(1L, false, FUTURO),
+				objetivo(2L, false, FUTURO)));
+
+		verify(estadisticaRepository).sumar(1L, 3, 1, 1);
+		verify(estadisticaRepository).sumar(2L, 1, 0, 0);
+	}
+
+	@Test
+	void registrarCambioEstadoAjustaCompletadosYVencidos() {
+		service.registrarCambioEstado(objetivo(1L, true, PASADO), false);
+		service.registrarCambioEstado(objetivo(2L, false, PASADO), true);
+		service.registrarCambioEstado(objetivo(3L, true, FUTURO), false);
+
+		verify(estadisticaRepository).sumar(1L, 0, 1, -1);
+		verify(estadisticaRepository).sumar(2L, 0, -1, 1);
+		verify(estadisticaRepository).sumar(3L, 0, 1, 0);
+	}
+
+	@Test
+	void registrarCambioEstadoSinCambioNoEscribe() {
+		service.registrarCambioEstado(objetivo(1L, true, PASADO), true);
+
+		verify(estadisticaRepository, never()).sumar(any(), anyLong(), anyLong(), anyLong());
+	}
+
+	@Test
+	void registrarCambiosEstadoYBajasUsanLosConteosPorUsuario() {
+		List<IObjetivoRepository.ResumenUsuario> resumen = List.of(resumen(1L, 4, 1, 1, 2));
+
+		service.registrarCambiosEstado(resumen, true);
+		verify(estadisticaRepository).sumar(1L, 0, 4, -2);
+
+		service.registrarCambiosEstado(resumen, false);
+		verify(estadisticaRepository).sumar(1L, 0, -4, 2);
+
+		service.registrarBajas(resumen);
+		verify(estadisticaRepository).sumar(1L, -4, -1, -1);
+	}
+
+	@Test
+	void reconciliarRecorreRangosDeUsuariosEnTransaccionesReadCommitted() {
+		when(estadisticaRepository.findUsuariosConObjetivos(0, 2)).thenReturn(List.of(3L, 7L));
+		when(estadisticaRepository.findUsuariosConObjetivos(7, 2)).thenReturn(List.of(9L));
+		when(estadisticaRepository.reconciliar(any(), anyLong(), anyLong())).thenReturn(2, 1);
+		when(estadisticaRepository.eliminarSinObjetivos(anyLong(), anyLong())).thenReturn(0, 1);
+
+		assertEquals(4, service.reconciliar());
+
+		InOrder orden = inOrder(estadisticaRepository);
+		orden.verify(estadisticaRepository).bloquearRango(0, 7);
+		orden.verify(estadisticaRepository).reconciliar(any(), anyLong(), anyLong());
+		orden.verify(estadisticaRepository).eliminarSinObjetivos(0, 7);
+		orden.verify(estadisticaRepository).bloquearRango(7, Long.MAX_VALUE);
+		orden.verify(estadisticaRepository).reconciliar(any(), anyLong(), anyLong());
+		orden.verify(estadisticaRepository).eliminarSinObjetivos(7, Long.MAX_VALUE);
+
+		ArgumentCaptor<TransactionDefinition> definiciones = ArgumentCaptor.forClass(TransactionDefinition.class);
+		verify(transactionManager, times(2)).getTransaction(definiciones.capture());
+		definiciones.getAllValues().forEach(definicion -> assertEquals(
+				TransactionDefinition.ISOLATION_READ_COMMITTED, definicion.getIsolationLevel()));
+		verify(transactionManager, times(2)).commit(any());
+	}
+
+	private static Objetivo objetivo(Long usuarioId, boolean completado, LocalDate fechaLimite) {
+		return Objetivo.builder()
+				.usuarioId(usuarioId)
+				.completado(completado)
+				.fechaLimite(fechaLimite)
+				.build();
+	}
+
+	private static IObjetivoRepository.ResumenUsuario resumen(long usuarioId, long total, long completados,
+			long vencidos, long conFechaVencida) {
+		return new IObjetivoRepository.ResumenUsuario() {
+			@Override
+			public long getUsuarioId() {
+				return usuarioId;
+			}
+
+			@Override
+			public long getTotal() {
+				return total;
+			}
+
+			@Override
+			public long getCompletados() {
+				return completados;
+			}
+
+			@Override
+			public long getVencidos() {
+				return vencidos;
+			}
+
+			@Override
+			public long getConFechaVencida() {
+				return conFechaVencida;
+			}
+		};
+	}
+}
@@ -0,0 +1,128 @@
+package com.objetivos.objetivo_service.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.objetivos.objetivo_service.model.dto.UsuarioDTO;
+import com.objetivos.objetivo_service.model.dto.UsuarioEventoDTO;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class UsuarioServiceTests {
+
+	private UsuarioClienteRemoto usuarioClienteRemoto;
+	private ReplicaUsuarios replica;
+	private UsuarioService service;
+
+	@BeforeEach
+	void setUp() {
+		usuarioClienteRemoto = mock(UsuarioClienteRemoto.class);
+		replica = mock(ReplicaUsuarios.class);
+		when(replica.habilitada()).thenReturn(true);
+		when(replica.respaldoRemoto()).thenReturn(true);
+		when(replica.aplicar(any())).thenReturn(true);
+		service = new UsuarioService(usuarioClienteRemoto, replica, new SimpleMeterRegistry(),
+				Duration.ofMinutes(10), Duration.ofSeconds(30), 100, false);
+	}
+
+	@Test
+	void eventoConIdPosteriorAlOutboxSeDescarta() {
+		when(usuarioClienteRemoto.obtenerUltimoEvento()).thenReturn(10L);
+		UsuarioEventoDTO real = evento(9L, 1L, "CREADO");
+		UsuarioEventoDTO falso = evento(1_000_000L, 1L, UsuarioEventoDTO.ELIMINADO);
+
+		assertEquals(1, service.aplicarEventosRecibidos(List.of(real, falso)));
+
+		verify(replica).aplicar(real);
+		verify(replica, never()).aplicar(falso);
+	}
+
+	@Test
+	void laCotaConocidaNoSeVuelveAConsultar() {
+		when(usuarioClienteRemoto.obtenerUltimoEvento()).thenReturn(10L);
+
+		service.aplicarEventosRecibidos(List.of(evento(8L, 1L, "CREADO")));
+		service.aplicarEventosRecibidos(List.of(evento(9L, 2L, "CREADO"), evento(10L, 3L, "CREADO")));
+
+		verify(usuarioClienteRemoto, times(1)).obtenerUltimoEvento();
+		verify(replica, times(3)).aplicar(any());
+	}
+
+	@Test
+	void sinCotaRemotaLosEventosNuevosQuedanParaLaSincronizacion() {
+		when(usuarioClienteRemoto.obtenerUltimoEvento()).thenThrow(new IllegalStateException("sin conexión"));
+
+		assertEquals(0, service.aplicarEventosRecibidos(List.of(evento(5L, 1L, "CREADO"))));
+
+		verify(replica, never()).aplicar(any());
+	}
+
+	@Test
+	void eventoSinIdOSinUsuarioSeDescarta() {
+		when(usuarioClienteRemoto.obtenerUltimoEvento()).thenReturn(10L);
+
+		assertEquals(0, service.aplicarEventosRecibidos(List.of(evento(null, 1L, "CREADO"),
+				evento(3L, null, "CREADO"))));
+
+		verify(replica, never()).aplicar(any());
+	}
+
+	@Test
+	void sincronizarReplicaAvanzaElCheckpointPorPosicion() {
+		ReflectionTestUtils.setField(service, "tamanoLoteEventos", 10);
+		when(replica.checkpoint()).thenReturn(4L);
+		// El evento con id 7 confirmó después que el 9: su posición es mayor
+		when(usuarioClienteRemoto.obtenerEventos(4L, 10)).thenReturn(List.of(
+				evento(9L, 5L, 1L, "CREADO"),
+				evento(7L, 6L, 2L, "CREADO")));
+
+		assertEquals(2, service.sincronizarReplica());
+
+		verify(replica).avanzarCheckpoint(6L);
+		// Los ids leídos del outbox amplían la cota sin consultarla
+		service.aplicarEventosRecibidos(List.of(evento(9L, 5L, 1L, "ACTUALIZADO")));
+		verify(usuarioClienteRemoto, never()).obtenerUltimoEvento();
+	}
+
+	@Test
+	void buscarUsuarioPorIdConsultaUsuarioServiceSiLaReplicaFalla() {
+		when(replica.buscar(anyCollection())).thenThrow(new IllegalStateException("réplica caída"));
+		UsuarioDTO usuario = new UsuarioDTO(1L, "ANA", "ana@correo.com");
+		when(usuarioClienteRemoto.obtenerUsuarioPorId(1L)).thenReturn(usuario);
+
+		Optional<UsuarioDTO> encontrado = service.buscarUsuarioPorId(1L);
+
+		assertTrue(encontrado.isPresent());
+		assertEquals("ANA", encontrado.get().getNombre());
+	}
+
+	private static UsuarioEventoDTO evento(Long id, Long usuarioId, String tipo) {
+		return evento(id, id, usuarioId, tipo);
+	}
+
+	private static UsuarioEventoDTO evento(Long id, Long posicion, Long usuarioId, String tipo) {
+		return UsuarioEventoDTO.builder()
+				.id(id)
+				.posicion(posicion)
+				.tipo(tipo)
+				.usuarioId(usuarioId)
+				.nombre("ANA")
+				.email("ana@correo.com")
+				.build();
+	}
+}
@@ -0,0 +1,89 @@
+package com.objetivos.objetivo_service.service.Util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import jakarta.servlet.http.Cookie;
+
+class LecturaPropiaTests {
+
+	private static final Duration VENTANA = Duration.ofSeconds(5);
+
+	private final LecturaPropia filtro = new LecturaPropia(VENTANA);
+
+	@Test
+	void escrituraVaAlPrimarioYDejaLaCookieConElVencimiento() throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		long antes = System.currentTimeMillis();
+
+		assertTrue(filtrar(new MockHttpServletRequest("PUT", "/api/objetivos/1"), response));
+
+		Cookie cookie = response.getCookie(LecturaPropia.COOKIE);
+		assertNotNull(cookie);
+		long vence = Long.parseLong(cookie.getValue());
+		assertTrue(vence >= antes + VENTANA.toMillis() && vence <= System.currentTimeMillis() + VENTANA.toMillis());
+		assertEquals(5, cookie.getMaxAge());
+	}
+
+	@Test
+	void lecturaSinCookieVaALaReplica() throws Exception {
+		assertFalse(filtrar(get(null), new MockHttpServletResponse()));
+	}
+
+	@Test
+	void lecturaDentroDeLaVentanaVaAlPrimario() throws Exception {
+		String vence = String.valueOf(System.currentTimeMillis() + 2_000);
+
+		assertTrue(filtrar(get(vence), new MockHttpServletResponse()));
+	}
+
+	@Test
+	void cookieVencidaNoCuenta() throws Exception {
+		String vence = String.valueOf(System.currentTimeMillis() - 1);
+
+		assertFalse(filtrar(get(vence), new MockHttpServletResponse()));
+	}
+
+	@Test
+	void vencimientoMasAllaDeLaVentanaSeIgnora() throws Exception {
+		String vence = String.valueOf(System.currentTimeMillis() + Duration.ofHours(1).toMillis());
+
+		assertFalse(filtrar(get(vence), new MockHttpServletResponse()));
+	}
+
+	@Test
+	void cookieMalFormadaSeIgnora() throws Exception {
+		assertFalse(filtrar(get("mañana"), new MockHttpServletResponse()));
+	}
+
+	@Test
+	void laMarcaNoQuedaEnElHiloDespuesDeLaPeticion() throws Exception {
+		filtrar(new MockHttpServletRequest("POST", "/api/objetivos"), new MockHttpServletResponse());
+
+		assertFalse(LecturaPropia.primarioForzado());
+	}
+
+	private static MockHttpServletRequest get(String vence) {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/objetivos");
+		if (vence != null) {
+			request.setCookies(new Cookie(LecturaPropia.COOKIE, vence));
+		}
+		return request;
+	}
+
+	// Devuelve si la cadena corrió con las lecturas forzadas al primario
+	private boolean filtrar(MockHttpServletRequest request, MockHttpServletResponse response) throws Exception {
+		AtomicBoolean primario = new AtomicBoolean();
+		filtro.doFilter(request, response, (req, res) -> primario.set(LecturaPropia.primarioForzado()));
+		return primario.get();
+	}
+}
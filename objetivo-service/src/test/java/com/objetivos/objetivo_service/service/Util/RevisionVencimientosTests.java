@@ -0,0 +1,43 @@
+package com.objetivos.objetivo_service.service.Util;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.TaskScheduler;
+
+import com.objetivos.objetivo_service.service.VencimientoService;
+
+class RevisionVencimientosTests {
+
+	@Test
+	void laRevisionNoOcupaElHiloDelSchedulerYNoSeSuperpone() throws Exception {
+		VencimientoService vencimientoService = mock(VencimientoService.class);
+		CountDownLatch iniciada = new CountDownLatch(1);
+		CountDownLatch terminar = new CountDownLatch(1);
+		when(vencimientoService.revisar(any())).thenAnswer(invocacion -> {
+			iniciada.countDown();
+			terminar.await(10, TimeUnit.SECONDS);
+			return new VencimientoService.Resultado(true, 0, 0, 0, Duration.ZERO);
+		});
+		RevisionVencimientos revision = new RevisionVencimientos(vencimientoService, mock(TaskScheduler.class),
+				Duration.ofMinutes(1), false);
+
+		// Vuelve enseguida aunque la revisión siga en curso
+		revision.revisar();
+		assertTrue(iniciada.await(5, TimeUnit.SECONDS));
+		// La segunda se omite sin lanzar otra ejecución
+		revision.revisar();
+		terminar.countDown();
+
+		verify(vencimientoService, times(1)).revisar(any());
+	}
+}
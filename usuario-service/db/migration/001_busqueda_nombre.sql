@@ -0,0 +1,7 @@
+-- Búsqueda de usuarios por nombre sin funciones sobre la columna indexada.
+-- Con ddl-auto=update Hibernate agrega la columna y el índice B-tree; el FULLTEXT
+-- lo crea CargueIndicesBusqueda al arrancar. Este script es para esquemas administrados a mano.
+ALTER TABLE usuario
+    ADD COLUMN nombre_normalizado varchar(255) GENERATED ALWAYS AS (upper(nombre)) STORED;
+CREATE INDEX idx_usuario_nombre_normalizado ON usuario (nombre_normalizado);
+CREATE FULLTEXT INDEX ft_usuario_nombre ON usuario (nombre);
@@ -3,11 +3,23 @@ package com.objetivos.usuario_service;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.task.support.ContextPropagatingTaskDecorator;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableDiscoveryClient
+@EnableAsync
+@EnableScheduling
 public class UsuarioServiceApplication {
 
+	// Los métodos @Async siguen la traza de la petición que los origina
+	@Bean
+	public ContextPropagatingTaskDecorator contextPropagatingTaskDecorator() {
+		return new ContextPropagatingTaskDecorator();
+	}
+
 	public static void main(String[] args) {
 		SpringApplication.run(UsuarioServiceApplication.class, args);
 	}
@@ -1,5 +1,6 @@
 package com.objetivos.usuario_service.controller;
 
+import com.objetivos.usuario_service.model.dto.UsuarioEventoResponse;
 import com.objetivos.usuario_service.model.dto.UsuarioRequest;
 import com.objetivos.usuario_service.model.dto.UsuarioResponse;
 import com.objetivos.usuario_service.model.dto.UsuarioResponseError;
@@ -7,14 +8,20 @@ import com.objetivos.usuario_service.model.dto.UsuarioResponseMessage;
 import com.objetivos.usuario_service.model.entity.Usuario;
 import com.objetivos.usuario_service.service.UsuarioService;
 import com.objetivos.usuario_service.service.util.ErrorMessage;
+import com.objetivos.usuario_service.service.util.Etags;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/usuarios")
@@ -29,14 +36,57 @@ public class UsuarioController {
     }
 
     /**
-     * Obtiene la lista de todos los usuarios.
+     * Obtiene la lista de todos los usuarios (JSON ya serializado, desde la cache). Si
+     * If-None-Match coincide con el ETag de la colección responde 304 sin leer los usuarios.
+     * El 200 lleva el ETag con el que se armó el snapshot, que puede ir detrás del actual.
      *
+     * @param ifNoneMatch ETag de la última lista que tiene el cliente.
      * @return lista de usuarios.
      */
     @GetMapping
-    public ResponseEntity<List<UsuarioResponse>> listarUsuarios() {
-        List<UsuarioResponse> usuarios = usuarioService.getAllUsuarios();
-        return ResponseEntity.ok(usuarios);
+    public ResponseEntity<byte[]> listarUsuarios(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = usuarioService.etagUsuarios();
+        if (Etags.coincideDebil(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        UsuarioService.ListaSerializada lista = usuarioService.getAllUsuariosSerializado();
+        return ResponseEntity.ok().eTag(lista.etag()).contentType(MediaType.APPLICATION_JSON).body(lista.json());
+    }
+
+    /**
+     * Lee los eventos de usuario (alta, cambio, baja) a partir de un cursor.
+     *
+     * @param after posición del último evento ya leído; sin valor para empezar desde el principio.
+     * @param limit cantidad máxima de eventos.
+     * @return eventos en orden de posición.
+     */
+    @GetMapping("/eventos")
+    public ResponseEntity<List<UsuarioEventoResponse>> listarEventos(@RequestParam(required = false) Long after,
+                                                                     @RequestParam(defaultValue = "500") int limit) {
+        return ResponseEntity.ok(usuarioService.findEventos(after, limit));
+    }
+
+    /**
+     * Id del último evento de usuario registrado; objetivo-service lo usa como cota de los
+     * eventos que acepta por POST.
+     *
+     * @return el id, o 0 si todavía no hay eventos.
+     */
+    @GetMapping("/eventos/ultimo")
+    public ResponseEntity<Long> ultimoEvento() {
+        return ResponseEntity.ok(usuarioService.ultimoEvento());
+    }
+
+    /**
+     * Obtiene varios usuarios por sus IDs en una sola llamada.
+     *
+     * @param ids identificadores de los usuarios (ids=1,2,3).
+     * @return lista de los usuarios encontrados; los IDs inexistentes se omiten.
+     */
+    @GetMapping("/batch")
+    public ResponseEntity<List<UsuarioResponse>> obtenerUsuariosPorIds(@RequestParam("ids") Set<Long> ids) {
+        return ResponseEntity.ok(usuarioService.findAllByIds(ids));
     }
 
     /**
@@ -58,16 +108,23 @@ public class UsuarioController {
     }
 
     /**
-     * Obtiene un usuario por su ID.
+     * Obtiene un usuario por su ID. El cuerpo y el ETag salen de la cache de usuarios
+     * serializados; solo un fallo de cache consulta la base.
      *
      * @param id identificador del usuario.
-     * @return el usuario encontrado o un mensaje de error.
+     * @param ifNoneMatch ETag del usuario que tiene el cliente.
+     * @return el usuario encontrado, 304 si no cambió, o un mensaje de error.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Object> obtenerUsuario(@PathVariable Long id) {
+    public ResponseEntity<Object> obtenerUsuario(@PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
-            UsuarioResponse usuario = usuarioService.findById(id);
-            return ResponseEntity.ok(usuario);
+            UsuarioService.UsuarioSerializado usuario = usuarioService.findById(id);
+            String etag = usuario.etag();
+            if (Etags.coincideDebil(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+            return ResponseEntity.ok().eTag(etag).contentType(MediaType.APPLICATION_JSON).body(usuario.json());
         } catch (ErrorMessage ex) {
             // Devolver mensaje de error junto con el código HTTP 404
             UsuarioResponseError error = new UsuarioResponseError(ex.getMessage());
@@ -79,18 +136,25 @@ public class UsuarioController {
      * Busca usuarios por su nombre.
      *
      * @param nombre nombre del usuario.
+     * @param modo   exacto, prefijo o contiene.
+     * @param limit  cantidad máxima de resultados para prefijo y contiene.
      * @return lista de usuarios encontrados o un mensaje de error.
      */
     @GetMapping("/nombre/{nombre}")
-    public ResponseEntity<Object> obtenerUsuariosPorNombre(@PathVariable String nombre) {
+    public ResponseEntity<Object> obtenerUsuariosPorNombre(@PathVariable String nombre,
+                                                           @RequestParam(defaultValue = "exacto") String modo,
+                                                           @RequestParam(defaultValue = "50") int limit) {
         try {
-            String nombreNormalizer = nombre.toUpperCase();
-            List<UsuarioResponse> usuarios = usuarioService.findByName(nombreNormalizer);
+            String nombreNormalizer = nombre.toUpperCase(Locale.ROOT);
+            List<UsuarioResponse> usuarios = usuarioService.findByName(nombreNormalizer, modo, limit);
             return ResponseEntity.ok(usuarios);
         } catch (ErrorMessage ex) {
             // Devolver mensaje de error con código HTTP 404 si no se encuentran usuarios
             UsuarioResponseError error = new UsuarioResponseError(ex.getMessage());
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+        } catch (IllegalArgumentException ex) {
+            UsuarioResponseError error = new UsuarioResponseError(ex.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
         }
     }
 
@@ -108,11 +172,16 @@ public class UsuarioController {
         } catch (ErrorMessage ex) {
             UsuarioResponseError error = new UsuarioResponseError(ex.getMessage());
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+        } catch (OptimisticLockingFailureException ex) {
+            // Otra petición actualizó el usuario entre la lectura y la escritura (@Version)
+            UsuarioResponseError error = new UsuarioResponseError(
+                    "El usuario " + id + " fue modificado por otra petición");
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
         }
     }
 
     /**
-     * Elimina un usuario por su ID.
+     * Elimina un usuario por su ID. El 404 sale del conteo de filas borradas, sin leerlo antes.
      *
      * @param id identificador del usuario a eliminar.
      * @return una respuesta vacía con el estado correspondiente o el mensaje de
@@ -121,12 +190,6 @@ public class UsuarioController {
     @DeleteMapping("/{id}")
     public ResponseEntity<Object> eliminarUsuario(@PathVariable Long id) {
         try {
-            var usuario = usuarioService.findById(id);
-
-            if (usuario == null) {
-                String mensaje = "No se encuentra usuario para eliminar";
-                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new UsuarioResponseError(mensaje));
-            }
             return ResponseEntity.ok(new UsuarioResponseMessage(usuarioService.deleteUsuario(id)));
         } catch (ErrorMessage ex) {
             UsuarioResponseError error = new UsuarioResponseError(ex.getMessage());
@@ -0,0 +1,28 @@
+package com.objetivos.usuario_service.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class UsuarioEventoResponse {
+
+    // Id del evento en el outbox: ordena los eventos de un mismo usuario
+    private Long id;
+
+    // Orden de publicación sin huecos; los consumidores guardan la última leída como cursor
+    private Long posicion;
+
+    // CREADO, ACTUALIZADO o ELIMINADO
+    private String tipo;
+    private Long usuarioId;
+    private String nombre;
+    private String email;
+    private LocalDateTime fecha;
+}
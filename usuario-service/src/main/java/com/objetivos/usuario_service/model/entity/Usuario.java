@@ -1,27 +1,48 @@
 package com.objetivos.usuario_service.model.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
-@Table(name = "Usuario")
+// Cache de segundo nivel, región usuarios (hibernate-cache.conf). El DELETE de eliminarPorId la vacía
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "usuarios")
+@Table(name = "Usuario", indexes = {
+        // Búsqueda exacta y por prefijo sobre el nombre normalizado
+        @Index(name = "idx_usuario_nombre_normalizado", columnList = "nombre_normalizado")
+})
 public class Usuario {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "usuario_id")
     private Long id;
     private String nombre;
+
+    // Columna generada por MySQL; permite buscar por nombre sin aplicar funciones sobre la columna indexada
+    @JsonIgnore
+    @Column(name = "nombre_normalizado", insertable = false, updatable = false,
+            columnDefinition = "varchar(255) GENERATED ALWAYS AS (upper(nombre)) STORED")
+    private String nombreNormalizado;
+
     private String apellido;
     private String email;
     private String telefono;
 
+    // Versión para el bloqueo optimista y el ETag; el default cubre las filas anteriores a la columna
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint not null default 0")
+    private Long version;
+
     @Override
     public String toString() {
         return String.format("%s %s - %s - %s", nombre, apellido, email, telefono);
@@ -0,0 +1,54 @@
+package com.objetivos.usuario_service.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Outbox de eventos de usuario: se escribe en la misma transacción que el cambio
+ * del usuario y permite a objetivo-service ponerse al día (GET /api/usuarios/eventos).
+ * <p>
+ * El id (IDENTITY) se toma al insertar, no al confirmar: una transacción lenta puede
+ * confirmar un id menor que otro ya visible. Por eso los consumidores no siguen el id
+ * sino la posición, que el relay asigna en orden de confirmación (ver RelayEventosUsuario).
+ */
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Table(name = "usuario_evento", indexes = {
+        @Index(name = "idx_usuario_evento_fecha", columnList = "fecha"),
+        // Lectura por posición y eventos sin posición en orden de id (el índice incluye la clave primaria)
+        @Index(name = "idx_usuario_evento_posicion", columnList = "posicion", unique = true)
+})
+public class UsuarioEvento {
+
+    public enum Tipo {
+        CREADO, ACTUALIZADO, ELIMINADO
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Tipo tipo;
+
+    @Column(name = "usuario_id", nullable = false)
+    private Long usuarioId;
+
+    private String nombre;
+    private String email;
+
+    @Column(nullable = false)
+    private LocalDateTime fecha;
+
+    // Orden de publicación, sin huecos; null hasta que el relay lo asigna
+    private Long posicion;
+}
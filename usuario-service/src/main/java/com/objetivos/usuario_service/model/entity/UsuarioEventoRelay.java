@@ -0,0 +1,37 @@
+package com.objetivos.usuario_service.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Estado del relay del outbox: última posición asignada y última publicada. La fila se
+ * bloquea mientras se asignan posiciones o se publica un lote, así solo una instancia de
+ * usuario-service lo hace a la vez y los eventos salen en orden.
+ */
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Table(name = "usuario_evento_relay")
+public class UsuarioEventoRelay {
+
+    @Id
+    @Column(length = 50)
+    private String nombre;
+
+    // Posición del último evento publicado
+    @Column(name = "ultimo_publicado", nullable = false)
+    private long ultimoPublicado;
+
+    // Última posición asignada; el default cubre la fila anterior a la columna
+    @Column(name = "ultima_posicion", nullable = false, columnDefinition = "bigint not null default 0")
+    private long ultimaPosicion;
+
+    private LocalDateTime actualizado;
+}
@@ -0,0 +1,29 @@
+package com.objetivos.usuario_service.repository;
+
+import com.objetivos.usuario_service.model.entity.UsuarioEventoRelay;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface IUsuarioEventoRelayRepository extends JpaRepository<UsuarioEventoRelay, String> {
+
+    // Crea la fila del relay la primera vez; si ya existe no hace nada
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "usuario_evento_relay"))
+    @Query(value = "INSERT IGNORE INTO usuario_evento_relay (nombre, ultimo_publicado) VALUES (:nombre, 0)",
+            nativeQuery = true)
+    void crearSiNoExiste(String nombre);
+
+    // SELECT ... FOR UPDATE sobre la fila del relay: serializa las instancias que publican
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<UsuarioEventoRelay> findConBloqueoByNombre(String nombre);
+}
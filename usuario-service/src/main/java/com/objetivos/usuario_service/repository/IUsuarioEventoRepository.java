@@ -0,0 +1,52 @@
+package com.objetivos.usuario_service.repository;
+
+import com.objetivos.usuario_service.model.entity.UsuarioEvento;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface IUsuarioEventoRepository extends JpaRepository<UsuarioEvento, Long> {
+
+    // Lectura del outbox por cursor sobre la posición: las posiciones se confirman en orden, sin huecos
+    List<UsuarioEvento> findByPosicionGreaterThanOrderByPosicionAsc(Long posicion, Limit limit);
+
+    // Eventos confirmados que todavía no tienen posición, en orden de id
+    List<UsuarioEvento> findByPosicionIsNullOrderByIdAsc(Limit limit);
+
+    long countByPosicionGreaterThan(Long posicion);
+
+    long countByPosicionIsNull();
+
+    // Último evento registrado, con o sin posición: cota de los ids que puede haber publicado el relay
+    Optional<UsuarioEvento> findFirstByOrderByIdDesc();
+
+    // Eventos pendientes más antiguos (con posición sin publicar y sin posición), para medir el retraso del relay
+    Optional<UsuarioEvento> findFirstByPosicionGreaterThanOrderByPosicionAsc(Long posicion);
+
+    Optional<UsuarioEvento> findFirstByPosicionIsNullOrderByIdAsc();
+
+    // Posición de los eventos anteriores a la columna: su id, que era el cursor de los consumidores
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "usuario_evento"))
+    @Query(value = "UPDATE usuario_evento SET posicion = id WHERE posicion IS NULL AND id <= :hasta",
+            nativeQuery = true)
+    int asignarPosicionPorId(long hasta);
+
+    // Retención: borra por lotes los eventos ya publicados y más viejos que el límite
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "usuario_evento"))
+    @Query(value = "DELETE FROM usuario_evento WHERE posicion <= :publicado AND fecha < :limite"
+            + " ORDER BY posicion LIMIT :lote",
+            nativeQuery = true)
+    int purgar(long publicado, LocalDateTime limite, int lote);
+}
@@ -1,15 +1,54 @@
 package com.objetivos.usuario_service.repository;
 
 import com.objetivos.usuario_service.model.entity.Usuario;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface IUsuarioRepository extends JpaRepository<Usuario, Long> {
-    @Query("SELECT t FROM Usuario t where upper(t.nombre) = upper(:nombre) ")
-    List<Usuario> findByName(String nombre);
+    // El nombre llega normalizado en mayúsculas y se compara contra la columna generada indexada.
+    // Resultado en la cache de consultas (región usuarios-por-nombre)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "usuarios-por-nombre")
+    })
+    @Query("SELECT t FROM Usuario t where t.nombreNormalizado = :nombre ORDER BY t.id")
+    List<Usuario> findByName(String nombre, Limit limit);
+
+    // IGNORE: las filas de la lista completa no se guardan en la cache de segundo nivel, que
+    // desalojarían entera
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE"))
+    List<Usuario> findAll();
+
+    // Para actualizar: lee de la base, no de la cache de segundo nivel (otra instancia pudo
+    // cambiar el usuario), y deja la versión leída en la cache
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "REFRESH"))
+    @Query("SELECT t FROM Usuario t WHERE t.id = :id")
+    Optional<Usuario> findParaActualizar(Long id);
+
+    @Query("SELECT t FROM Usuario t WHERE t.nombreNormalizado LIKE CONCAT(:prefijo, '%') ESCAPE '!'"
+            + " ORDER BY t.nombreNormalizado, t.id")
+    List<Usuario> findByNamePrefijo(String prefijo, Limit limit);
+
+    // Búsqueda por palabras con el índice FULLTEXT ft_usuario_nombre, ordenada por relevancia
+    @Query(value = "SELECT * FROM usuario WHERE MATCH(nombre) AGAINST (:texto IN NATURAL LANGUAGE MODE)"
+            + " ORDER BY MATCH(nombre) AGAINST (:texto IN NATURAL LANGUAGE MODE) DESC LIMIT :limite",
+            nativeQuery = true)
+    List<Usuario> findByNameTexto(String texto, int limite);
+
+    // Borrado en una sola sentencia; devuelve 0 si el usuario no existe
+    @Modifying
+    @Query("DELETE FROM Usuario t WHERE t.id = :id")
+    int eliminarPorId(Long id);
 }
 
@@ -1,25 +1,114 @@
 package com.objetivos.usuario_service.service;
 
+import com.objetivos.usuario_service.model.dto.UsuarioEventoResponse;
 import com.objetivos.usuario_service.model.dto.UsuarioRequest;
 import com.objetivos.usuario_service.model.dto.UsuarioResponse;
 import com.objetivos.usuario_service.model.entity.Usuario;
+import com.objetivos.usuario_service.model.entity.UsuarioEvento;
+import com.objetivos.usuario_service.model.entity.UsuarioEventoRelay;
+import com.objetivos.usuario_service.repository.IUsuarioEventoRelayRepository;
+import com.objetivos.usuario_service.repository.IUsuarioEventoRepository;
 import com.objetivos.usuario_service.repository.IUsuarioRepository;
 import com.objetivos.usuario_service.service.util.ErrorMessage;
+import com.objetivos.usuario_service.service.util.LecturaPropia;
+import com.objetivos.usuario_service.service.util.RelayEventosUsuario;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 public class UsuarioService {
 
+    private static final int LIMITE_MAXIMO_BUSQUEDA = 500;
+
     private final IUsuarioRepository usuarioRepository;
+    private final IUsuarioEventoRepository usuarioEventoRepository;
+    private final IUsuarioEventoRelayRepository usuarioEventoRelayRepository;
+
+    // Cache de lectura de usuarios ya serializados a JSON, con su versión para el ETag, y
+    // snapshot serializado de la lista completa por generación, con el ETag con el que se
+    // leyó. Las escrituras invalidan después del commit; las demás instancias se ponen al día
+    // cuando vence el TTL
+    private final ObjectMapper objectMapper;
+    private final AsyncCache<Long, UsuarioSerializado> usuariosSerializados;
+    private final AsyncCache<Long, ListaSerializada> listasSerializadas;
+    private final AtomicLong generacionLista = new AtomicLong();
+    private final Counter cargasCompartidas;
+
+    // Las cargas de la cache leen en una transacción readOnly (réplica con el perfil replica).
+    // Durante la ventana de lectura propia después de una escritura de esta instancia leen del
+    // primario, para no dejar en cache por todo el TTL lo que la réplica todavía no tiene
+    private final TransactionTemplate lecturas;
+    private final Duration lecturaPropia;
+    private volatile long ultimaEscritura;
+
+    @PersistenceContext
+    private EntityManager entityManager;
 
     // Constructor para inyección de dependencias
-    public UsuarioService(IUsuarioRepository usuarioRepository) {
+    public UsuarioService(IUsuarioRepository usuarioRepository,
+                          IUsuarioEventoRepository usuarioEventoRepository,
+                          IUsuarioEventoRelayRepository usuarioEventoRelayRepository,
+                          ObjectMapper objectMapper,
+                          MeterRegistry meterRegistry,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${usuarios.cache.ttl:30s}") Duration ttlCache,
+                          @Value("${usuarios.cache.max-entradas:10000}") long maxEntradasCache,
+                          @Value("${datasource.replica.lectura-propia:5s}") Duration lecturaPropia) {
         this.usuarioRepository = usuarioRepository;
+        this.usuarioEventoRepository = usuarioEventoRepository;
+        this.usuarioEventoRelayRepository = usuarioEventoRelayRepository;
+        this.objectMapper = objectMapper;
+        this.lecturas = new TransactionTemplate(transactionManager);
+        this.lecturas.setReadOnly(true);
+        this.lecturaPropia = lecturaPropia;
+        this.usuariosSerializados = Caffeine.newBuilder()
+                .expireAfterWrite(ttlCache)
+                .maximumSize(maxEntradasCache)
+                .recordStats()
+                .buildAsync();
+        // Solo sirve la generación actual; la anterior queda hasta que la desaloja el tamaño
+        this.listasSerializadas = Caffeine.newBuilder()
+                .expireAfterWrite(ttlCache)
+                .maximumSize(2)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, usuariosSerializados, "usuarios-serializados");
+        CaffeineCacheMetrics.monitor(meterRegistry, listasSerializadas, "usuarios-lista");
+        this.cargasCompartidas = Counter.builder("usuarios.cache.cargas.compartidas")
+                .description("Lecturas que esperaron la carga en curso de otra petición en lugar de ir a la base")
+                .register(meterRegistry);
     }
 
     /**
@@ -27,36 +116,126 @@ public class UsuarioService {
      *
      * @return lista de usuarios.
      */
+    @Transactional(readOnly = true)
     public List<UsuarioResponse> getAllUsuarios() {
         var usuarios = usuarioRepository.findAll();
         return usuarios.stream().map(this::mapToUsuarioResponse).toList();
     }
 
     /**
-     * Busca un usuario por su ID.
+     * Lista completa de usuarios ya serializada a JSON, desde el snapshot de la generación
+     * actual. Las peticiones que llegan mientras se arma el snapshot esperan esa misma carga.
+     * <p>
+     * El snapshot guarda el ETag leído en la misma transacción, antes que los usuarios: el
+     * cuerpo nunca es más viejo que su ETag, aunque el snapshot tenga hasta un TTL y el ETag
+     * actual ya haya avanzado por escrituras de otra instancia.
+     *
+     * @return JSON de la lista de usuarios y su ETag.
+     */
+    public ListaSerializada getAllUsuariosSerializado() {
+        if (LecturaPropia.primarioForzado()) {
+            return cargarListaSerializada();
+        }
+        return leerOCargar(listasSerializadas, generacionLista.get(), generacion -> cargarListaSerializada());
+    }
+
+    /**
+     * ETag de la colección completa (GET /api/usuarios): la última posición que el relay
+     * asignó en el outbox. Cambia con cada alta, cambio o baja, también con las que confirman
+     * tarde con un id menor, y no retrocede con la retención.
+     * <p>
+     * Una posición se asigna después de que confirma el cambio, así que el ETag va hasta un
+     * intervalo del relay por detrás del cuerpo, nunca por delante: un cambio reciente cuesta
+     * a lo sumo una descarga de más, no un 304 desactualizado.
+     *
+     * @return el ETag entre comillas.
+     */
+    @Transactional(readOnly = true)
+    public String etagUsuarios() {
+        return etagLista();
+    }
+
+    /**
+     * Id del último evento del outbox (GET /api/usuarios/eventos/ultimo). Ningún evento
+     * publicado tiene un id mayor: los consumidores descartan los que lo superan.
+     *
+     * @return el id del último evento, o 0 si el outbox está vacío.
+     */
+    @Transactional(readOnly = true)
+    public long ultimoEvento() {
+        return usuarioEventoRepository.findFirstByOrderByIdDesc().map(UsuarioEvento::getId).orElse(0L);
+    }
+
+    /**
+     * Busca un usuario por su ID pasando por la cache de respuestas serializadas. Las
+     * lecturas concurrentes del mismo ID que no están en cache comparten una sola consulta.
      *
      * @param id identificador del usuario.
-     * @return usuario encontrado.
+     * @return JSON del usuario y su versión (para el ETag).
      * @throws ErrorMessage si no se encuentra el usuario.
      */
-    public UsuarioResponse findById(Long id) {
-        var usuario = usuarioRepository.findById(id).orElse(null);
+    public UsuarioSerializado findById(Long id) {
+        // En la ventana de lectura propia se lee de la base: la escritura pudo pasar por otra instancia
+        UsuarioSerializado usuario = LecturaPropia.primarioForzado()
+                ? cargarUsuarioSerializado(id)
+                : leerOCargar(usuariosSerializados, id, this::cargarUsuarioSerializado);
         if (usuario == null) {
             log.error("Usuario no encontrado con el ID {}", id);
             throw new ErrorMessage("Usuario no encontrado con el ID: " + id);
         }
-        return mapToUsuarioResponse(usuario);
+        return usuario;
+    }
+
+    /**
+     * Busca varios usuarios por sus IDs en una sola consulta.
+     * Los IDs que no existen simplemente no aparecen en la respuesta.
+     *
+     * @param ids identificadores de los usuarios.
+     * @return lista de usuarios encontrados.
+     */
+    @Transactional(readOnly = true)
+    public List<UsuarioResponse> findAllByIds(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+        return usuarioRepository.findAllById(ids).stream()
+                .map(this::mapToUsuarioResponse)
+                .toList();
     }
 
     /**
      * Busca usuarios por su nombre.
      *
-     * @param nombre nombre del usuario.
+     * @param nombre nombre del usuario, normalizado en mayúsculas.
      * @return lista de usuarios encontrados.
      * @throws ErrorMessage si no se encuentran usuarios.
      */
+    @Transactional(readOnly = true)
     public List<UsuarioResponse> findByName(String nombre) {
-        List<Usuario> usuarios = usuarioRepository.findByName(nombre);
+        return findByName(nombre, "exacto", LIMITE_MAXIMO_BUSQUEDA);
+    }
+
+    /**
+     * Busca usuarios por su nombre con distintos modos de búsqueda.
+     *
+     * @param nombre nombre (o parte del nombre) a buscar, normalizado en mayúsculas.
+     * @param modo   "exacto", "prefijo" (nombres que empiezan con el texto) o
+     *               "contiene" (búsqueda por palabras, ordenada por relevancia).
+     * @param limit  cantidad máxima de resultados en cualquier modo (máximo 500).
+     * @return lista de usuarios encontrados.
+     * @throws ErrorMessage si no se encuentran usuarios.
+     * @throws IllegalArgumentException si el modo no es válido.
+     */
+    @Transactional(readOnly = true)
+    public List<UsuarioResponse> findByName(String nombre, String modo, int limit) {
+        int tamano = Math.min(Math.max(limit, 1), LIMITE_MAXIMO_BUSQUEDA);
+        omitirCacheEnLecturaPropia();
+        List<Usuario> usuarios = switch (modo.toLowerCase(Locale.ROOT)) {
+            case "exacto" -> usuarioRepository.findByName(nombre, Limit.of(tamano));
+            case "prefijo" -> usuarioRepository.findByNamePrefijo(escaparLike(nombre), Limit.of(tamano));
+            case "contiene" -> usuarioRepository.findByNameTexto(nombre, tamano);
+            default -> throw new IllegalArgumentException("Modo de búsqueda no válido: " + modo);
+        };
         if (usuarios.isEmpty()) {
             log.error("No se encuentran usuarios con nombre {}", nombre);
             throw new ErrorMessage("No se encuentran usuarios con nombre: " + nombre);
@@ -73,6 +252,7 @@ public class UsuarioService {
      * @param usuarioRequest datos del usuario a crear.
      * @return el usuario creado.
      */
+    @Transactional
     public Usuario createUsuario(UsuarioRequest usuarioRequest) {
         try {
 
@@ -87,6 +267,8 @@ public class UsuarioService {
 
             usuarioRepository.save(usuario);
             log.info("Usuario agregado con éxito: {}", usuario);
+            registrarEvento(UsuarioEvento.Tipo.CREADO, usuario);
+            invalidarCache(usuario.getId());
             return usuario;
 
         }catch (IllegalArgumentException e) {
@@ -104,9 +286,10 @@ public class UsuarioService {
      * @param usuario entidad del usuario con los datos actualizados.
      * @return usuario actualizado.
      */
+    @Transactional
     public Usuario updateUsuario(Long id, UsuarioRequest usuarioRequest) {
 
-        Usuario objectUsuario = usuarioRepository.findById(id).orElse(null);
+        Usuario objectUsuario = usuarioRepository.findParaActualizar(id).orElse(null);
 
         if (objectUsuario == null) {
             log.error("No se puede actualizar, no se encuentra usuario con ID: {}", id);
@@ -115,28 +298,204 @@ public class UsuarioService {
 
         objectUsuario.setTelefono(usuarioRequest.getTelefono());
         objectUsuario.setEmail(usuarioRequest.getEmail());
+        Usuario usuarioActualizado = usuarioRepository.save(objectUsuario);
         log.info("Usuario con ID {} actualizado exitosamente", id);
-        return usuarioRepository.save(objectUsuario);
+        registrarEvento(UsuarioEvento.Tipo.ACTUALIZADO, usuarioActualizado);
+        invalidarCache(id);
+        return usuarioActualizado;
 
     }
 
     /**
-     * Elimina un usuario por su ID.
+     * Elimina un usuario por su ID sin leerlo: el conteo del DELETE indica si existía.
      *
      * @param id identificador del usuario a eliminar.
      * @throws ErrorMessage si el usuario no existe.
      */
+    @Transactional
     public String deleteUsuario(Long id) {
-        if (!usuarioRepository.existsById(id)) {
+        if (usuarioRepository.eliminarPorId(id) == 0) {
             log.error("No se puede eliminar, el usuario no existe con el ID:{}", id);
             throw new ErrorMessage("No se puede eliminar, el usuario no existe con el ID: " + id);
         }
-        usuarioRepository.deleteById(id);
         log.info("Usuario con ID {} eliminado exitosamente", id);
+        // El evento de baja solo necesita el ID: los consumidores marcan al usuario como eliminado
+        registrarEvento(UsuarioEvento.Tipo.ELIMINADO, id, null, null);
+        invalidarCache(id);
 
         return String.format("Usuario %s eliminado exitosamente", id);
     }
 
+    /**
+     * Lee el outbox de eventos de usuario a partir de un cursor, para que los
+     * consumidores se pongan al día. Solo aparecen los eventos a los que el relay ya
+     * asignó posición; como se asignan en orden, un cursor nunca salta un evento.
+     *
+     * @param after posición del último evento leído por el consumidor; null para empezar.
+     * @param limit cantidad máxima de eventos (máximo 500).
+     * @return eventos en orden de posición.
+     */
+    @Transactional(readOnly = true)
+    public List<UsuarioEventoResponse> findEventos(Long after, int limit) {
+        int tamano = Math.min(Math.max(limit, 1), LIMITE_MAXIMO_BUSQUEDA);
+        return usuarioEventoRepository.findByPosicionGreaterThanOrderByPosicionAsc(after == null ? 0L : after,
+                        Limit.of(tamano))
+                .stream()
+                .map(this::mapToUsuarioEventoResponse)
+                .toList();
+    }
+
+    /**
+     * Guarda el evento en el outbox dentro de la transacción del cambio; lo publica
+     * después el relay (ver RelayEventosUsuario).
+     */
+    private void registrarEvento(UsuarioEvento.Tipo tipo, Usuario usuario) {
+        registrarEvento(tipo, usuario.getId(), usuario.getNombre(), usuario.getEmail());
+    }
+
+    private void registrarEvento(UsuarioEvento.Tipo tipo, Long usuarioId, String nombre, String email) {
+        usuarioEventoRepository.save(UsuarioEvento.builder()
+                .tipo(tipo)
+                .usuarioId(usuarioId)
+                .nombre(nombre)
+                .email(email)
+                .fecha(LocalDateTime.now())
+                .build());
+    }
+
+    /**
+     * Saca al usuario de la cache y pasa la lista a una generación nueva cuando confirma la
+     * transacción actual. Invalidar antes del commit dejaría que una lectura concurrente
+     * vuelva a cargar los datos viejos.
+     */
+    private void invalidarCache(Long id) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidar(id);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidar(id);
+            }
+        });
+    }
+
+    private void invalidar(Long id) {
+        // Si hay una carga en curso de ese ID, se quita igual: su resultado no queda en cache
+        ultimaEscritura = System.currentTimeMillis();
+        usuariosSerializados.synchronous().invalidate(id);
+        generacionLista.incrementAndGet();
+    }
+
+    private <T> T leer(Supplier<T> lectura) {
+        Supplier<T> enTransaccion = () -> lecturas.execute(status -> {
+            leerDeLaBase();
+            return lectura.get();
+        });
+        if (System.currentTimeMillis() - ultimaEscritura < lecturaPropia.toMillis()) {
+            return LecturaPropia.enPrimario(enTransaccion);
+        }
+        return enTransaccion.get();
+    }
+
+    // Las cargas de la cache de serializados no pasan por la cache de segundo nivel: una entrada
+    // que otra instancia dejó vieja sumaría su TTL al de esta cache. REFRESH lee de la base y deja
+    // la versión leída en la de segundo nivel
+    private void leerDeLaBase() {
+        entityManager.unwrap(Session.class).setCacheMode(CacheMode.REFRESH);
+    }
+
+    // La cache de segundo nivel de Hibernate es local a cada instancia y no ve lo escrito a
+    // través de otra: en la ventana de lectura propia se lee de la base y se refresca
+    private void omitirCacheEnLecturaPropia() {
+        if (LecturaPropia.primarioForzado()) {
+            leerDeLaBase();
+        }
+    }
+
+    /**
+     * Devuelve el valor en cache o lo carga una sola vez por clave: la primera petición que
+     * no lo encuentra deja un future en la cache y consulta la base en su propio hilo; las
+     * demás esperan ese future. La consulta no corre dentro de un compute de la cache, así
+     * que no retiene un lock del mapa (ni fija el hilo de plataforma con hilos virtuales).
+     * Un valor null o un error no quedan en cache: el future se completa siempre, también
+     * con un Error, para que las peticiones que esperan no queden colgadas.
+     */
+    private <K, V> V leerOCargar(AsyncCache<K, V> cache, K clave, Function<K, V> carga) {
+        CompletableFuture<V> enCurso = cache.getIfPresent(clave);
+        if (enCurso == null) {
+            CompletableFuture<V> propia = new CompletableFuture<>();
+            enCurso = cache.asMap().putIfAbsent(clave, propia);
+            if (enCurso == null) {
+                try {
+                    V valor = carga.apply(clave);
+                    propia.complete(valor);
+                    return valor;
+                } catch (Throwable e) {
+                    propia.completeExceptionally(e);
+                    throw e;
+                }
+            }
+        }
+        // Espera la carga que inició otra petición, la haya encontrado en la cache o en el putIfAbsent
+        if (!enCurso.isDone()) {
+            cargasCompartidas.increment();
+        }
+        try {
+            return enCurso.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    private ListaSerializada cargarListaSerializada() {
+        return leer(() -> {
+            String etag = etagLista();
+            return new ListaSerializada(etag, serializar(getAllUsuarios()));
+        });
+    }
+
+    private String etagLista() {
+        long posicion = usuarioEventoRelayRepository.findById(RelayEventosUsuario.RELAY)
+                .map(UsuarioEventoRelay::getUltimaPosicion)
+                .orElse(0L);
+        return "\"e" + posicion + "\"";
+    }
+
+    private UsuarioSerializado cargarUsuarioSerializado(Long id) {
+        return leer(() -> usuarioRepository.findById(id))
+                .map(usuario -> new UsuarioSerializado(usuario.getId(), usuario.getVersion(),
+                        serializar(mapToUsuarioResponse(usuario))))
+                .orElse(null);
+    }
+
+    private byte[] serializar(Object respuesta) {
+        try {
+            return objectMapper.writeValueAsBytes(respuesta);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public UsuarioEventoResponse mapToUsuarioEventoResponse(UsuarioEvento evento) {
+        return UsuarioEventoResponse.builder()
+                .id(evento.getId())
+                .posicion(evento.getPosicion())
+                .tipo(evento.getTipo().name())
+                .usuarioId(evento.getUsuarioId())
+                .nombre(evento.getNombre())
+                .email(evento.getEmail())
+                .fecha(evento.getFecha())
+                .build();
+    }
+
     private UsuarioResponse mapToUsuarioResponse(Usuario usuario) {
         return UsuarioResponse.builder()
                 .id(usuario.getId() != null ? usuario.getId() : null)
@@ -147,6 +506,16 @@ public class UsuarioService {
                 .build();
     }
 
+    /**
+     * Escapa los comodines de LIKE para que el prefijo se busque literal.
+     *
+     * @param texto texto ingresado por el usuario.
+     * @return texto con '!', '%' y '_' escapados con '!'.
+     */
+    private String escaparLike(String texto) {
+        return texto.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+    }
+
     private void validateUsuario(UsuarioRequest usuarioRequest) {
         if (usuarioRequest.getNombre() == null || usuarioRequest.getNombre().isEmpty()) {
             throw new IllegalArgumentException("El nombre no puede estar vacio.");
@@ -155,4 +524,24 @@ public class UsuarioService {
             throw new IllegalArgumentException("El apellido no puede estar vacio.");
         }
     }
+
+    /**
+     * Usuario ya serializado a JSON junto con la versión con la que se leyó.
+     *
+     * @param json cuerpo de GET /api/usuarios/{id}.
+     */
+    public record UsuarioSerializado(Long id, Long version, byte[] json) {
+
+        public String etag() {
+            return "\"" + id + "-" + version + "\"";
+        }
+    }
+
+    /**
+     * Lista de usuarios ya serializada a JSON junto con el ETag leído antes que ella.
+     *
+     * @param json cuerpo de GET /api/usuarios.
+     */
+    public record ListaSerializada(String etag, byte[] json) {
+    }
 }
@@ -0,0 +1,38 @@
+package com.objetivos.usuario_service.service.util;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Crea el índice FULLTEXT sobre usuario.nombre si no existe; Hibernate no
+ * puede declararlo con @Index. objetivo-service tiene la misma clase para su propia tabla.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CargueIndicesBusqueda implements CommandLineRunner {
+
+    private static final String TABLA = "usuario";
+    private static final String INDICE = "ft_usuario_nombre";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(String... args) {
+        try {
+            Integer existe = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM information_schema.statistics"
+                            + " WHERE table_schema = DATABASE() AND table_name = ? AND index_name = ?",
+                    Integer.class, TABLA, INDICE);
+            if (existe == null || existe == 0) {
+                log.info("Creando indice {} sobre {}", INDICE, TABLA);
+                jdbcTemplate.execute("CREATE FULLTEXT INDEX " + INDICE + " ON " + TABLA + " (nombre)");
+            }
+        } catch (Exception e) {
+            log.warn("No se pudo crear el indice {}: {}", INDICE, e.getMessage());
+        }
+    }
+}
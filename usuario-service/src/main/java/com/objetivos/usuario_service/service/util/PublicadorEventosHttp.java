@@ -0,0 +1,60 @@
+package com.objetivos.usuario_service.service.util;
+
+import com.objetivos.usuario_service.model.dto.UsuarioEventoResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Envía cada lote a todas las instancias de objetivo-service registradas en Eureka.
+ * Basta con que una instancia lo reciba para darlo por publicado: las que fallaron lo
+ * recuperan al leer GET /api/usuarios/eventos. Si fallan todas se lanza la excepción
+ * y el relay reintenta el lote.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "usuarios.eventos.transporte", havingValue = "http", matchIfMissing = true)
+public class PublicadorEventosHttp implements PublicadorEventosUsuario {
+
+    private final DiscoveryClient discoveryClient;
+    private final RestTemplate restTemplate;
+    private final String objetivoServiceId;
+
+    public PublicadorEventosHttp(DiscoveryClient discoveryClient, RestTemplateBuilder restTemplateBuilder,
+                                 @Value("${objetivos.service-id:objetivo-service}") String objetivoServiceId) {
+        this.discoveryClient = discoveryClient;
+        this.restTemplate = restTemplateBuilder
+                .connectTimeout(Duration.ofSeconds(1))
+                .readTimeout(Duration.ofSeconds(2))
+                .build();
+        this.objetivoServiceId = objetivoServiceId;
+    }
+
+    @Override
+    public void publicar(List<UsuarioEventoResponse> eventos) {
+        List<ServiceInstance> instancias = discoveryClient.getInstances(objetivoServiceId);
+        RuntimeException ultimoError = null;
+        int entregados = 0;
+        for (ServiceInstance instancia : instancias) {
+            try {
+                restTemplate.postForLocation(instancia.getUri() + "/api/objetivos/usuarios/eventos", eventos);
+                entregados++;
+            } catch (RuntimeException e) {
+                ultimoError = e;
+                log.warn("No se pudo enviar {} eventos de usuario a {}: {}", eventos.size(), instancia.getUri(),
+                        e.getMessage());
+            }
+        }
+        if (entregados == 0 && ultimoError != null) {
+            throw ultimoError;
+        }
+    }
+}
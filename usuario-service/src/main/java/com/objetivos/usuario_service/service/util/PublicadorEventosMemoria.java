@@ -0,0 +1,41 @@
+package com.objetivos.usuario_service.service.util;
+
+import com.objetivos.usuario_service.model.dto.UsuarioEventoResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Broker en proceso para pruebas: guarda los eventos publicados y se los entrega a los
+ * suscriptores registrados en el mismo JVM, sin red ni Eureka.
+ */
+@Component
+@ConditionalOnProperty(name = "usuarios.eventos.transporte", havingValue = "memoria")
+public class PublicadorEventosMemoria implements PublicadorEventosUsuario {
+
+    private final List<UsuarioEventoResponse> publicados = new CopyOnWriteArrayList<>();
+    private final List<Consumer<UsuarioEventoResponse>> suscriptores = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publicar(List<UsuarioEventoResponse> eventos) {
+        for (UsuarioEventoResponse evento : eventos) {
+            publicados.add(evento);
+            suscriptores.forEach(suscriptor -> suscriptor.accept(evento));
+        }
+    }
+
+    public void suscribir(Consumer<UsuarioEventoResponse> suscriptor) {
+        suscriptores.add(suscriptor);
+    }
+
+    public List<UsuarioEventoResponse> getPublicados() {
+        return List.copyOf(publicados);
+    }
+
+    public void limpiar() {
+        publicados.clear();
+    }
+}
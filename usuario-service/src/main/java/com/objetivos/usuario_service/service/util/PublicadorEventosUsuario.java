@@ -0,0 +1,18 @@
+package com.objetivos.usuario_service.service.util;
+
+import com.objetivos.usuario_service.model.dto.UsuarioEventoResponse;
+
+import java.util.List;
+
+/**
+ * Transporte de los eventos de usuario hacia los consumidores (objetivo-service).
+ * Se elige con usuarios.eventos.transporte: "http" (por defecto) o "memoria".
+ * <p>
+ * Lo llama el relay del outbox con lotes en orden de id. Si lanza una excepción el
+ * lote se reintenta completo en la siguiente pasada, así que la entrega es "al menos
+ * una vez" y los consumidores deben poder aplicar un evento repetido.
+ */
+public interface PublicadorEventosUsuario {
+
+    void publicar(List<UsuarioEventoResponse> eventos);
+}
@@ -0,0 +1,231 @@
+package com.objetivos.usuario_service.service.util;
+
+import com.objetivos.usuario_service.model.dto.UsuarioEventoResponse;
+import com.objetivos.usuario_service.model.entity.UsuarioEvento;
+import com.objetivos.usuario_service.model.entity.UsuarioEventoRelay;
+import com.objetivos.usuario_service.repository.IUsuarioEventoRelayRepository;
+import com.objetivos.usuario_service.repository.IUsuarioEventoRepository;
+import com.objetivos.usuario_service.service.UsuarioService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Relay del outbox de usuarios. Primero asigna a los eventos confirmados una posición
+ * correlativa, en orden de id; después publica por lotes en orden de posición y avanza
+ * el puntero del relay solo cuando el lote se publicó. Si la publicación falla el lote se
+ * reintenta en la siguiente pasada.
+ * <p>
+ * La asignación corre en una transacción que bloquea la fila del relay, así que con varias
+ * instancias de usuario-service solo una asigna a la vez. Las posiciones de un lote se
+ * confirman todas antes de que el siguiente pueda asignar otras: quien lee por posición
+ * nunca ve un hueco que se llene después. Un evento cuya transacción confirma tarde, con
+ * un id menor que otros ya publicados, recibe la siguiente posición libre.
+ * <p>
+ * La publicación es una llamada HTTP y no retiene el lock: el lote se lee, se publica fuera
+ * de toda transacción y el puntero se avanza después en una transacción corta. Dos
+ * instancias pueden publicar el mismo lote; objetivo-service descarta los eventos que ya
+ * aplicó.
+ */
+@Slf4j
+@Component
+public class RelayEventosUsuario {
+
+    public static final String RELAY = "usuarios";
+
+    private final IUsuarioEventoRepository eventoRepository;
+    private final IUsuarioEventoRelayRepository relayRepository;
+    private final PublicadorEventosUsuario publicador;
+    private final UsuarioService usuarioService;
+    private final TransactionTemplate transactionTemplate;
+
+    private final int tamanoLote;
+    private final Duration retencion;
+
+    private final Counter publicados;
+    private final Counter fallos;
+    private final Counter purgados;
+    private final Timer duracionLote;
+    private final AtomicLong pendientes = new AtomicLong();
+    private final AtomicLong retrasoSegundos = new AtomicLong();
+
+    public RelayEventosUsuario(IUsuarioEventoRepository eventoRepository,
+                               IUsuarioEventoRelayRepository relayRepository,
+                               PublicadorEventosUsuario publicador, UsuarioService usuarioService,
+                               TransactionTemplate transactionTemplate, MeterRegistry meterRegistry,
+                               @Value("${usuarios.eventos.relay.tamano-lote:200}") int tamanoLote,
+                               @Value("${usuarios.eventos.retencion:7d}") Duration retencion) {
+        this.eventoRepository = eventoRepository;
+        this.relayRepository = relayRepository;
+        this.publicador = publicador;
+        this.usuarioService = usuarioService;
+        this.transactionTemplate = transactionTemplate;
+        this.tamanoLote = Math.max(tamanoLote, 1);
+        this.retencion = retencion;
+        this.publicados = Counter.builder("usuarios.outbox.publicados")
+                .description("Eventos de usuario publicados por el relay")
+                .register(meterRegistry);
+        this.fallos = Counter.builder("usuarios.outbox.fallos")
+                .description("Lotes del outbox cuya publicación falló y se reintentarán")
+                .register(meterRegistry);
+        this.purgados = Counter.builder("usuarios.outbox.purgados")
+                .description("Eventos publicados borrados por la retención del outbox")
+                .register(meterRegistry);
+        this.duracionLote = Timer.builder("usuarios.outbox.lote")
+                .description("Duración de la publicación de un lote del outbox")
+                .register(meterRegistry);
+        Gauge.builder("usuarios.outbox.pendientes", pendientes, AtomicLong::get)
+                .description("Eventos del outbox todavía sin publicar")
+                .register(meterRegistry);
+        Gauge.builder("usuarios.outbox.retraso", retrasoSegundos, AtomicLong::get)
+                .description("Antigüedad en segundos del evento pendiente más viejo")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Asigna posición a los eventos confirmados y publica lotes hasta vaciar el outbox o
+     * hasta que uno falle. Las posiciones se asignan aunque la publicación falle: el feed
+     * y el ETag de la lista de usuarios no dependen de que objetivo-service responda.
+     */
+    @Scheduled(fixedDelayString = "${usuarios.eventos.relay.intervalo:1s}")
+    public void drenar() {
+        try {
+            int asignados;
+            do {
+                asignados = transactionTemplate.execute(estado -> asignarPosiciones());
+            } while (asignados == tamanoLote);
+            int publicadosLote;
+            do {
+                publicadosLote = publicarLote();
+            } while (publicadosLote == tamanoLote);
+        } catch (Exception e) {
+            fallos.increment();
+            log.warn("No se pudo publicar el lote de eventos de usuario; se reintenta: {}", e.getMessage());
+        } finally {
+            medirRetraso();
+        }
+    }
+
+    /**
+     * Borra los eventos ya publicados con más antigüedad que usuarios.eventos.retencion.
+     * Los consumidores que estén desconectados más tiempo que la retención ya no pueden
+     * recuperar esos eventos desde GET /api/usuarios/eventos.
+     */
+    @Scheduled(cron = "${usuarios.eventos.purga.cron:0 0 * * * *}")
+    public void purgar() {
+        try {
+            long publicado = relayRepository.findById(RELAY).map(UsuarioEventoRelay::getUltimoPublicado).orElse(0L);
+            LocalDateTime limite = LocalDateTime.now().minus(retencion);
+            int borrados;
+            long total = 0;
+            do {
+                borrados = transactionTemplate.execute(estado -> eventoRepository.purgar(publicado, limite,
+                        tamanoLote * 10));
+                total += borrados;
+            } while (borrados == tamanoLote * 10);
+            purgados.increment(total);
+            if (total > 0) {
+                log.info("Retención del outbox de usuarios: {} eventos borrados", total);
+            }
+        } catch (Exception e) {
+            log.warn("No se pudo aplicar la retención del outbox de usuarios: {}", e.getMessage());
+        }
+    }
+
+    private int asignarPosiciones() {
+        UsuarioEventoRelay relay = bloquearRelay();
+        if (relay.getUltimaPosicion() == 0) {
+            inicializarPosiciones(relay);
+        }
+        List<UsuarioEvento> lote = eventoRepository.findByPosicionIsNullOrderByIdAsc(Limit.of(tamanoLote));
+        long posicion = relay.getUltimaPosicion();
+        for (UsuarioEvento evento : lote) {
+            evento.setPosicion(++posicion);
+        }
+        relay.setUltimaPosicion(posicion);
+        return lote.size();
+    }
+
+    /**
+     * Primera pasada con la columna posicion: los eventos que ya existían toman su id como
+     * posición, así el checkpoint de los consumidores (que era un id) sigue valiendo. Las
+     * posiciones nuevas empiezan después del mayor id, por encima de cualquier checkpoint.
+     */
+    private void inicializarPosiciones(UsuarioEventoRelay relay) {
+        long hasta = eventoRepository.findFirstByOrderByIdDesc().map(UsuarioEvento::getId).orElse(0L);
+        int asignados = eventoRepository.asignarPosicionPorId(hasta);
+        relay.setUltimaPosicion(Math.max(hasta, relay.getUltimoPublicado()));
+        if (asignados > 0) {
+            log.info("Outbox de usuarios: {} eventos existentes con su id como posición", asignados);
+        }
+    }
+
+    private int publicarLote() {
+        List<UsuarioEventoResponse> eventos = transactionTemplate.execute(estado -> leerLote());
+        if (eventos.isEmpty()) {
+            return 0;
+        }
+        duracionLote.record(() -> publicador.publicar(eventos));
+
+        long ultima = eventos.get(eventos.size() - 1).getPosicion();
+        transactionTemplate.executeWithoutResult(estado -> avanzarPublicado(ultima));
+        publicados.increment(eventos.size());
+        return eventos.size();
+    }
+
+    private List<UsuarioEventoResponse> leerLote() {
+        long publicado = relayRepository.findById(RELAY).map(UsuarioEventoRelay::getUltimoPublicado).orElse(0L);
+        return eventoRepository.findByPosicionGreaterThanOrderByPosicionAsc(publicado, Limit.of(tamanoLote))
+                .stream()
+                .map(usuarioService::mapToUsuarioEventoResponse)
+                .toList();
+    }
+
+    // Otra instancia pudo publicar un lote posterior mientras tanto: el puntero nunca retrocede
+    private void avanzarPublicado(long posicion) {
+        UsuarioEventoRelay relay = bloquearRelay();
+        if (posicion > relay.getUltimoPublicado()) {
+            relay.setUltimoPublicado(posicion);
+            relay.setActualizado(LocalDateTime.now());
+        }
+    }
+
+    // SELECT ... FOR UPDATE sobre la fila del relay; la crea la primera vez
+    private UsuarioEventoRelay bloquearRelay() {
+        relayRepository.crearSiNoExiste(RELAY);
+        return relayRepository.findConBloqueoByNombre(RELAY).orElseThrow();
+    }
+
+    private void medirRetraso() {
+        try {
+            long publicado = relayRepository.findById(RELAY).map(UsuarioEventoRelay::getUltimoPublicado).orElse(0L);
+            pendientes.set(eventoRepository.countByPosicionGreaterThan(publicado)
+                    + eventoRepository.countByPosicionIsNull());
+            // Sin posición solo quedan eventos posteriores a los que ya la tienen, salvo los que confirmaron tarde
+            LocalDateTime ahora = LocalDateTime.now();
+            retrasoSegundos.set(Stream.of(eventoRepository.findFirstByPosicionGreaterThanOrderByPosicionAsc(publicado),
+                            eventoRepository.findFirstByPosicionIsNullOrderByIdAsc())
+                    .flatMap(Optional::stream)
+                    .mapToLong(evento -> Duration.between(evento.getFecha(), ahora).toSeconds())
+                    .max()
+                    .orElse(0L));
+        } catch (Exception e) {
+            log.debug("No se pudo medir el retraso del outbox de usuarios: {}", e.getMessage());
+        }
+    }
+}
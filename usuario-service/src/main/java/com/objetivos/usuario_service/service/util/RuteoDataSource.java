@@ -0,0 +1,60 @@
+package com.objetivos.usuario_service.service.util;
+
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Elige el pool de cada conexión: las transacciones readOnly van a la réplica, salvo que la
+ * petición esté en su ventana de lectura propia (LecturaPropia); las escrituras y lo que
+ * corre fuera de una transacción van al primario.
+ * <p>
+ * Se decide cuando se toma la conexión física, así que tiene que ir detrás de un
+ * LazyConnectionDataSourceProxy (ver ConfiguracionReplica). Igual que en objetivo-service.
+ */
+public class RuteoDataSource extends AbstractRoutingDataSource {
+
+    private enum Destino {
+        PRIMARIO, REPLICA
+    }
+
+    private final Counter lecturasReplica;
+    private final Counter lecturasPropias;
+    private final Counter escrituras;
+
+    public RuteoDataSource(DataSource primario, DataSource replica, MeterRegistry meterRegistry) {
+        setTargetDataSources(Map.of(Destino.PRIMARIO, primario, Destino.REPLICA, replica));
+        setDefaultTargetDataSource(primario);
+        this.lecturasReplica = contador(meterRegistry, "replica", "solo-lectura");
+        this.lecturasPropias = contador(meterRegistry, "primario", "lectura-propia");
+        this.escrituras = contador(meterRegistry, "primario", "escritura");
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            escrituras.increment();
+            return Destino.PRIMARIO;
+        }
+        if (LecturaPropia.primarioForzado()) {
+            lecturasPropias.increment();
+            return Destino.PRIMARIO;
+        }
+        lecturasReplica.increment();
+        return Destino.REPLICA;
+    }
+
+    private static Counter contador(MeterRegistry meterRegistry, String destino, String motivo) {
+        return Counter.builder("datasource.ruteo")
+                .description("Conexiones físicas tomadas por pool de destino y motivo")
+                .tag("destino", destino)
+                .tag("motivo", motivo)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,21 @@
+package com.objetivos.usuario_service;
+
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.testcontainers.containers.MySQLContainer;
+
+/**
+ * MySQL en un contenedor para las pruebas que dependen del motor: ids IDENTITY, bloqueos
+ * de fila y visibilidad entre transacciones. Las clases que lo importan comparten el
+ * contenedor mientras compartan el contexto de Spring.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+public class MySqlPruebas {
+
+	@Bean
+	@ServiceConnection
+	MySQLContainer<?> mysql() {
+		return new MySQLContainer<>("mysql:8.0");
+	}
+}
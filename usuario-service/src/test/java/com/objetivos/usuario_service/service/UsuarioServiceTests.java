@@ -0,0 +1,140 @@
+package com.objetivos.usuario_service.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.objetivos.usuario_service.model.entity.Usuario;
+import com.objetivos.usuario_service.model.entity.UsuarioEventoRelay;
+import com.objetivos.usuario_service.repository.IUsuarioEventoRelayRepository;
+import com.objetivos.usuario_service.repository.IUsuarioEventoRepository;
+import com.objetivos.usuario_service.repository.IUsuarioRepository;
+import com.objetivos.usuario_service.service.util.RelayEventosUsuario;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+
+class UsuarioServiceTests {
+
+	private IUsuarioRepository usuarioRepository;
+	private IUsuarioEventoRelayRepository relayRepository;
+	private SimpleMeterRegistry meterRegistry;
+	private Session session;
+	private UsuarioService service;
+
+	@BeforeEach
+	void setUp() {
+		usuarioRepository = mock(IUsuarioRepository.class);
+		relayRepository = mock(IUsuarioEventoRelayRepository.class);
+		PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+		when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+		meterRegistry = new SimpleMeterRegistry();
+		service = new UsuarioService(usuarioRepository, mock(IUsuarioEventoRepository.class), relayRepository,
+				new ObjectMapper(), meterRegistry, transactionManager, Duration.ofMinutes(1), 100,
+				Duration.ofSeconds(5));
+		session = mock(Session.class);
+		EntityManager entityManager = mock(EntityManager.class);
+		when(entityManager.unwrap(Session.class)).thenReturn(session);
+		ReflectionTestUtils.setField(service, "entityManager", entityManager);
+	}
+
+	@Test
+	void laCargaDeUnUsuarioSerializadoNoLeeLaCacheDeSegundoNivel() {
+		when(usuarioRepository.findById(1L)).thenReturn(Optional.of(usuario(1L)));
+
+		assertEquals("\"1-0\"", service.findById(1L).etag());
+
+		verify(session).setCacheMode(CacheMode.REFRESH);
+	}
+
+	@Test
+	void elSnapshotDeLaListaConservaElEtagConElQueSeLeyo() {
+		posicionRelay(5);
+		when(usuarioRepository.findAll()).thenReturn(List.of(usuario(1L)));
+
+		assertEquals("\"e5\"", service.getAllUsuariosSerializado().etag());
+
+		// Otra instancia escribió: el ETag actual avanza, el snapshot en cache no
+		posicionRelay(6);
+		assertEquals("\"e6\"", service.etagUsuarios());
+		assertEquals("\"e5\"", service.getAllUsuariosSerializado().etag());
+	}
+
+	@Test
+	void unErrorEnLaCargaLlegaALasPeticionesQueEsperanYNoQuedaEnCache() throws Exception {
+		CountDownLatch cargando = new CountDownLatch(1);
+		CountDownLatch fallar = new CountDownLatch(1);
+		when(usuarioRepository.findById(1L))
+				.thenAnswer(invocacion -> {
+					cargando.countDown();
+					fallar.await(10, TimeUnit.SECONDS);
+					throw new LinkageError("clase no disponible");
+				})
+				.thenReturn(Optional.of(usuario(1L)));
+
+		ExecutorService hilos = Executors.newFixedThreadPool(2);
+		try {
+			Future<?> primera = hilos.submit(() -> service.findById(1L));
+			assertTrue(cargando.await(5, TimeUnit.SECONDS));
+			// La segunda encuentra la carga en curso y la espera
+			Future<?> segunda = hilos.submit(() -> service.findById(1L));
+			esperarCargaCompartida();
+			fallar.countDown();
+
+			ExecutionException error = assertThrows(ExecutionException.class, () -> primera.get(5, TimeUnit.SECONDS));
+			assertTrue(error.getCause() instanceof LinkageError);
+			ExecutionException espera = assertThrows(ExecutionException.class, () -> segunda.get(5, TimeUnit.SECONDS));
+			assertTrue(espera.getCause() instanceof LinkageError);
+		} finally {
+			hilos.shutdownNow();
+		}
+
+		assertEquals(1L, service.findById(1L).id());
+	}
+
+	private void esperarCargaCompartida() throws InterruptedException {
+		long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (meterRegistry.counter("usuarios.cache.cargas.compartidas").count() < 1) {
+			assertTrue(System.nanoTime() < limite, "la segunda petición no esperó la carga en curso");
+			Thread.sleep(10);
+		}
+	}
+
+	private void posicionRelay(long posicion) {
+		when(relayRepository.findById(RelayEventosUsuario.RELAY)).thenReturn(Optional.of(
+				UsuarioEventoRelay.builder().nombre(RelayEventosUsuario.RELAY).ultimaPosicion(posicion).build()));
+	}
+
+	private static Usuario usuario(Long id) {
+		return Usuario.builder()
+				.id(id)
+				.nombre("ANA")
+				.apellido("GOMEZ")
+				.email("ana@correo.com")
+				.version(0L)
+				.build();
+	}
+}
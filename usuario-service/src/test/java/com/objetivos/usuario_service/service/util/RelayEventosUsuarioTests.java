@@ -0,0 +1,165 @@
+package com.objetivos.usuario_service.service.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.objetivos.usuario_service.MySqlPruebas;
+import com.objetivos.usuario_service.model.dto.UsuarioEventoResponse;
+import com.objetivos.usuario_service.model.entity.UsuarioEvento;
+import com.objetivos.usuario_service.repository.IUsuarioEventoRelayRepository;
+import com.objetivos.usuario_service.repository.IUsuarioEventoRepository;
+import com.objetivos.usuario_service.service.UsuarioService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DataJpaTest(properties = "usuarios.eventos.transporte=memoria")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ MySqlPruebas.class, RelayEventosUsuarioTests.Configuracion.class, RelayEventosUsuario.class,
+		PublicadorEventosMemoria.class, UsuarioService.class })
+// Cada transacción confirma de verdad: la prueba depende de lo que ven las demás
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Testcontainers(disabledWithoutDocker = true)
+class RelayEventosUsuarioTests {
+
+	@TestConfiguration(proxyBeanMethods = false)
+	static class Configuracion {
+
+		@Bean
+		MeterRegistry meterRegistry() {
+			return new SimpleMeterRegistry();
+		}
+
+		@Bean
+		ObjectMapper objectMapper() {
+			return new ObjectMapper();
+		}
+
+		@Bean
+		TransactionTemplate transactionTemplate(PlatformTransactionManager transactionManager) {
+			return new TransactionTemplate(transactionManager);
+		}
+	}
+
+	@Autowired
+	private RelayEventosUsuario relay;
+
+	@Autowired
+	private PublicadorEventosMemoria publicador;
+
+	@Autowired
+	private UsuarioService usuarioService;
+
+	@Autowired
+	private IUsuarioEventoRepository eventoRepository;
+
+	@Autowired
+	private IUsuarioEventoRelayRepository relayRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@BeforeEach
+	void setUp() {
+		eventoRepository.deleteAllInBatch();
+		relayRepository.deleteAllInBatch();
+		publicador.limpiar();
+	}
+
+	@Test
+	void eventoQueConfirmaTardeSePublicaDespuesSinSaltearlo() throws Exception {
+		// La primera pasada inicializa las posiciones con el evento que ya existe
+		guardar(1L);
+		relay.drenar();
+
+		CountDownLatch insertado = new CountDownLatch(1);
+		CountDownLatch confirmar = new CountDownLatch(1);
+		ExecutorService lenta = Executors.newSingleThreadExecutor();
+		try {
+			// Toma un id y no confirma hasta que el evento siguiente ya se publicó
+			Future<Long> tardio = lenta.submit(() -> transactionTemplate.execute(estado -> {
+				Long id = eventoRepository.save(evento(2L)).getId();
+				insertado.countDown();
+				try {
+					confirmar.await(10, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				return id;
+			}));
+			assertTrue(insertado.await(10, TimeUnit.SECONDS));
+
+			Long rapido = guardar(3L);
+			relay.drenar();
+			confirmar.countDown();
+			Long idTardio = tardio.get(10, TimeUnit.SECONDS);
+			relay.drenar();
+
+			assertTrue(idTardio < rapido, "el evento tardío tiene el id menor");
+			List<UsuarioEventoResponse> publicados = publicador.getPublicados();
+			assertEquals(List.of(1L, 3L, 2L), publicados.stream().map(UsuarioEventoResponse::getUsuarioId).toList());
+			long primera = publicados.get(0).getPosicion();
+			assertEquals(List.of(primera, primera + 1, primera + 2),
+					publicados.stream().map(UsuarioEventoResponse::getPosicion).toList());
+
+			// Un consumidor que ya leyó hasta el evento rápido encuentra el tardío en la siguiente lectura
+			List<UsuarioEventoResponse> siguientes = usuarioService.findEventos(publicados.get(1).getPosicion(), 10);
+			assertEquals(List.of(idTardio), siguientes.stream().map(UsuarioEventoResponse::getId).toList());
+			assertEquals("\"e" + (primera + 2) + "\"", usuarioService.etagUsuarios());
+		} finally {
+			confirmar.countDown();
+			lenta.shutdownNow();
+		}
+	}
+
+	@Test
+	void cadaEventoNuevoCambiaElEtagDeLaLista() {
+		guardar(1L);
+		relay.drenar();
+		String etag = usuarioService.etagUsuarios();
+
+		guardar(2L);
+		relay.drenar();
+
+		assertEquals(2, usuarioService.findEventos(0L, 10).size());
+		assertNotEquals(etag, usuarioService.etagUsuarios());
+	}
+
+	private Long guardar(Long usuarioId) {
+		return eventoRepository.save(evento(usuarioId)).getId();
+	}
+
+	private static UsuarioEvento evento(Long usuarioId) {
+		return UsuarioEvento.builder()
+				.tipo(UsuarioEvento.Tipo.CREADO)
+				.usuarioId(usuarioId)
+				.nombre("USUARIO " + usuarioId)
+				.email("usuario" + usuarioId + "@correo.com")
+				.fecha(LocalDateTime.now())
+				.build();
+	}
+}
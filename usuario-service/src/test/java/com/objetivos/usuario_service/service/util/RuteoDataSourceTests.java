@@ -0,0 +1,80 @@
+package com.objetivos.usuario_service.service.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class RuteoDataSourceTests {
+
+	private DataSource primario;
+	private DataSource replica;
+	private SimpleMeterRegistry meterRegistry;
+	private RuteoDataSource ruteo;
+
+	@BeforeEach
+	void setUp() {
+		primario = mock(DataSource.class);
+		replica = mock(DataSource.class);
+		meterRegistry = new SimpleMeterRegistry();
+		ruteo = new RuteoDataSource(primario, replica, meterRegistry);
+		ruteo.afterPropertiesSet();
+	}
+
+	@AfterEach
+	void limpiar() {
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+	}
+
+	@Test
+	void transaccionReadOnlyVaALaReplica() throws SQLException {
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+		ruteo.getConnection();
+
+		verify(replica).getConnection();
+		verify(primario, never()).getConnection();
+		assertEquals(1, conexiones("replica", "solo-lectura"));
+	}
+
+	@Test
+	void escrituraVaAlPrimario() throws SQLException {
+		ruteo.getConnection();
+
+		verify(primario).getConnection();
+		verify(replica, never()).getConnection();
+		assertEquals(1, conexiones("primario", "escritura"));
+	}
+
+	@Test
+	void lecturaEnVentanaDeLecturaPropiaVaAlPrimario() throws SQLException {
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+		LecturaPropia.enPrimario(() -> {
+			try {
+				return ruteo.getConnection();
+			} catch (SQLException e) {
+				throw new IllegalStateException(e);
+			}
+		});
+
+		verify(primario).getConnection();
+		verify(replica, never()).getConnection();
+		assertEquals(1, conexiones("primario", "lectura-propia"));
+	}
+
+	private double conexiones(String destino, String motivo) {
+		return meterRegistry.get("datasource.ruteo").tag("destino", destino).tag("motivo", motivo).counter().count();
+	}
+}